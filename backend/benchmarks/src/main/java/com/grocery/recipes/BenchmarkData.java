@@ -0,0 +1,143 @@
+package com.grocery.recipes;
+
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.service.CollectionVersionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Fixtures shared by the benchmarks: deterministic recipe graphs, and repository stubs so the
+ * services run without Spring or a database.
+ */
+public final class BenchmarkData {
+
+    // Recipes draw from a small vocabulary so generated lines overlap and merge like real ones
+    private static final String[] NAMES = {"Onion", "Garlic", "Tomato", "Olive Oil", "Salt", "Pepper", "Rice",
+            "Chicken Breast", "Carrot", "Potato", "Butter", "Milk", "Flour", "Egg", "Cheddar", "Basil",
+            "Lemon", "Cumin", "Paprika", "Spinach", "Mushroom", "Cream", "Parsley", "Ginger"};
+    private static final String[] UNITS = {"g", "ml", "pcs", "tbsp", "tsp"};
+
+    private BenchmarkData() {
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("Benchmark");
+        user.setEmail("benchmark@example.com");
+        return user;
+    }
+
+    public static List<Recipe> recipes(User user, int count, int ingredientsPerRecipe) {
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            Recipe recipe = new Recipe();
+            recipe.setId((long) r + 1);
+            recipe.setName("Recipe " + r);
+            recipe.setDescription("Step one, step two and a few more words of method for recipe " + r);
+            recipe.setServings(2);
+            recipe.setUser(user);
+            for (int i = 0; i < ingredientsPerRecipe; i++) {
+                int n = (r * 7 + i * 3) % NAMES.length;
+                Ingredient ingredient = new Ingredient();
+                ingredient.setId((long) n + 1);
+                ingredient.setName(NAMES[n]);
+                RecipeIngredient line = new RecipeIngredient();
+                line.setId((long) r * ingredientsPerRecipe + i + 1);
+                line.setRecipe(recipe);
+                line.setIngredient(ingredient);
+                line.setQuantity(1 + (i % 4) * 50);
+                line.setUnit(UNITS[n % UNITS.length]);
+                line.setNote(i % 5 == 0 ? "chopped" : null);
+                recipe.getIngredients().add(line);
+            }
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+
+    public static List<MealPlan> mealPlans(User user, List<Recipe> recipes, int count, int itemsPerPlan) {
+        List<MealPlan> plans = new ArrayList<>(count);
+        for (int p = 0; p < count; p++) {
+            MealPlan plan = new MealPlan();
+            plan.setId((long) p + 1);
+            plan.setName("Plan " + p);
+            plan.setUser(user);
+            for (int d = 0; d < itemsPerPlan; d++) {
+                MealPlanItem item = new MealPlanItem();
+                item.setMealPlan(plan);
+                item.setRecipe(recipes.get((p + d) % recipes.size()));
+                item.setDate(LocalDate.of(2025, 1, 1).plusDays(d));
+                plan.getItems().add(item);
+            }
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    public static List<GroceryItem> activeItems(User user, int count) {
+        List<GroceryItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GroceryItem item = new GroceryItem();
+            item.setId((long) i + 1);
+            // Half the list shares a name with generated lines, half never matches
+            item.setItemName(i % 2 == 0 ? NAMES[i % NAMES.length] : "Pantry " + i);
+            item.setQuantity(1);
+            item.setUnit(UNITS[i % UNITS.length]);
+            item.setDateAdded("01-01-2025");
+            item.setUser(user);
+            items.add(item);
+        }
+        return items;
+    }
+
+    // Implements a repository (or any interface) with the given methods; anything else throws
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> handler = methods.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+
+    // Counter bumps are a single-row UPDATE (plus a read-back for change sequences) in production; here they cost nothing
+    public static CollectionVersionService collectionVersions() {
+        return new CollectionVersionService(new JdbcTemplate() {
+            @Override
+            public int update(String sql, Object... args) {
+                return 1;
+            }
+
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+                return requiredType.cast(1L);
+            }
+        });
+    }
+
+    // Stands in for @Value injection
+    public static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.grocery.recipes;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line and always attaches the GC
+ * profiler, so every result comes with allocation rate and bytes allocated per operation
+ * (gc.alloc.rate.norm), which is what most of our optimizations move.
+ * <pre>
+ * mvn -f backend/pom.xml install -DskipTests
+ * mvn -f backend/benchmarks/pom.xml package
+ * java -jar backend/benchmarks/target/benchmarks.jar                 # everything
+ * java -jar backend/benchmarks/target/benchmarks.jar Jwt -p cookies=16  # regex filter, parameters
+ * java -jar backend/benchmarks/target/benchmarks.jar -prof stack      # extra profilers on top of gc
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,49 @@
+package com.grocery.recipes.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.recipes.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson over recipe graphs (recipe, ingredient lines, ingredients), as written by
+ * GET /api/recipes and read by POST/PUT /api/recipes. Uses the same builder defaults as the app.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeSerializationBenchmark {
+
+    @Param({"1", "50"})
+    private int recipes;
+
+    @Param({"12"})
+    private int ingredientsPerRecipe;
+
+    private ObjectMapper objectMapper;
+    private List<Recipe> recipeGraph;
+    private byte[] recipeJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        recipeGraph = BenchmarkData.recipes(BenchmarkData.user(), recipes, ingredientsPerRecipe);
+        recipeJson = objectMapper.writeValueAsBytes(recipeGraph.get(0));
+    }
+
+    @Benchmark
+    public byte[] writeRecipes() throws Exception {
+        return objectMapper.writeValueAsBytes(recipeGraph);
+    }
+
+    @Benchmark
+    public Recipe readRecipe() throws Exception {
+        return objectMapper.readValue(recipeJson, Recipe.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.grocery.recipes.security;
+
+import com.grocery.recipes.BenchmarkData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token work done on every login and every authenticated request. JwtUtils derives the HMAC key
+ * from the secret on each call, so that cost is part of every number here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        BenchmarkData.setField(jwtUtils, "jwtSecret", "benchmark-secret-that-is-long-enough-for-hs256");
+        BenchmarkData.setField(jwtUtils, "jwtExpirationMs", 1_800_000);
+        token = jwtUtils.generateJwtToken("benchmark@example.com", 42L);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken("benchmark@example.com", 42L);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    // What AuthTokenFilter does per request: validate, then parse again for the subject
+    @Benchmark
+    public String validateAndReadEmail() {
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getEmailFromJwtToken(token) : null;
+    }
+}
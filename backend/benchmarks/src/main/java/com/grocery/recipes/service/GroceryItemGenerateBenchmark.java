@@ -0,0 +1,78 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.BenchmarkData;
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grocery generation without the database: summing recipe lines by name + unit + note, then
+ * matching the result against the user's active list. Repositories are stubs returning
+ * pre-built graphs, so only the in-memory aggregation and merge are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroceryItemGenerateBenchmark {
+
+    @Param({"5", "50"})
+    private int recipes;
+
+    @Param({"12"})
+    private int ingredientsPerRecipe;
+
+    @Param({"0", "200"})
+    private int activeItems;
+
+    private GroceryItemServiceImpl service;
+    private User user;
+    private List<Long> recipeIds;
+    private List<Long> mealPlanIds;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user();
+        List<Recipe> recipeGraph = BenchmarkData.recipes(user, recipes, ingredientsPerRecipe);
+        List<MealPlan> plans = BenchmarkData.mealPlans(user, recipeGraph, Math.max(1, recipes / 5), 7);
+        List<GroceryItem> active = BenchmarkData.activeItems(user, activeItems);
+        recipeIds = recipeGraph.stream().map(Recipe::getId).toList();
+        mealPlanIds = plans.stream().map(MealPlan::getId).toList();
+
+        RecipeRepository recipeRepository = BenchmarkData.stub(RecipeRepository.class, Map.of(
+                "findByIdInAndUser", args -> recipeGraph,
+                "fetchIngredients", args -> new ArrayList<>((java.util.Collection<?>) args[0])));
+        MealPlanRepository mealPlanRepository = BenchmarkData.stub(MealPlanRepository.class, Map.of(
+                "findByIdInAndUser", args -> plans));
+        GroceryItemRepository groceryItemRepository = BenchmarkData.stub(GroceryItemRepository.class, Map.of(
+                "findByUserAndPurchasedFalseOrderByDateAddedDesc", args -> active,
+                "saveAll", args -> args[0]));
+        MealPlanTemplateService templateService = BenchmarkData.stub(MealPlanTemplateService.class, Map.of(
+                "expandPlans", args -> 0));
+
+        service = new GroceryItemServiceImpl(groceryItemRepository, null, null, recipeRepository, mealPlanRepository,
+                templateService, new DashboardStatsService(null, null, null, null), null,
+                BenchmarkData.collectionVersions(), new GroceryItemStreamService(Runnable::run, new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public List<GroceryItem> generateFromRecipes() {
+        return service.generateFromRecipesByUser(recipeIds, "01-01-2025", user);
+    }
+
+    @Benchmark
+    public List<GroceryItem> generateFromMealPlans() {
+        return service.generateFromMealPlansByUser(mealPlanIds, "01-01-2025", user);
+    }
+}
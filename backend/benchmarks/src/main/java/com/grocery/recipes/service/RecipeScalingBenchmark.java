@@ -0,0 +1,59 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.BenchmarkData;
+import com.grocery.recipes.model.Recipe;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.RecipeRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The servings loops in RecipeServiceImpl: rescaling one recipe, and resetting every recipe of a
+ * user to a default. Servings alternate between two values so quantities stay bounded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeScalingBenchmark {
+
+    @Param({"10", "200"})
+    private int recipes;
+
+    @Param({"12"})
+    private int ingredientsPerRecipe;
+
+    private RecipeServiceImpl service;
+    private User user;
+    private boolean toggle;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user();
+        List<Recipe> recipeGraph = BenchmarkData.recipes(user, recipes, ingredientsPerRecipe);
+        RecipeRepository recipeRepository = BenchmarkData.stub(RecipeRepository.class, Map.of(
+                "findByUser", args -> recipeGraph,
+                "findByIdAndUser", args -> Optional.of(recipeGraph.get(0)),
+                "save", args -> args[0],
+                "saveAll", args -> args[0]));
+        service = new RecipeServiceImpl(recipeRepository, null, null, null, BenchmarkData.collectionVersions());
+    }
+
+    @Benchmark
+    public void updateServings() {
+        toggle = !toggle;
+        service.updateServingsAndScaleQuantities(1L, toggle ? 4 : 2, user);
+    }
+
+    @Benchmark
+    public void setAllDefaultServings() {
+        toggle = !toggle;
+        service.setAllRecipesDefaultServings(toggle ? 4 : 2, user);
+    }
+}
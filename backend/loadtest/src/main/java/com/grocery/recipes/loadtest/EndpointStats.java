@@ -0,0 +1,70 @@
+package com.grocery.recipes.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error count per endpoint, shared by all driver threads. Latencies are
+ * recorded in microseconds; the report gives throughput and percentiles in milliseconds.
+ */
+public class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+    private volatile boolean recording;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+    }
+
+    public void record(String endpoint, long nanos, boolean ok) {
+        if (!recording) return;
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        stats.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_LATENCY_MICROS));
+        if (!ok) {
+            stats.errors.increment();
+        }
+    }
+
+    public void print(double seconds) {
+        String format = "%-46s %9s %7s %9s %9s %9s %9s %9s%n";
+        System.out.printf(format, "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+        long errors = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram latency = entry.getValue().latency.copy();
+            long endpointErrors = entry.getValue().errors.sum();
+            total.add(latency);
+            errors += endpointErrors;
+            printRow(format, entry.getKey(), latency, endpointErrors, seconds);
+        }
+        printRow(format, "total", total, errors, seconds);
+    }
+
+    private static void printRow(String format, String name, Histogram latency, long errors, double seconds) {
+        System.out.printf(format, name, latency.getTotalCount(), errors,
+                String.format("%.1f", latency.getTotalCount() / seconds),
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getMaxValue()));
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private static final class Endpoint {
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,206 @@
+package com.grocery.recipes.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP driver. Each worker signs in as one of the seeded users, loads its meal plans,
+ * then repeats steps drawn from the weighted mix until the run ends:
+ * <ul>
+ *   <li>login - sign in again with the password (BCrypt plus a new refresh token)</li>
+ *   <li>recipes - list all recipes with their ingredient lines</li>
+ *   <li>generate - generate groceries from one or two meal plans</li>
+ *   <li>purchase - load the active list and mark a few items purchased</li>
+ *   <li>refresh - rotate the refresh token for a new access token</li>
+ * </ul>
+ * Requests made during the warmup are not recorded.
+ */
+public class LoadDriver {
+
+    static final List<String> STEPS = List.of("login", "recipes", "generate", "purchase", "refresh");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final String baseUrl;
+    private final LoadTestOptions options;
+    private final EndpointStats stats = new EndpointStats();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client;
+    private final String[] weightedSteps;
+
+    public LoadDriver(String baseUrl, LoadTestOptions options) {
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(Math.max(4, options.concurrency / 4)))
+                .build();
+        List<String> steps = new ArrayList<>();
+        options.mix.forEach((step, weight) -> steps.addAll(Collections.nCopies(weight, step)));
+        this.weightedSteps = steps.toArray(new String[0]);
+    }
+
+    public void run() throws Exception {
+        // Purchase rollups are maintained incrementally; build them once for the seeded history
+        Session admin = login(0);
+        send("POST /api/admin/groceryitems/rollups/rebuild",
+                request("/api/admin/groceryitems/rollups/rebuild", admin).POST(HttpRequest.BodyPublishers.noBody()));
+
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds + options.durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        for (int w = 0; w < options.concurrency; w++) {
+            int user = w % options.users;
+            workers.submit(() -> work(user, end));
+        }
+
+        System.out.printf("Driving %s with %d workers over %d users: %ds warmup, %ds measured, mix %s%n",
+                baseUrl, options.concurrency, options.users, options.warmupSeconds, options.durationSeconds, options.mix);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.warmupSeconds));
+        stats.startRecording();
+        long measuredFrom = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(options.durationSeconds));
+        stats.stopRecording();
+        double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+
+        workers.shutdownNow();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+        stats.print(seconds);
+    }
+
+    private void work(int user, long end) {
+        try {
+            Session session = login(user);
+            List<Long> planIds = mealPlanIds(session);
+            while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                String step = weightedSteps[ThreadLocalRandom.current().nextInt(weightedSteps.length)];
+                try {
+                    switch (step) {
+                        case "login" -> session = login(user);
+                        case "recipes" -> send("GET /api/recipes", request("/api/recipes", session).GET());
+                        case "generate" -> generate(session, planIds);
+                        case "purchase" -> purchase(session);
+                        case "refresh" -> refresh(session);
+                        default -> throw new IllegalStateException(step);
+                    }
+                } catch (IOException e) {
+                    // Already counted as an error for the endpoint; keep the worker going
+                }
+                if (options.thinkMillis > 0) {
+                    Thread.sleep(options.thinkMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Worker for user " + user + " stopped: " + e);
+        }
+    }
+
+    private Session login(int user) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "loginIdentifier", SeedDataGenerator.email(user),
+                "password", SeedDataGenerator.PASSWORD,
+                "deviceInfo", "loadtest"));
+        HttpResponse<String> response = send("POST /api/auth/login", HttpRequest.newBuilder(uri("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + SeedDataGenerator.email(user) + ": " + response.statusCode());
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        return new Session(json.get("accessToken").asText(), json.get("refreshToken").asText());
+    }
+
+    private void refresh(Session session) throws Exception {
+        HttpResponse<String> response = send("POST /api/auth/refresh", HttpRequest.newBuilder(uri("/api/auth/refresh"))
+                .header("Cookie", "refreshToken=" + session.refreshToken)
+                .POST(HttpRequest.BodyPublishers.noBody()));
+        if (response.statusCode() == 200) {
+            JsonNode json = objectMapper.readTree(response.body());
+            session.accessToken = json.get("accessToken").asText();
+            session.refreshToken = json.get("refreshToken").asText();
+        }
+    }
+
+    private List<Long> mealPlanIds(Session session) throws Exception {
+        HttpResponse<String> response = send("GET /api/mealplans", request("/api/mealplans", session).GET());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode plan : objectMapper.readTree(response.body())) {
+            ids.add(plan.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private void generate(Session session, List<Long> planIds) throws Exception {
+        if (planIds.isEmpty()) return;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Long> ids = new LinkedHashSet<>();
+        for (int i = 0; i < 1 + random.nextInt(2); i++) {
+            ids.add(planIds.get(random.nextInt(planIds.size())));
+        }
+        String body = objectMapper.writeValueAsString(Map.of("ids", ids, "date", LocalDate.now().format(DATE)));
+        send("POST /api/groceryitems/generate-from-mealplans",
+                request("/api/groceryitems/generate-from-mealplans", session)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private void purchase(Session session) throws Exception {
+        HttpResponse<String> response = send("GET /api/groceryitems/active",
+                request("/api/groceryitems/active", session).GET());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(response.body())) {
+            ids.add(item.get("id").asLong());
+        }
+        if (ids.isEmpty()) return;
+        Collections.shuffle(ids, ThreadLocalRandom.current());
+        String body = objectMapper.writeValueAsString(ids.subList(0, Math.min(3, ids.size())));
+        send("POST /api/groceryitems/mark-purchased", request("/api/groceryitems/mark-purchased", session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpRequest.Builder request(String path, Session session) {
+        return HttpRequest.newBuilder(uri(path)).header("Authorization", "Bearer " + session.accessToken);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest.Builder request) throws Exception {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.timeout(Duration.ofSeconds(60)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            stats.record(endpoint, System.nanoTime() - started, response.statusCode() < 400);
+            return response;
+        } catch (Exception e) {
+            stats.record(endpoint, System.nanoTime() - started, false);
+            throw e;
+        }
+    }
+
+    private static final class Session {
+        private String accessToken;
+        private String refreshToken;
+
+        private Session(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.grocery.recipes.loadtest;
+
+import com.grocery.recipes.RecipesApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds a data set and drives the backend with a realistic request mix, then prints throughput
+ * and p50/p90/p99 latency per endpoint.
+ * <pre>
+ * mvn -f backend/pom.xml install -DskipTests
+ * mvn -f backend/loadtest/pom.xml compile exec:java -Dexec.args="--users=200 --concurrency=64"
+ * </pre>
+ * By default the app runs in-process with the prod profile against an embedded Postgres;
+ * --db=h2 swaps in the in-memory database the tests use for a quicker smoke run. As the driver
+ * shares the JVM, compare runs with each other rather than with production. To measure a deployed instance,
+ * pass --target=http://host:8080 and, to seed it, --jdbc-url/--jdbc-user/--jdbc-password.
+ * See {@link LoadTestOptions} for the data and load shape options.
+ */
+public class LoadTestMain {
+
+    private static final String JWT_SECRET = "loadtest-secret-key-that-is-long-enough-for-hs256";
+    private static final String H2_URL =
+            "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if ("external".equals(options.db)) {
+            if (options.seed) {
+                if (options.jdbcUrl == null) {
+                    throw new IllegalArgumentException("Seeding --target needs --jdbc-url, or pass --seed=false");
+                }
+                new SeedDataGenerator(new DriverManagerDataSource(options.jdbcUrl, options.jdbcUser,
+                        options.jdbcPassword), options).seed();
+            }
+            new LoadDriver(options.target, options).run();
+            System.exit(0);
+        }
+
+        EmbeddedPostgres postgres = null;
+        try {
+            List<String> database;
+            switch (options.db) {
+                case "postgres" -> {
+                    postgres = EmbeddedPostgres.builder().start();
+                    database = List.of("--DB_URL=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "--DB_USER=postgres", "--DB_PASSWORD=");
+                }
+                case "h2" -> database = List.of("--DB_URL=" + H2_URL, "--DB_USER=sa", "--DB_PASSWORD=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+                default -> throw new IllegalArgumentException("--db must be postgres or h2, or pass --target");
+            }
+
+            try (ConfigurableApplicationContext app = startApp(database)) {
+                if (options.seed) {
+                    new SeedDataGenerator(app.getBean(javax.sql.DataSource.class), options).seed();
+                }
+                new LoadDriver("http://localhost:" + app.getEnvironment().getProperty("local.server.port"), options).run();
+            }
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    // The prod profile, so pool size, caches and metrics match a deployment
+    private static ConfigurableApplicationContext startApp(List<String> database) {
+        List<String> args = new ArrayList<>(database);
+        args.add("--APP_JWT_SECRET=" + JWT_SECRET);
+        args.add("--FRONTEND_URL=http://localhost:5173");
+        args.add("--server.port=0");
+        return new SpringApplicationBuilder(RecipesApplication.class)
+                .profiles("prod")
+                .run(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,91 @@
+package com.grocery.recipes.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line of the load test, as --name=value pairs. Every option has a default, so a bare
+ * run seeds a small data set into an embedded Postgres and drives it for a minute.
+ */
+public class LoadTestOptions {
+
+    // Where the app runs: postgres (embedded), h2 (in-memory, PostgreSQL mode) or external (--target)
+    String db = "postgres";
+    String target;
+    String jdbcUrl;
+    String jdbcUser;
+    String jdbcPassword;
+
+    // Seed data shape
+    boolean seed = true;
+    int users = 50;
+    int catalogue = 400;
+    int recipes = 20;
+    int ingredientsPerRecipe = 8;
+    int mealPlans = 4;
+    int planItems = 14;
+    int history = 200;
+    int activeItems = 15;
+    long randomSeed = 42;
+
+    // Load shape
+    int concurrency = 32;
+    int warmupSeconds = 15;
+    int durationSeconds = 60;
+    int thinkMillis = 0;
+    Map<String, Integer> mix = parseMix("login:2,recipes:40,generate:13,purchase:35,refresh:10");
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "db" -> options.db = value;
+                case "target" -> options.target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "jdbc-url" -> options.jdbcUrl = value;
+                case "jdbc-user" -> options.jdbcUser = value;
+                case "jdbc-password" -> options.jdbcPassword = value;
+                case "seed" -> options.seed = Boolean.parseBoolean(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "catalogue" -> options.catalogue = Integer.parseInt(value);
+                case "recipes" -> options.recipes = Integer.parseInt(value);
+                case "ingredients" -> options.ingredientsPerRecipe = Integer.parseInt(value);
+                case "mealplans" -> options.mealPlans = Integer.parseInt(value);
+                case "plan-items" -> options.planItems = Integer.parseInt(value);
+                case "history" -> options.history = Integer.parseInt(value);
+                case "active" -> options.activeItems = Integer.parseInt(value);
+                case "random-seed" -> options.randomSeed = Long.parseLong(value);
+                case "concurrency" -> options.concurrency = Integer.parseInt(value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = Integer.parseInt(value);
+                case "think-ms" -> options.thinkMillis = Integer.parseInt(value);
+                case "mix" -> options.mix = parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.target != null) {
+            options.db = "external";
+        }
+        if (options.ingredientsPerRecipe > options.catalogue) {
+            throw new IllegalArgumentException("--ingredients cannot exceed --catalogue");
+        }
+        return options;
+    }
+
+    // "recipes:40,generate:15" -> relative weights per scenario step
+    static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2 || !LoadDriver.STEPS.contains(pair[0])) {
+                throw new IllegalArgumentException("Mix entries are step:weight with step one of " + LoadDriver.STEPS);
+            }
+            mix.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+}
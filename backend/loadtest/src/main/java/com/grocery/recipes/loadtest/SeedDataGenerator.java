@@ -0,0 +1,187 @@
+package com.grocery.recipes.loadtest;
+
+import com.grocery.recipes.service.IngredientNames;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes the synthetic data set straight over JDBC: a shared ingredient catalogue, then per user
+ * recipes, meal plans covering the coming days, open grocery items and a purchase history spread
+ * over the past year. One transaction per user; generation is deterministic for a given seed.
+ * Users are loadtest-{n}@example.com with {@link #PASSWORD}, so the driver can log them in.
+ */
+public class SeedDataGenerator {
+
+    public static final String PASSWORD = "loadtest-password";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final String[] UNITS = {"g", "kg", "ml", "l", "pcs", "tbsp", "tsp"};
+    private static final String[] WORDS = {"Red", "Green", "Smoked", "Fresh", "Dried", "Sweet", "Wild", "Baby",
+            "Onion", "Pepper", "Bean", "Lentil", "Basil", "Thyme", "Cheese", "Flour", "Rice", "Squash",
+            "Tomato", "Garlic", "Ginger", "Lime", "Mushroom", "Chicken", "Salmon", "Tofu", "Oat", "Chili"};
+
+    private final DataSource dataSource;
+    private final LoadTestOptions options;
+
+    public SeedDataGenerator(DataSource dataSource, LoadTestOptions options) {
+        this.dataSource = dataSource;
+        this.options = options;
+    }
+
+    public static String email(int user) {
+        return "loadtest-" + user + "@example.com";
+    }
+
+    public void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            int existing = countSeededUsers(connection);
+            if (existing >= options.users) {
+                System.out.printf("Seed data present (%d users), skipping generation%n", existing);
+                return;
+            }
+            if (existing > 0) {
+                throw new IllegalStateException("Found " + existing + " of " + options.users
+                        + " load test users; drop the database or pass --users=" + existing);
+            }
+
+            long started = System.nanoTime();
+            Random random = new Random(options.randomSeed);
+            connection.setAutoCommit(false);
+            List<Long> catalogue = insertCatalogue(connection);
+            connection.commit();
+            // BCrypt is deliberately slow; every load test user shares one hash
+            String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+            for (int user = 0; user < options.users; user++) {
+                seedUser(connection, user, passwordHash, catalogue, random);
+                connection.commit();
+            }
+            System.out.printf("Seeded %d users (%d recipes, %d meal plans, %d history items each) in %d ms%n",
+                    options.users, options.recipes, options.mealPlans, options.history,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    private int countSeededUsers(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select count(*) from users where email like 'loadtest-%@example.com'");
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private List<Long> insertCatalogue(Connection connection) throws SQLException {
+        List<Long> ids = new ArrayList<>(options.catalogue);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into ingredient (name, normalized_name) values (?, ?)", new String[]{"id"})) {
+            for (int i = 0; i < options.catalogue; i++) {
+                String name = WORDS[i % 8] + " " + WORDS[8 + (i / 8) % (WORDS.length - 8)] + " " + (i + 1);
+                insert.setString(1, name);
+                insert.setString(2, IngredientNames.canonical(name));
+                ids.add(insertReturningId(insert));
+            }
+        }
+        return ids;
+    }
+
+    private void seedUser(Connection connection, int user, String passwordHash, List<Long> catalogue, Random random)
+            throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        long userId;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into users (name, email, phone_area_code, phone_number, password_hash, created_at, updated_at, is_active, is_admin) " +
+                        "values (?, ?, '+1', ?, ?, ?, ?, true, ?)", new String[]{"id"})) {
+            insert.setString(1, "Load Test " + user);
+            insert.setString(2, email(user));
+            insert.setString(3, String.format("555%07d", user));
+            insert.setString(4, passwordHash);
+            insert.setTimestamp(5, Timestamp.valueOf(now));
+            insert.setTimestamp(6, Timestamp.valueOf(now));
+            // The driver runs the rollup rebuild as the first user
+            insert.setBoolean(7, user == 0);
+            userId = insertReturningId(insert);
+        }
+
+        List<Long> recipeIds = new ArrayList<>(options.recipes);
+        try (PreparedStatement recipe = connection.prepareStatement(
+                "insert into recipe (name, description, servings, user_id) values (?, ?, ?, ?)", new String[]{"id"});
+             PreparedStatement line = connection.prepareStatement(
+                     "insert into recipe_ingredient (recipe_id, ingredient_id, quantity, unit, note) values (?, ?, ?, ?, ?)")) {
+            for (int r = 0; r < options.recipes; r++) {
+                recipe.setString(1, "Recipe " + r + " of user " + user);
+                recipe.setString(2, "Prepare, combine and cook. Serves a few people on a weeknight.");
+                recipe.setInt(3, 1 + random.nextInt(6));
+                recipe.setLong(4, userId);
+                long recipeId = insertReturningId(recipe);
+                recipeIds.add(recipeId);
+                // Distinct ingredients within a recipe, drawn from the shared catalogue
+                int offset = random.nextInt(catalogue.size());
+                int stride = 1 + random.nextInt(7);
+                for (int i = 0; i < options.ingredientsPerRecipe; i++) {
+                    line.setLong(1, recipeId);
+                    line.setLong(2, catalogue.get((offset + i * stride) % catalogue.size()));
+                    line.setDouble(3, 1 + random.nextInt(500));
+                    line.setString(4, UNITS[random.nextInt(UNITS.length)]);
+                    line.setString(5, random.nextInt(5) == 0 ? "chopped" : null);
+                    line.addBatch();
+                }
+            }
+            line.executeBatch();
+        }
+
+        LocalDate today = LocalDate.now();
+        try (PreparedStatement plan = connection.prepareStatement(
+                "insert into meal_plan (name, created_at, user_id, version) values (?, ?, ?, 0)", new String[]{"id"});
+             PreparedStatement item = connection.prepareStatement(
+                     "insert into meal_plan_item (meal_plan_id, recipe_id, date) values (?, ?, ?)")) {
+            for (int p = 0; p < options.mealPlans; p++) {
+                plan.setString(1, "Week " + p);
+                plan.setTimestamp(2, Timestamp.valueOf(now));
+                plan.setLong(3, userId);
+                long planId = insertReturningId(plan);
+                for (int d = 0; d < options.planItems; d++) {
+                    item.setLong(1, planId);
+                    item.setLong(2, recipeIds.get(random.nextInt(recipeIds.size())));
+                    item.setDate(3, Date.valueOf(today.plusDays(d % 14)));
+                    item.addBatch();
+                }
+            }
+            item.executeBatch();
+        }
+
+        try (PreparedStatement grocery = connection.prepareStatement(
+                "insert into grocery_item (item_name, unit, quantity, note, date_added, purchased, date_purchased, purchased_on, user_id) " +
+                        "values (?, ?, ?, null, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < options.history + options.activeItems; i++) {
+                boolean purchased = i < options.history;
+                LocalDate added = today.minusDays(purchased ? random.nextInt(365) : random.nextInt(7));
+                LocalDate bought = purchased ? added.plusDays(random.nextInt(3)) : null;
+                grocery.setString(1, WORDS[8 + random.nextInt(WORDS.length - 8)]);
+                grocery.setString(2, UNITS[random.nextInt(UNITS.length)]);
+                grocery.setDouble(3, 1 + random.nextInt(10));
+                grocery.setString(4, added.format(DATE));
+                grocery.setBoolean(5, purchased);
+                grocery.setString(6, bought == null ? null : bought.format(DATE));
+                grocery.setDate(7, bought == null ? null : Date.valueOf(bought));
+                grocery.setLong(8, userId);
+                grocery.addBatch();
+            }
+            grocery.executeBatch();
+        }
+    }
+
+    private static long insertReturningId(PreparedStatement insert) throws SQLException {
+        insert.executeUpdate();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.grocery.recipes.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the (small) connection pool. Requests are split into classes,
+ * each with its own bulkhead, so a burst of one kind cannot take every connection:
+ * <ul>
+ *   <li>auth - login, registration, token refresh (BCrypt and refresh token writes)</li>
+ *   <li>read - other GETs</li>
+ *   <li>write - other mutations</li>
+ *   <li>heavy - grocery generation, maintenance jobs and bulk servings updates</li>
+ * </ul>
+ * The write and heavy limits adapt to how long requests wait for a pooled connection
+ * (hikaricp.connections.acquire of the primary pool; replica waits say nothing about writes): above the target they shrink multiplicatively, and they grow
+ * back by one per interval while demand reaches them. Auth and read limits are fixed, so cheap
+ * reads keep being served while expensive work is throttled.
+ * Limits are set with app.admission.{class}.limit / min-limit / max-limit / queue /
+ * queue-timeout-ms / retry-after-seconds.
+ */
+@Component
+public class AdmissionControl {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionControl.class);
+
+    public enum RequestClass { AUTH, READ, WRITE, HEAVY }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<RequestClass, ConcurrencyLimiter> limiters = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, Integer> retryAfterSeconds = new EnumMap<>(RequestClass.class);
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    // Mean wait for a pooled connection above which the adaptive limits back off
+    @Value("${app.admission.target-acquire-ms:25}")
+    private double targetAcquireMillis;
+
+    // Pool whose acquire timer drives the limits; ReplicaRoutingConfig names the primary pool the same way
+    @Value("${spring.datasource.hikari.pool-name:primary}")
+    private String primaryPoolName;
+
+    private long lastAcquireCount;
+    private double lastAcquireNanos;
+
+    public AdmissionControl(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        configure(environment, RequestClass.AUTH, 4, 20, 2000, 1);
+        configure(environment, RequestClass.READ, 16, 50, 1000, 1);
+        configure(environment, RequestClass.WRITE, 8, 30, 1000, 1);
+        configure(environment, RequestClass.HEAVY, 3, 4, 500, 5);
+    }
+
+    private void configure(Environment environment, RequestClass requestClass, int limit, int queue,
+                           long queueTimeoutMs, int retryAfter) {
+        String prefix = "app.admission." + requestClass.name().toLowerCase(Locale.ROOT) + ".";
+        int configuredLimit = environment.getProperty(prefix + "limit", Integer.class, limit);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(requestClass.name().toLowerCase(Locale.ROOT),
+                configuredLimit,
+                environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                environment.getProperty(prefix + "max-limit", Integer.class, configuredLimit),
+                environment.getProperty(prefix + "queue", Integer.class, queue),
+                environment.getProperty(prefix + "queue-timeout-ms", Long.class, queueTimeoutMs));
+        limiters.put(requestClass, limiter);
+        retryAfterSeconds.put(requestClass, environment.getProperty(prefix + "retry-after-seconds", Integer.class, retryAfter));
+
+        Gauge.builder("admission.limit", limiter, ConcurrencyLimiter::getLimit)
+                .tag("class", limiter.getName()).register(meterRegistry);
+        Gauge.builder("admission.inflight", limiter, ConcurrencyLimiter::getInFlight)
+                .tag("class", limiter.getName()).register(meterRegistry);
+        Gauge.builder("admission.waiting", limiter, ConcurrencyLimiter::getWaiting)
+                .tag("class", limiter.getName()).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Null for requests that are not limited (preflight, actuator, static content)
+    public RequestClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (!path.startsWith("/api/") || "OPTIONS".equals(method)) {
+            return null;
+        }
+        if (path.startsWith("/api/auth/")) {
+            return RequestClass.AUTH;
+        }
+        if (path.startsWith("/api/groceryitems/generate-") || path.startsWith("/api/admin/")
+                || path.equals("/api/recipes/default-servings")) {
+            return RequestClass.HEAVY;
+        }
+        return "GET".equals(method) || "HEAD".equals(method) ? RequestClass.READ : RequestClass.WRITE;
+    }
+
+    public ConcurrencyLimiter limiter(RequestClass requestClass) {
+        return limiters.get(requestClass);
+    }
+
+    public int retryAfterSeconds(RequestClass requestClass) {
+        return retryAfterSeconds.get(requestClass);
+    }
+
+    public void rejected(RequestClass requestClass, ConcurrencyLimiter.Outcome outcome) {
+        Counter.builder("admission.rejected")
+                .tag("class", limiters.get(requestClass).getName())
+                .tag("reason", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.admission.adjust-interval-ms:1000}")
+    public void adjust() {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", primaryPoolName).timer();
+        if (acquire == null) {
+            // Without a replica there is a single pool, which Hikari names HikariPool-N when no name is set
+            Collection<Timer> pools = meterRegistry.find("hikaricp.connections.acquire").timers();
+            acquire = pools.size() == 1 ? pools.iterator().next() : null;
+        }
+        if (acquire == null) {
+            return;
+        }
+        long count = acquire.count();
+        double totalNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+        long samples = count - lastAcquireCount;
+        double meanMillis = samples <= 0 ? 0 : (totalNanos - lastAcquireNanos) / samples / 1_000_000;
+        lastAcquireCount = count;
+        lastAcquireNanos = totalNanos;
+        adjust(meanMillis);
+    }
+
+    void adjust(double meanAcquireMillis) {
+        for (RequestClass requestClass : new RequestClass[]{RequestClass.WRITE, RequestClass.HEAVY}) {
+            ConcurrencyLimiter limiter = limiters.get(requestClass);
+            int before = limiter.getLimit();
+            if (meanAcquireMillis > targetAcquireMillis) {
+                limiter.decrease(0.75);
+            } else {
+                limiter.increaseIfSaturated();
+            }
+            if (limiter.getLimit() != before) {
+                log.debug("Admission limit for {} moved {} -> {} (mean connection wait {} ms)",
+                        limiter.getName(), before, limiter.getLimit(), String.format("%.1f", meanAcquireMillis));
+            }
+        }
+    }
+}
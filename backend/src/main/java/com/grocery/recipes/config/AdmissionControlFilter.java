@@ -0,0 +1,82 @@
+package com.grocery.recipes.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link AdmissionControl} to every API request. Runs ahead of the security chain, so
+ * the user lookup in AuthTokenFilter is also behind the bulkhead. A request that cannot get in
+ * within its class's queue timeout fails fast with 503 and Retry-After instead of tying up a
+ * Tomcat thread until the pool's connection timeout. An SSE stream (GET /api/groceryitems/stream)
+ * is admitted as a read and gives its permit back once the handler returns, not when it closes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+    private final CorsConfigurationSource corsConfigurationSource;
+
+    public AdmissionControlFilter(AdmissionControl admissionControl, CorsConfigurationSource corsConfigurationSource) {
+        this.admissionControl = admissionControl;
+        this.corsConfigurationSource = corsConfigurationSource;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !admissionControl.isEnabled() || admissionControl.classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdmissionControl.RequestClass requestClass = admissionControl.classify(request);
+        ConcurrencyLimiter limiter = admissionControl.limiter(requestClass);
+        ConcurrencyLimiter.Outcome outcome;
+        try {
+            outcome = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = ConcurrencyLimiter.Outcome.TIMED_OUT;
+        }
+
+        if (outcome != ConcurrencyLimiter.Outcome.ADMITTED) {
+            admissionControl.rejected(requestClass, outcome);
+            reject(request, response, admissionControl.retryAfterSeconds(requestClass));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, int retryAfter) throws IOException {
+        // The security chain's CORS filter never runs for shed requests; without these headers
+        // the browser would report a network error instead of a 503
+        String origin = request.getHeader(HttpHeaders.ORIGIN);
+        CorsConfiguration cors = corsConfigurationSource.getCorsConfiguration(request);
+        if (origin != null && cors != null && cors.checkOrigin(origin) != null) {
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            response.setHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, HttpHeaders.RETRY_AFTER);
+        }
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Server is busy, please retry shortly\"}");
+    }
+}
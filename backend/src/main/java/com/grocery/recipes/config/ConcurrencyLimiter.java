@@ -0,0 +1,165 @@
+package com.grocery.recipes.config;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulkhead for one class of requests: at most {@code limit} run at once, at most {@code queueSize}
+ * more wait, and a waiter gives up after the queue timeout. The limit can be moved at runtime;
+ * lowering it never interrupts running requests, it only stops admitting new ones until enough
+ * have finished. Waiters are admitted in arrival order: a freed slot is handed straight to the
+ * oldest waiter, so new callers cannot barge past the queue.
+ */
+public class ConcurrencyLimiter {
+
+    public enum Outcome { ADMITTED, QUEUE_FULL, TIMED_OUT }
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+
+    private int limit;
+    private int inFlight;
+    // Since the last adjustment: did demand reach the limit?
+    private boolean saturated;
+
+    public ConcurrencyLimiter(String name, int limit, int minLimit, int maxLimit, int queueSize, long queueTimeoutMillis) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, limit));
+        this.queueSize = Math.max(0, queueSize);
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+    }
+
+    public Outcome acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            // Nobody overtakes the queue: a free slot goes to a new caller only when no one is waiting
+            if (inFlight < limit && queue.isEmpty()) {
+                inFlight++;
+                saturated |= inFlight == limit;
+                return Outcome.ADMITTED;
+            }
+            saturated = true;
+            if (queue.size() >= queueSize) {
+                return Outcome.QUEUE_FULL;
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            long remaining = queueTimeoutNanos;
+            try {
+                while (!waiter.admitted) {
+                    if (remaining <= 0) {
+                        queue.remove(waiter);
+                        return Outcome.TIMED_OUT;
+                    }
+                    remaining = waiter.ready.awaitNanos(remaining);
+                }
+                return Outcome.ADMITTED;
+            } catch (InterruptedException e) {
+                if (waiter.admitted) {
+                    // The slot was already handed over; pass it on rather than leak it
+                    inFlight--;
+                    handOff();
+                } else {
+                    queue.remove(waiter);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            handOff();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gives free slots to the oldest waiters; called with the lock held
+    private void handOff() {
+        while (inFlight < limit && !queue.isEmpty()) {
+            Waiter waiter = queue.pollFirst();
+            waiter.admitted = true;
+            inFlight++;
+            waiter.ready.signal();
+        }
+    }
+
+    // Multiplicative decrease, e.g. when the database is already queueing connection requests
+    public void decrease(double factor) {
+        lock.lock();
+        try {
+            limit = Math.max(minLimit, (int) (limit * factor));
+            saturated = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Additive increase, only if the current limit was actually the bottleneck
+    public void increaseIfSaturated() {
+        lock.lock();
+        try {
+            if (saturated && limit < maxLimit) {
+                limit++;
+                handOff();
+            }
+            saturated = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition ready;
+        private boolean admitted;
+
+        private Waiter(Condition ready) {
+            this.ready = ready;
+        }
+    }
+}
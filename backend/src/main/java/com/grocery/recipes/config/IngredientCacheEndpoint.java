@@ -0,0 +1,29 @@
+package com.grocery.recipes.config;
+
+import com.grocery.recipes.service.IngredientCacheService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/ingredientcache - second-level cache hit ratios for the ingredient catalogue.
+ * Served by Actuator rather than the public ingredient API, so it sits behind the same access
+ * rules as the other operational endpoints.
+ */
+@Component
+@Endpoint(id = "ingredientcache")
+public class IngredientCacheEndpoint {
+
+    private final IngredientCacheService ingredientCacheService;
+
+    public IngredientCacheEndpoint(IngredientCacheService ingredientCacheService) {
+        this.ingredientCacheService = ingredientCacheService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return ingredientCacheService.getStatistics();
+    }
+}
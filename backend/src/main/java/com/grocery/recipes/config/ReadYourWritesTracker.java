@@ -0,0 +1,78 @@
+package com.grocery.recipes.config;
+
+import com.grocery.recipes.security.UserDetailsImpl;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users committed a read-write transaction recently, so their read-only
+ * transactions go to the primary until the replica has had time to catch up. Writes are
+ * attributed to the authenticated user of the committing thread; background jobs have none.
+ * The window is per instance, which is enough while one instance serves a user's requests.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long windowMillis;
+    private final Clock clock;
+    // user id -> clock millis until which that user reads from the primary
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window, Clock clock) {
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            Long userId = currentUserId();
+            if (userId != null) {
+                recordWrite(userId);
+            }
+        }
+    }
+
+    public void recordWrite(Long userId) {
+        long now = clock.millis();
+        if (stickyUntil.size() >= PRUNE_THRESHOLD) {
+            stickyUntil.values().removeIf(until -> until - now < 0);
+        }
+        stickyUntil.put(userId, now + windowMillis);
+    }
+
+    // Whether the current thread's user must read from the primary
+    public boolean readFromPrimary() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - clock.millis() < 0) {
+            stickyUntil.remove(userId, until);
+            return false;
+        }
+        return true;
+    }
+
+    @Nullable
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
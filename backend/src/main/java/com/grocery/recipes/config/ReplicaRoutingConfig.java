@@ -0,0 +1,90 @@
+package com.grocery.recipes.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Read replica routing, enabled by app.datasource.replica.url (APP_DATASOURCE_REPLICA_URL).
+ * Transactions marked {@code @Transactional(readOnly = true)} run on the replica pool, all
+ * others on the primary. The connection is only fetched at the first statement, once Spring
+ * has flagged the transaction read-only, which is what lets {@link LazyConnectionDataSourceProxy}
+ * pick the pool. A user who just committed a write reads from the primary for
+ * app.datasource.replica.sticky-ms so they see their own change despite replication lag.
+ * Flyway and schema checks run against the primary only.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica.url")
+public class ReplicaRoutingConfig {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    // Same binding as the auto-configured pool, so the spring.datasource.hikari settings still apply
+    // (including pool-name, which AdmissionControl reads with the same "primary" default)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                              @Value("${app.datasource.replica.maximum-pool-size:5}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // Tests can supply their own Clock bean to move the sticky window along
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${app.datasource.replica.sticky-ms:5000}") long stickyMs,
+                                                       ObjectProvider<Clock> clock) {
+        return new ReadYourWritesTracker(Duration.ofMillis(stickyMs), clock.getIfAvailable(Clock::systemUTC));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesTracker tracker) {
+        AbstractRoutingDataSource readOnly = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return tracker.readFromPrimary() ? PRIMARY : REPLICA;
+            }
+        };
+        readOnly.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        readOnly.setLenientFallback(false);
+        readOnly.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(readOnly);
+        return routing;
+    }
+}
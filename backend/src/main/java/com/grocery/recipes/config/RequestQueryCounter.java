@@ -0,0 +1,62 @@
+package com.grocery.recipes.config;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts SQL statements and entity loads for the request the current thread is handling.
+ * Hibernate hands every statement it prepares to the inspector and every entity it loads
+ * (from the database or the second-level cache) to the post-load listener. Outside a request
+ * started by RequestQueryMetricsFilter, e.g. in scheduled jobs, nothing is counted.
+ */
+@SuppressWarnings("serial") // Serializable only through Hibernate's listener interface; never serialized
+public final class RequestQueryCounter implements StatementInspector, PostLoadEventListener {
+
+    public static final RequestQueryCounter INSTANCE = new RequestQueryCounter();
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private RequestQueryCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Counts());
+    }
+
+    public static Counts stop() {
+        Counts counts = CURRENT.get();
+        CURRENT.remove();
+        return counts == null ? new Counts() : counts;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+    }
+
+    public static final class Counts {
+        private long statements;
+        private long entityLoads;
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getEntityLoads() {
+            return entityLoads;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.grocery.recipes.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Fails startup when an index that a hot query path relies on is missing, instead of letting
+ * the query quietly fall back to a sequential scan. The list mirrors the db/migration scripts.
+ */
+@Component
+public class SchemaIndexVerifier implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    // table -> leading columns an index must start with
+    static final Map<String, List<List<String>>> EXPECTED_INDEXES = Map.ofEntries(
+            Map.entry("ingredient", List.of(List.of("normalized_name"))),
+            Map.entry("recipe_ingredient", List.of(List.of("ingredient_id"), List.of("recipe_id"))),
+            Map.entry("meal_plan_item", List.of(List.of("recipe_id"), List.of("meal_plan_id", "date"))),
+            Map.entry("recipe", List.of(List.of("user_id"))),
+            Map.entry("meal_plan", List.of(List.of("user_id"))),
+            Map.entry("meal_plan_template", List.of(List.of("user_id"), List.of("meal_plan_id"))),
+            Map.entry("meal_plan_template_slot", List.of(List.of("template_id"), List.of("recipe_id"))),
+            Map.entry("grocery_item", List.of(List.of("user_id", "purchased"), List.of("purchased_on"),
+                    List.of("user_id", "change_seq"))),
+            Map.entry("grocery_item_tombstone", List.of(List.of("user_id", "change_seq"), List.of("deleted_at"))),
+            Map.entry("grocery_item_op", List.of(List.of("applied_at"))),
+            Map.entry("grocery_item_archive", List.of(List.of("user_id", "purchased_on"))),
+            Map.entry("refresh_tokens", List.of(List.of("user_id"))),
+            Map.entry("account_deletion_job", List.of(List.of("user_id"))),
+            Map.entry("grocery_purchase_rollup", List.of(List.of("user_id", "week_start", "item_key", "unit_key"))),
+            Map.entry("grocery_list_entry", List.of(List.of("grocery_list_id")))
+    );
+
+    private final DataSource dataSource;
+
+    @Value("${app.schema.verify-indexes:true}")
+    private boolean enabled;
+
+    public SchemaIndexVerifier(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        List<String> missing = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (Map.Entry<String, List<List<String>>> entry : new TreeMap<>(EXPECTED_INDEXES).entrySet()) {
+                Collection<List<String>> indexes = indexColumns(metaData, connection.getCatalog(),
+                        connection.getSchema(), entry.getKey());
+                for (List<String> expected : entry.getValue()) {
+                    boolean covered = indexes.stream().anyMatch(columns ->
+                            columns.size() >= expected.size() && columns.subList(0, expected.size()).equals(expected));
+                    if (!covered) {
+                        missing.add(entry.getKey() + "(" + String.join(", ", expected) + ")");
+                    }
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + String.join("; ", missing)
+                    + ". Run the Flyway migrations or set app.schema.verify-indexes=false.");
+        }
+        log.info("Verified {} expected database indexes", EXPECTED_INDEXES.values().stream().mapToInt(List::size).sum());
+    }
+
+    // Column lists of every index on the table, in key order
+    private Collection<List<String>> indexColumns(DatabaseMetaData metaData, String catalog, String schema,
+                                                  String table) throws SQLException {
+        Map<String, SortedMap<Short, String>> byIndex = new HashMap<>();
+        for (String candidate : List.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet rs = metaData.getIndexInfo(catalog, schema, candidate, false, true)) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (indexName == null || column == null) continue;
+                    byIndex.computeIfAbsent(indexName, k -> new TreeMap<>())
+                            .put(rs.getShort("ORDINAL_POSITION"), column.toLowerCase(Locale.ROOT));
+                }
+            }
+            if (!byIndex.isEmpty()) break;
+        }
+        List<List<String>> result = new ArrayList<>();
+        byIndex.values().forEach(columns -> result.add(new ArrayList<>(columns.values())));
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.model.AccountDeletionJob;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.service.AccountDeletionService;
+import com.grocery.recipes.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/account")
+@CrossOrigin(origins = "*")
+public class AccountController {
+
+    private final AccountDeletionService accountDeletionService;
+    private final UserService userService;
+
+    public AccountController(AccountDeletionService accountDeletionService, UserService userService) {
+        this.accountDeletionService = accountDeletionService;
+        this.userService = userService;
+    }
+
+    // DELETE /api/account - Deactivate the account now and delete its data in the background
+    @DeleteMapping
+    public ResponseEntity<AccountDeletionJob> deleteAccount(Authentication authentication) {
+        User user = getUserFromAuthentication(authentication);
+        try {
+            AccountDeletionJob job = accountDeletionService.requestDeletion(user);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/account/deletions/" + job.getId()))
+                    .body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // GET /api/account/deletions/{jobId} - Deletion progress; the random job id is the only credential,
+    // since the account's tokens stop working as soon as the deletion starts
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<AccountDeletionJob> getDeletion(@PathVariable String jobId) {
+        return accountDeletionService.findJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private User getUserFromAuthentication(Authentication authentication) {
+        String email = authentication.getName();
+        return userService.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.grocery.recipes.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET for the per-user list endpoints. The ETag comes from CollectionVersionService,
+ * so a matching If-None-Match is answered with 304 before any entity is loaded. Responses are
+ * private and always revalidated; without an explicit Cache-Control, Spring Security would mark
+ * them no-store and the browser would never send If-None-Match.
+ */
+final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    static boolean notModified(WebRequest request, String etag) {
+        return etag != null && request.checkNotModified(etag);
+    }
+
+    static <T> ResponseEntity<T> notModifiedResponse(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE);
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(body);
+    }
+}
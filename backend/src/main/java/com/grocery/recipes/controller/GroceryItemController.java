@@ -1,40 +1,121 @@
 package com.grocery.recipes.controller;
 
+import com.grocery.recipes.dto.GroceryItemChanges;
+import com.grocery.recipes.dto.GroceryItemOp;
+import com.grocery.recipes.dto.GroceryItemOpResult;
+import com.grocery.recipes.dto.PurchaseItemStat;
+import com.grocery.recipes.dto.WeeklyPurchaseStat;
 import com.grocery.recipes.model.GroceryItem;
 import com.grocery.recipes.model.User;
+import com.grocery.recipes.security.UserDetailsImpl;
+import com.grocery.recipes.service.CollectionVersionService;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
+import com.grocery.recipes.service.GroceryItemOpsService;
 import com.grocery.recipes.service.GroceryItemService;
+import com.grocery.recipes.service.GroceryItemStreamService;
+import com.grocery.recipes.service.GroceryItemSyncService;
+import com.grocery.recipes.service.PurchaseStatsService;
 import com.grocery.recipes.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
 @RestController
 @RequestMapping("/api/groceryitems")
 @CrossOrigin(origins = "*")
 public class GroceryItemController {
 
+    private static final int MAX_STATS_WEEKS = 104;
+    private static final int MAX_TOP_ITEMS = 100;
+    private static final int DEFAULT_PURCHASED_PAGE_SIZE = 50;
+    private static final int MAX_PURCHASED_PAGE_SIZE = 200;
+
     private final GroceryItemService groceryItemService;
+    private final PurchaseStatsService purchaseStatsService;
     private final UserService userService;
-
-    public GroceryItemController(GroceryItemService groceryItemService, UserService userService) {
+    private final CollectionVersionService collectionVersionService;
+    private final GroceryItemSyncService groceryItemSyncService;
+    private final GroceryItemStreamService groceryItemStreamService;
+    private final GroceryItemOpsService groceryItemOpsService;
+
+    public GroceryItemController(GroceryItemService groceryItemService,
+                                 PurchaseStatsService purchaseStatsService,
+                                 UserService userService,
+                                 CollectionVersionService collectionVersionService,
+                                 GroceryItemSyncService groceryItemSyncService,
+                                 GroceryItemStreamService groceryItemStreamService,
+                                 GroceryItemOpsService groceryItemOpsService) {
         this.groceryItemService = groceryItemService;
+        this.purchaseStatsService = purchaseStatsService;
         this.userService = userService;
+        this.collectionVersionService = collectionVersionService;
+        this.groceryItemSyncService = groceryItemSyncService;
+        this.groceryItemStreamService = groceryItemStreamService;
+        this.groceryItemOpsService = groceryItemOpsService;
     }
 
-    // Get all ACTIVE (unpurchased) items for authenticated user
+    // Get all ACTIVE (unpurchased) items for authenticated user; 304 when If-None-Match is current
     @GetMapping("/active")
-    public List<GroceryItem> getActiveItems(Authentication authentication) {
+    public ResponseEntity<List<GroceryItem>> getActiveItems(Authentication authentication, WebRequest request) {
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        String etag = collectionVersionService.etag(userId, UserCollection.GROCERY_ITEMS);
+        if (ConditionalGet.notModified(request, etag)) {
+            return ConditionalGet.notModifiedResponse(etag);
+        }
         User user = getUserFromAuthentication(authentication);
-        return groceryItemService.findAllActiveByUser(user);
+        return ConditionalGet.ok(etag, groceryItemService.findAllActiveByUser(user));
     }
 
-    // Get all PURCHASED items for authenticated user
+    // GET /api/groceryitems/changes?since=<token> - items changed and ids deleted since the token, or the
+    // active list (reset=true) without one; 410 when the token predates pruned tombstones, so the client resyncs
+    @GetMapping("/changes")
+    public ResponseEntity<GroceryItemChanges> getChanges(@RequestParam(required = false) String since,
+                                                         Authentication authentication) {
+        Long token = null;
+        if (since != null) {
+            try {
+                token = Long.parseLong(since);
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        User user = getUserFromAuthentication(authentication);
+        return groceryItemSyncService.changes(user, token)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).build());
+    }
+
+    // GET /api/groceryitems/stream - Server-Sent Events for the user's grocery writes, in place of polling
+    // /active; each event names the changed or deleted ids and its token, to be fetched through /changes.
+    // 429 past the per-user stream cap: an EventSource gives up on a non-200 answer instead of retrying
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Authentication authentication) {
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        return groceryItemStreamService.subscribe(userId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+
+    // Get PURCHASED items for authenticated user: all recent ones, or one page (newest first) when
+    // page/size is given; includeArchived=true continues past the recent ones into archived history
     @GetMapping("/purchased")
-    public List<GroceryItem> getPurchasedItems(Authentication authentication) {
+    public List<GroceryItem> getPurchasedItems(@RequestParam(required = false) Integer page,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(defaultValue = "false") boolean includeArchived,
+                                               Authentication authentication) {
         User user = getUserFromAuthentication(authentication);
-        return groceryItemService.findAllPurchasedByUser(user);
+        if (page == null && size == null && !includeArchived) {
+            return groceryItemService.findAllPurchasedByUser(user);
+        }
+        return groceryItemService.findPurchasedPageByUser(user, page == null ? 0 : Math.max(page, 0),
+                clamp(size == null ? DEFAULT_PURCHASED_PAGE_SIZE : size, MAX_PURCHASED_PAGE_SIZE), includeArchived);
     }
 
     // Add item with merge-by-quantity logic for authenticated user
@@ -54,8 +135,11 @@ public class GroceryItemController {
         User user = getUserFromAuthentication(authentication);
         item.setId(id);
         item.setUser(user);
-        GroceryItem updated = groceryItemService.updateItem(item);
-        return ResponseEntity.ok(updated);
+        try {
+            return ResponseEntity.ok(groceryItemService.updateItem(item));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     // Delete item for authenticated user
@@ -82,6 +166,19 @@ public class GroceryItemController {
         return ResponseEntity.ok().build();
     }
 
+    // POST /api/groceryitems/ops - replay an offline client's queued add/update/delete/mark/unmark ops in
+    // order, in one transaction; returns one result per op, and a replayed opId gets its recorded result
+    @PostMapping("/ops")
+    public ResponseEntity<List<GroceryItemOpResult>> applyOps(@RequestBody List<GroceryItemOp> ops,
+                                                              Authentication authentication) {
+        User user = getUserFromAuthentication(authentication);
+        try {
+            return ResponseEntity.ok(groceryItemOpsService.apply(ops, user));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Generate from recipes: adds ingredients as items to the user's grocery list, merges by quantity
     @PostMapping("/generate-from-recipes")
     public ResponseEntity<List<GroceryItem>> generateFromRecipes(@RequestBody GenerateRequest req, Authentication authentication) {
@@ -98,6 +195,27 @@ public class GroceryItemController {
         return ResponseEntity.ok(items);
     }
 
+    // GET /api/groceryitems/stats/top-items?weeks=12&limit=10 - most purchased items over the last N weeks
+    @GetMapping("/stats/top-items")
+    public List<PurchaseItemStat> getTopItems(@RequestParam(defaultValue = "12") int weeks,
+                                              @RequestParam(defaultValue = "10") int limit,
+                                              Authentication authentication) {
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        return purchaseStatsService.topItems(userId, clamp(weeks, MAX_STATS_WEEKS), clamp(limit, MAX_TOP_ITEMS));
+    }
+
+    // GET /api/groceryitems/stats/weekly?weeks=12 - purchase totals per week, oldest first
+    @GetMapping("/stats/weekly")
+    public List<WeeklyPurchaseStat> getWeeklyStats(@RequestParam(defaultValue = "12") int weeks,
+                                                   Authentication authentication) {
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        return purchaseStatsService.weekly(userId, clamp(weeks, MAX_STATS_WEEKS));
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(1, Math.min(value, max));
+    }
+
     private User getUserFromAuthentication(Authentication authentication) {
         String email = authentication.getName();
         return userService.findByEmail(email)
@@ -3,6 +3,7 @@ package com.grocery.recipes.controller;
 import com.grocery.recipes.model.GroceryList;
 import com.grocery.recipes.service.GroceryListService;
 import com.grocery.recipes.service.GroceryListServiceImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,8 +12,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+// Legacy endpoints; set app.legacy.grocery-lists.enabled=false once GroceryListMigrationService has run
 @Deprecated
 @RestController
+@ConditionalOnProperty(name = "app.legacy.grocery-lists.enabled", havingValue = "true", matchIfMissing = true)
 @RequestMapping("/api/grocerylists")
 @CrossOrigin(origins = "*")
 public class GroceryListController {
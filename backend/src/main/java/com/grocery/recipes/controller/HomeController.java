@@ -1,38 +1,29 @@
 package com.grocery.recipes.controller;
 
-import com.grocery.recipes.service.IngredientService;
-import com.grocery.recipes.service.MealPlanService;
-import com.grocery.recipes.service.RecipeService;
+import com.grocery.recipes.security.UserDetailsImpl;
+import com.grocery.recipes.service.DashboardStatsService;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
-import java.util.HashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/home")
 @CrossOrigin(origins = "*")
 public class HomeController {
-    private final RecipeService recipeService;
-    private final MealPlanService mealPlanService;
-    private final IngredientService ingredientService;
+    private final DashboardStatsService dashboardStatsService;
 
-    public HomeController(RecipeService recipeService,
-                          MealPlanService mealPlanService,
-                          IngredientService ingredientService) {
-        this.recipeService = recipeService;
-        this.mealPlanService = mealPlanService;
-        this.ingredientService = ingredientService;
+    public HomeController(DashboardStatsService dashboardStatsService) {
+        this.dashboardStatsService = dashboardStatsService;
     }
 
+    // GET /api/home/summary - Counts for the authenticated user (ingredients are the shared catalogue)
     @GetMapping("/summary")
-    public Map<String, Object> getDashboardSummary() {
-        Map<String, Object> summary = new HashMap<>();
-        summary.put("totalRecipes", recipeService.findAll().size());
-        summary.put("totalMealPlans", mealPlanService.findAll().size());
-        summary.put("totalIngredients", ingredientService.findAll().size());
-        // Add other summary data as desired
-        return summary;
+    public Map<String, Object> getDashboardSummary(Authentication authentication) {
+        // The JWT filter already loaded the user, so the principal's id saves another lookup
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        return dashboardStatsService.getSummary(userId);
     }
 }
@@ -25,6 +25,13 @@ public class IngredientController {
         return ingredientService.findAll();
     }
 
+    // GET /api/ingredients/suggest?prefix=tom&limit=10 - autocomplete served from the in-memory index
+    @GetMapping("/suggest")
+    public List<Ingredient> suggestIngredients(@RequestParam(defaultValue = "") String prefix,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        return ingredientService.suggest(prefix, Math.max(1, Math.min(limit, 50)));
+    }
+
     // GET /api/ingredients/{id}
     @GetMapping("/{id}")
     public ResponseEntity<Ingredient> getIngredient(@PathVariable Long id) {
@@ -36,8 +43,12 @@ public class IngredientController {
     // POST /api/ingredients
     @PostMapping
     public ResponseEntity<Ingredient> createIngredient(@RequestBody Ingredient ingredient) {
-        Ingredient saved = ingredientService.save(ingredient);
-        return new ResponseEntity<>(saved, HttpStatus.CREATED);
+        try {
+            Ingredient saved = ingredientService.save(ingredient);
+            return new ResponseEntity<>(saved, HttpStatus.CREATED);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     // PUT /api/ingredients/{id}
@@ -49,8 +60,12 @@ public class IngredientController {
         }
 
         ingredient.setId(id);
-        Ingredient updated = ingredientService.save(ingredient);
-        return ResponseEntity.ok(updated);
+        try {
+            Ingredient updated = ingredientService.save(ingredient);
+            return ResponseEntity.ok(updated);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     // DELETE /api/ingredients/{id}
@@ -0,0 +1,99 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.model.MigrationCheckpoint;
+import com.grocery.recipes.service.GroceryItemArchivalService;
+import com.grocery.recipes.service.GroceryItemSyncService;
+import com.grocery.recipes.service.GroceryListMigrationService;
+import com.grocery.recipes.service.IngredientCanonicalizationService;
+import com.grocery.recipes.service.PurchaseStatsService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*")
+public class MaintenanceController {
+
+    private final IngredientCanonicalizationService canonicalizationService;
+    private final PurchaseStatsService purchaseStatsService;
+    private final GroceryItemArchivalService archivalService;
+    private final GroceryListMigrationService groceryListMigrationService;
+    private final GroceryItemSyncService groceryItemSyncService;
+
+    public MaintenanceController(IngredientCanonicalizationService canonicalizationService,
+                                 PurchaseStatsService purchaseStatsService,
+                                 GroceryItemArchivalService archivalService,
+                                 GroceryListMigrationService groceryListMigrationService,
+                                 GroceryItemSyncService groceryItemSyncService) {
+        this.canonicalizationService = canonicalizationService;
+        this.purchaseStatsService = purchaseStatsService;
+        this.archivalService = archivalService;
+        this.groceryListMigrationService = groceryListMigrationService;
+        this.groceryItemSyncService = groceryItemSyncService;
+    }
+
+    // GET /api/admin/ingredients/duplicates - dry-run report of what canonicalization would merge
+    @GetMapping("/ingredients/duplicates")
+    public IngredientCanonicalizationService.Report getDuplicateReport() {
+        return canonicalizationService.report();
+    }
+
+    // POST /api/admin/ingredients/canonicalize - merge duplicates now instead of waiting for the nightly run
+    @PostMapping("/ingredients/canonicalize")
+    public ResponseEntity<IngredientCanonicalizationService.Report> canonicalizeIngredients() {
+        try {
+            return ResponseEntity.ok(canonicalizationService.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // POST /api/admin/groceryitems/rollups/rebuild - recompute purchase rollups from the item history
+    @PostMapping("/groceryitems/rollups/rebuild")
+    public ResponseEntity<PurchaseStatsService.RebuildReport> rebuildPurchaseRollups() {
+        try {
+            return ResponseEntity.ok(purchaseStatsService.rebuild());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // POST /api/admin/groceryitems/archive - archive old purchases now instead of waiting for the nightly run
+    @PostMapping("/groceryitems/archive")
+    public ResponseEntity<GroceryItemArchivalService.Report> archiveGroceryItems() {
+        try {
+            return ResponseEntity.ok(archivalService.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // POST /api/admin/groceryitems/tombstones/prune - prune expired delta-sync tombstones now
+    @PostMapping("/groceryitems/tombstones/prune")
+    public ResponseEntity<GroceryItemSyncService.PruneReport> pruneGroceryItemTombstones() {
+        try {
+            return ResponseEntity.ok(groceryItemSyncService.pruneTombstones());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // GET /api/admin/grocerylists/migration - checkpoint of the legacy grocery list migration
+    @GetMapping("/grocerylists/migration")
+    public ResponseEntity<MigrationCheckpoint> getGroceryListMigration() {
+        return groceryListMigrationService.progress()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // POST /api/admin/grocerylists/migrate - migrate (or resume migrating) legacy grocery lists now
+    @PostMapping("/grocerylists/migrate")
+    public ResponseEntity<MigrationCheckpoint> migrateGroceryLists() {
+        try {
+            return ResponseEntity.ok(groceryListMigrationService.run());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package com.grocery.recipes.controller;
 
+import com.grocery.recipes.dto.MealPlanCalendar;
+import com.grocery.recipes.dto.MealPlanItemResponse;
 import com.grocery.recipes.model.MealPlan;
+import com.grocery.recipes.model.MealPlanItem;
 import com.grocery.recipes.model.User;
+import com.grocery.recipes.security.UserDetailsImpl;
+import com.grocery.recipes.service.CollectionVersionService;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
 import com.grocery.recipes.service.MealPlanService;
+import com.grocery.recipes.service.ProjectionService;
+import com.grocery.recipes.service.ProjectionService.Selection;
 import com.grocery.recipes.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,24 +31,83 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class MealPlanController {
 
+    // Longest window the calendar endpoint serves in one call
+    private static final long MAX_CALENDAR_DAYS = 366;
+
+    // How far ahead of today the calendar may look; templates are never expanded beyond it
+    @Value("${app.mealplans.max-horizon-days:366}")
+    private long maxHorizonDays;
+
     private final MealPlanService mealPlanService;
     private final UserService userService;
+    private final CollectionVersionService collectionVersionService;
+    private final ProjectionService projectionService;
 
-    public MealPlanController(MealPlanService mealPlanService, UserService userService) {
+    public MealPlanController(MealPlanService mealPlanService, UserService userService,
+                              CollectionVersionService collectionVersionService,
+                              ProjectionService projectionService) {
         this.mealPlanService = mealPlanService;
         this.userService = userService;
+        this.collectionVersionService = collectionVersionService;
+        this.projectionService = projectionService;
     }
 
-    // GET /api/mealplans - Get all meal plans for authenticated user
+    // GET /api/mealplans - Get all meal plans for authenticated user; 304 when If-None-Match is current.
+    // ?fields=id,name,createdAt,version and ?expand=items,items.recipe.ingredients return sparse views instead
     @GetMapping
-    public List<MealPlan> getAllMealPlans(Authentication authentication) {
+    public ResponseEntity<List<?>> getAllMealPlans(@RequestParam(required = false) String fields,
+                                                   @RequestParam(required = false) String expand,
+                                                   Authentication authentication, WebRequest request) {
+        Selection selection;
+        try {
+            selection = Selection.parse(fields, expand, ProjectionService.MEAL_PLANS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+        String etag = collectionVersionService.etag(userId, UserCollection.MEAL_PLANS);
+        if (ConditionalGet.notModified(request, etag)) {
+            return ConditionalGet.notModifiedResponse(etag);
+        }
+        if (selection != null) {
+            return ConditionalGet.ok(etag, projectionService.mealPlans(userId, selection));
+        }
         User user = getUserFromAuthentication(authentication);
-        return mealPlanService.findAllByUser(user);
+        return ConditionalGet.ok(etag, mealPlanService.findAllByUser(user));
     }
 
-    // GET /api/mealplans/{id} - Get specific meal plan for authenticated user
+    // GET /api/mealplans/calendar?from=dd-MM-yyyy&to=dd-MM-yyyy - Planned meals in a date window ending within the horizon
+    @GetMapping("/calendar")
+    public ResponseEntity<MealPlanCalendar> getCalendar(
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate from,
+            @RequestParam @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate to,
+            Authentication authentication) {
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) > MAX_CALENDAR_DAYS
+                || to.isAfter(LocalDate.now().plusDays(maxHorizonDays))) {
+            return ResponseEntity.badRequest().build();
+        }
+        User user = getUserFromAuthentication(authentication);
+        return ResponseEntity.ok(mealPlanService.findCalendarByUser(user, from, to));
+    }
+
+    // GET /api/mealplans/{id} - Get specific meal plan for authenticated user; takes ?fields= and ?expand= too
     @GetMapping("/{id}")
-    public ResponseEntity<MealPlan> getMealPlan(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getMealPlan(@PathVariable Long id,
+                                         @RequestParam(required = false) String fields,
+                                         @RequestParam(required = false) String expand,
+                                         Authentication authentication) {
+        Selection selection;
+        try {
+            selection = Selection.parse(fields, expand, ProjectionService.MEAL_PLANS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (selection != null) {
+            Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+            return projectionService.mealPlan(id, userId, selection)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }
         User user = getUserFromAuthentication(authentication);
         Optional<MealPlan> mealPlanOpt = mealPlanService.findByIdAndUser(id, user);
         return mealPlanOpt.map(ResponseEntity::ok)
@@ -62,8 +135,85 @@ public class MealPlanController {
 
         mealPlan.setId(id);
         mealPlan.setUser(user);
-        MealPlan updated = mealPlanService.save(mealPlan);
-        return ResponseEntity.ok(updated);
+        try {
+            MealPlan updated = mealPlanService.save(mealPlan);
+            return ResponseEntity.ok(updated);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // POST /api/mealplans/{id}/items - Add one item to a meal plan (If-Match: plan version, optional; 412 when stale)
+    @PostMapping("/{id}/items")
+    public ResponseEntity<MealPlanItemResponse> addItem(@PathVariable Long id,
+                                                        @RequestBody MealPlanItem item,
+                                                        @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                        Authentication authentication) {
+        if (item.getRecipe() == null || item.getDate() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long expectedVersion;
+        try {
+            expectedVersion = parseVersion(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        User user = getUserFromAuthentication(authentication);
+        try {
+            MealPlanItem saved = mealPlanService.addItem(id, user, item, expectedVersion);
+            return new ResponseEntity<>(MealPlanItemResponse.of(saved), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return versionConflict(expectedVersion);
+        }
+    }
+
+    // PATCH /api/mealplans/{id}/items/{itemId} - Move an item to another date and/or recipe
+    @PatchMapping("/{id}/items/{itemId}")
+    public ResponseEntity<MealPlanItemResponse> updateItem(@PathVariable Long id,
+                                                           @PathVariable Long itemId,
+                                                           @RequestBody MealPlanItem changes,
+                                                           @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                                           Authentication authentication) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseVersion(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        User user = getUserFromAuthentication(authentication);
+        try {
+            MealPlanItem updated = mealPlanService.updateItem(id, itemId, user, changes, expectedVersion);
+            return ResponseEntity.ok(MealPlanItemResponse.of(updated));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return versionConflict(expectedVersion);
+        }
+    }
+
+    // DELETE /api/mealplans/{id}/items/{itemId} - Remove one item from a meal plan
+    @DeleteMapping("/{id}/items/{itemId}")
+    public ResponseEntity<Void> deleteItem(@PathVariable Long id,
+                                           @PathVariable Long itemId,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                           Authentication authentication) {
+        Long expectedVersion;
+        try {
+            expectedVersion = parseVersion(ifMatch);
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        User user = getUserFromAuthentication(authentication);
+        try {
+            mealPlanService.deleteItem(id, itemId, user, expectedVersion);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return versionConflict(expectedVersion);
+        }
     }
 
     // DELETE /api/mealplans/{id} - Delete meal plan for authenticated user
@@ -78,6 +228,30 @@ public class MealPlanController {
         }
     }
 
+    // Accepts a bare or quoted plan version (3, "3" or W/"3") or *; anything else, such as a list ETag,
+    // throws NumberFormatException so the request fails instead of skipping the precondition
+    private Long parseVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        return Long.valueOf(value);
+    }
+
+    // A stale If-Match fails its precondition; a concurrent write caught without one is a plain conflict
+    private static <T> ResponseEntity<T> versionConflict(Long expectedVersion) {
+        return ResponseEntity.status(expectedVersion != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+    }
+
     private User getUserFromAuthentication(Authentication authentication) {
         String email = authentication.getName();
         return userService.findByEmail(email)
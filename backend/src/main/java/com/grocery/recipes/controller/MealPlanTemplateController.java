@@ -0,0 +1,64 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.model.MealPlanTemplate;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.service.MealPlanTemplateService;
+import com.grocery.recipes.service.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/mealplans/templates")
+@CrossOrigin(origins = "*")
+public class MealPlanTemplateController {
+
+    private final MealPlanTemplateService mealPlanTemplateService;
+    private final UserService userService;
+
+    public MealPlanTemplateController(MealPlanTemplateService mealPlanTemplateService, UserService userService) {
+        this.mealPlanTemplateService = mealPlanTemplateService;
+        this.userService = userService;
+    }
+
+    // GET /api/mealplans/templates - Get all recurring templates for authenticated user
+    @GetMapping
+    public List<MealPlanTemplate> getTemplates(Authentication authentication) {
+        User user = getUserFromAuthentication(authentication);
+        return mealPlanTemplateService.findAllByUser(user);
+    }
+
+    // POST /api/mealplans/templates - Create a template and its meal plan, written out for the next weeks
+    @PostMapping
+    public ResponseEntity<MealPlanTemplate> createTemplate(@RequestBody MealPlanTemplate template,
+                                                           Authentication authentication) {
+        User user = getUserFromAuthentication(authentication);
+        try {
+            MealPlanTemplate saved = mealPlanTemplateService.create(template, user);
+            return new ResponseEntity<>(saved, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // DELETE /api/mealplans/templates/{id} - Stop a template; items already in the plan are kept
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteTemplate(@PathVariable Long id, Authentication authentication) {
+        User user = getUserFromAuthentication(authentication);
+        try {
+            mealPlanTemplateService.deleteByIdAndUser(id, user);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private User getUserFromAuthentication(Authentication authentication) {
+        String email = authentication.getName();
+        return userService.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
@@ -2,12 +2,18 @@ package com.grocery.recipes.controller;
 
 import com.grocery.recipes.model.Recipe;
 import com.grocery.recipes.model.User;
+import com.grocery.recipes.security.UserDetailsImpl;
+import com.grocery.recipes.service.CollectionVersionService;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
+import com.grocery.recipes.service.ProjectionService;
+import com.grocery.recipes.service.ProjectionService.Selection;
 import com.grocery.recipes.service.RecipeService;
 import com.grocery.recipes.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -20,30 +26,68 @@ public class RecipeController {
 
     private final RecipeService recipeService;
     private final UserService userService;
+    private final CollectionVersionService collectionVersionService;
+    private final ProjectionService projectionService;
 
-    public RecipeController(RecipeService recipeService, UserService userService) {
+    public RecipeController(RecipeService recipeService, UserService userService,
+                            CollectionVersionService collectionVersionService,
+                            ProjectionService projectionService) {
         this.recipeService = recipeService;
         this.userService = userService;
+        this.collectionVersionService = collectionVersionService;
+        this.projectionService = projectionService;
     }
 
-    // GET /api/recipes - Get all recipes for authenticated user
+    // GET /api/recipes - Get all recipes for authenticated user; 304 when If-None-Match is current.
+    // ?fields=id,name,description,servings and ?expand=ingredients return sparse views instead
     @GetMapping
     @CrossOrigin(origins = "*")
-    public ResponseEntity<List<Recipe>> getAllRecipes(Authentication authentication) {
+    public ResponseEntity<List<?>> getAllRecipes(@RequestParam(required = false) String fields,
+                                                 @RequestParam(required = false) String expand,
+                                                 Authentication authentication, WebRequest request) {
+        Selection selection;
         try {
+            selection = Selection.parse(fields, expand, ProjectionService.RECIPES);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+            String etag = collectionVersionService.etag(userId, UserCollection.RECIPES);
+            if (ConditionalGet.notModified(request, etag)) {
+                return ConditionalGet.notModifiedResponse(etag);
+            }
+            if (selection != null) {
+                return ConditionalGet.ok(etag, projectionService.recipes(userId, selection));
+            }
             User user = getUserFromAuthentication(authentication);
             List<Recipe> recipes = recipeService.findAllByUser(user);
-            return ResponseEntity.ok(recipes);
+            return ConditionalGet.ok(etag, recipes);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
-    // GET /api/recipes/{id} - Get specific recipe for authenticated user
+    // GET /api/recipes/{id} - Get specific recipe for authenticated user; takes ?fields= and ?expand= too
     @GetMapping("/{id}")
-    public ResponseEntity<Recipe> getRecipe(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getRecipe(@PathVariable Long id,
+                                       @RequestParam(required = false) String fields,
+                                       @RequestParam(required = false) String expand,
+                                       Authentication authentication) {
+        Selection selection;
         try {
+            selection = Selection.parse(fields, expand, ProjectionService.RECIPES);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            if (selection != null) {
+                Long userId = ((UserDetailsImpl) authentication.getPrincipal()).getId();
+                return projectionService.recipe(id, userId, selection)
+                        .map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build());
+            }
             User user = getUserFromAuthentication(authentication);
             Optional<Recipe> recipeOpt = recipeService.findByIdAndUser(id, user);
             return recipeOpt.map(ResponseEntity::ok)
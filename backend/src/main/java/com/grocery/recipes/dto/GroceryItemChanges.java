@@ -0,0 +1,23 @@
+package com.grocery.recipes.dto;
+
+import com.grocery.recipes.model.GroceryItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Response of GET /api/groceryitems/changes: apply items and deleted, then send token as the next since
+@Getter
+@AllArgsConstructor
+public class GroceryItemChanges {
+
+    private String token;
+
+    // true when items is the full active list (no since given), so the client replaces what it holds
+    private boolean reset;
+
+    // Changed rows, purchased ones included; a purchased item leaves the active list
+    private List<GroceryItem> items;
+
+    private List<Long> deleted;
+}
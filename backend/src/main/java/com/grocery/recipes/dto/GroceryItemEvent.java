@@ -0,0 +1,21 @@
+package com.grocery.recipes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Data of a GET /api/groceryitems/stream event: which items a committed write touched, not the rows
+// themselves; the client fetches them with GET /api/groceryitems/changes from its last token
+@Getter
+@AllArgsConstructor
+public class GroceryItemEvent {
+
+    // "changed" (added, edited, merged, purchased or unpurchased) or "deleted"
+    private String type;
+
+    // Change sequence of the write; also the SSE event id
+    private String token;
+
+    private List<Long> ids;
+}
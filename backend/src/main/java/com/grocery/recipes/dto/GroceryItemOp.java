@@ -0,0 +1,26 @@
+package com.grocery.recipes.dto;
+
+import com.grocery.recipes.model.GroceryItem;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One entry of a POST /api/groceryitems/ops batch, as queued by a client while offline
+@Getter
+@Setter
+@NoArgsConstructor
+public class GroceryItemOp {
+
+    // Client-generated and unique per user; a replayed op id is not applied again
+    private String opId;
+
+    // add, update, delete, mark or unmark
+    private String type;
+
+    // Target of update/delete/mark/unmark: a server id, or ref, the op id of the add that created it
+    private Long itemId;
+    private String ref;
+
+    // Fields for add and update, as accepted by POST and PUT /api/groceryitems
+    private GroceryItem item;
+}
@@ -0,0 +1,25 @@
+package com.grocery.recipes.dto;
+
+import com.grocery.recipes.model.GroceryItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Outcome of one op of a POST /api/groceryitems/ops batch, in request order
+@Getter
+@AllArgsConstructor
+public class GroceryItemOpResult {
+
+    public enum Status { APPLIED, NOT_FOUND, INVALID }
+
+    private String opId;
+
+    private Status status;
+
+    // true when the op id was applied by an earlier request; status and itemId are what it recorded then
+    private boolean duplicate;
+
+    private Long itemId;
+
+    // The item as written, for applied ops other than delete
+    private GroceryItem item;
+}
@@ -0,0 +1,23 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Body of GET /api/mealplans/calendar. Recurring templates are written out ahead by their own writes and
+// a scheduled top-up; when that has not reached the end of the window yet, truncated is set and
+// completeThrough says up to which date the entries are complete
+@Getter
+@AllArgsConstructor
+public class MealPlanCalendar {
+
+    private List<MealPlanCalendarEntry> entries;
+
+    private boolean truncated;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate completeThrough;
+}
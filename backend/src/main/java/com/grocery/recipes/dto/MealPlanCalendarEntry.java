@@ -0,0 +1,24 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// One planned meal on the calendar, projected straight from MealPlanItem without loading entities
+@Getter
+@AllArgsConstructor
+public class MealPlanCalendarEntry {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate date;
+
+    private Long itemId;
+
+    private Long mealPlanId;
+
+    private Long recipeId;
+
+    private String recipeName;
+}
@@ -0,0 +1,32 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.grocery.recipes.model.MealPlanItem;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Result of a single-item change, carrying the plan version the client must send with its next edit
+@Getter
+@AllArgsConstructor
+public class MealPlanItemResponse {
+
+    private Long id;
+
+    private Long mealPlanId;
+
+    private Long mealPlanVersion;
+
+    private Long recipeId;
+
+    private String recipeName;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate date;
+
+    public static MealPlanItemResponse of(MealPlanItem item) {
+        return new MealPlanItemResponse(item.getId(), item.getMealPlan().getId(), item.getMealPlan().getVersion(),
+                item.getRecipe().getId(), item.getRecipe().getName(), item.getDate());
+    }
+}
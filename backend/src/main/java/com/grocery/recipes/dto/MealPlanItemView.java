@@ -0,0 +1,30 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Planned meal of a MealPlanView; the recipe is id, name and servings unless its ingredients are expanded
+@Getter
+public class MealPlanItemView {
+
+    @JsonIgnore
+    private Long mealPlanId;
+
+    private Long id;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate date;
+
+    private RecipeView recipe;
+
+    public MealPlanItemView(Long mealPlanId, Long id, LocalDate date, Long recipeId, String recipeName,
+                            Integer recipeServings) {
+        this.mealPlanId = mealPlanId;
+        this.id = id;
+        this.date = date;
+        this.recipe = new RecipeView(recipeId, recipeName, recipeServings);
+    }
+}
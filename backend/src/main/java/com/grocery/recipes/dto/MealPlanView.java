@@ -0,0 +1,40 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+// Sparse meal plan for ?fields= / ?expand= (see ProjectionService); items only when expanded
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MealPlanView {
+
+    private Long id;
+
+    private String name;
+
+    private LocalDateTime createdAt;
+
+    private Long version;
+
+    private List<MealPlanItemView> items;
+
+    public MealPlanView(Long id, String name, LocalDateTime createdAt, Long version) {
+        this.id = id;
+        this.name = name;
+        this.createdAt = createdAt;
+        this.version = version;
+    }
+
+    public MealPlanView retain(Set<String> fields) {
+        if (!fields.contains("name")) name = null;
+        if (!fields.contains("createdAt")) createdAt = null;
+        if (!fields.contains("version")) version = null;
+        return this;
+    }
+}
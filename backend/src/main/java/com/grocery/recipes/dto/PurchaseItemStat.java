@@ -0,0 +1,18 @@
+package com.grocery.recipes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// How often and how much of one item (per unit) a user bought over a window of weeks
+@Getter
+@AllArgsConstructor
+public class PurchaseItemStat {
+
+    private String itemName;
+
+    private String unit;
+
+    private long purchaseCount;
+
+    private double totalQuantity;
+}
@@ -0,0 +1,40 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Ingredient line of a RecipeView, with the catalogue ingredient cut down to id and name
+@Getter
+public class RecipeIngredientView {
+
+    @JsonIgnore
+    private Long recipeId;
+
+    private Long id;
+
+    private IngredientRef ingredient;
+
+    private double quantity;
+
+    private String unit;
+
+    private String note;
+
+    public RecipeIngredientView(Long recipeId, Long id, Long ingredientId, String ingredientName,
+                                double quantity, String unit, String note) {
+        this.recipeId = recipeId;
+        this.id = id;
+        this.ingredient = new IngredientRef(ingredientId, ingredientName);
+        this.quantity = quantity;
+        this.unit = unit;
+        this.note = note;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class IngredientRef {
+        private Long id;
+        private String name;
+    }
+}
@@ -0,0 +1,45 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Set;
+
+// Sparse recipe for ?fields= / ?expand= (see ProjectionService); fields not asked for are left out
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RecipeView {
+
+    private Long id;
+
+    private String name;
+
+    // Only selected when asked for; the TEXT column is the bulk of a recipe row
+    private String description;
+
+    private Integer servings;
+
+    private List<RecipeIngredientView> ingredients;
+
+    public RecipeView(Long id, String name, Integer servings) {
+        this.id = id;
+        this.name = name;
+        this.servings = servings;
+    }
+
+    public RecipeView(Long id, String name, Integer servings, String description) {
+        this(id, name, servings);
+        this.description = description;
+    }
+
+    // Drops the columns the query had to read but the client did not ask for
+    public RecipeView retain(Set<String> fields) {
+        if (!fields.contains("name")) name = null;
+        if (!fields.contains("servings")) servings = null;
+        if (!fields.contains("description")) description = null;
+        return this;
+    }
+}
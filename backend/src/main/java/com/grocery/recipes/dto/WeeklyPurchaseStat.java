@@ -0,0 +1,22 @@
+package com.grocery.recipes.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Purchase volume of one user in one week (weeks start on Monday)
+@Getter
+@AllArgsConstructor
+public class WeeklyPurchaseStat {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate weekStart;
+
+    private long purchaseCount;
+
+    private long distinctItems;
+
+    private double totalQuantity;
+}
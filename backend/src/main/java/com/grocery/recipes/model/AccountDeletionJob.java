@@ -0,0 +1,63 @@
+package com.grocery.recipes.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Progress of one background account deletion; polled through the account controller. The row is
+ * written with the deactivation and claimed by the instance running it, which keeps heartbeatAt
+ * fresh; a job whose heartbeat goes stale is claimed and resumed by another instance.
+ */
+@Entity
+@Table(name = "account_deletion_job")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AccountDeletionJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @Column(length = 36)
+    private String id = UUID.randomUUID().toString();
+
+    // No foreign key: the user row is the last thing the job deletes
+    @JsonIgnore
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private volatile Status status = Status.QUEUED;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt = LocalDateTime.now();
+
+    private volatile LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private volatile String error;
+
+    @JsonIgnore
+    @Column(length = 36)
+    private String claimedBy;
+
+    @JsonIgnore
+    private LocalDateTime heartbeatAt;
+
+    // Rows deleted per kind by this process, filled in as each stage finishes
+    @Transient
+    private final Map<String, Long> deleted = new ConcurrentHashMap<>();
+
+    public AccountDeletionJob(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDate;
+
 @Entity
 @Getter
 @Setter
@@ -26,6 +28,15 @@ public class GroceryItem {
     private boolean purchased = false; // Active or purchased
     private String datePurchased; // Date marked as purchased (null if not purchased)
 
+    // Same date as datePurchased, typed so the archival job and history paging can range over it
+    @JsonIgnore
+    private LocalDate purchasedOn;
+
+    // The user's grocery_items_version at this row's last write; drives delta sync (see GroceryItemSyncService)
+    @Column(name = "change_seq", nullable = false)
+    @JsonIgnore
+    private long changeSeq;
+
     // NEW: User association
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
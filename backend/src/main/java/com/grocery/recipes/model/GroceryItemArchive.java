@@ -0,0 +1,46 @@
+package com.grocery.recipes.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A purchased grocery item moved out of grocery_item by GroceryItemArchivalService.
+ * Rows are only ever written by the job's INSERT ... SELECT, so the entity is read-only.
+ */
+@Entity
+@Table(name = "grocery_item_archive",
+        indexes = @Index(name = "ix_grocery_item_archive_user", columnList = "user_id, purchased_on"))
+@Immutable
+@Getter
+@Setter
+@NoArgsConstructor
+public class GroceryItemArchive {
+
+    // The id the item had in grocery_item
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String itemName;
+
+    private String unit;
+    private double quantity;
+    private String note;
+    private String dateAdded;
+    private String datePurchased;
+
+    @Column(name = "purchased_on")
+    private LocalDate purchasedOn;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,45 @@
+package com.grocery.recipes.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted grocery item, so GET /api/groceryitems/changes can tell clients to drop it.
+ * Pruned by GroceryItemSyncService once older than the tombstone retention.
+ */
+@Entity
+@Table(name = "grocery_item_tombstone",
+        indexes = @Index(name = "ix_grocery_item_tombstone_user_change_seq", columnList = "user_id, change_seq"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class GroceryItemTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // The id the item had in grocery_item
+    @Column(nullable = false)
+    private Long itemId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    public GroceryItemTombstone(Long userId, Long itemId, long changeSeq) {
+        this.userId = userId;
+        this.itemId = itemId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,50 @@
+package com.grocery.recipes.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Purchases of one item (normalized name + unit) by one user in one week (starting Monday).
+ * Maintained incrementally when items are marked or unmarked as purchased, and rebuilt from
+ * the grocery item history by PurchaseStatsService.rebuild.
+ */
+@Entity
+@Table(name = "grocery_purchase_rollup",
+        indexes = @Index(name = "ux_grocery_purchase_rollup_key",
+                columnList = "user_id, week_start, item_key, unit_key", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+public class GroceryPurchaseRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    // Lower-cased, trimmed item name and unit; unit is "" when the item has none
+    @Column(name = "item_key", nullable = false)
+    private String itemKey;
+
+    @Column(name = "unit_key", nullable = false)
+    private String unitKey;
+
+    // Name as the user first typed it, for display
+    @Column(nullable = false)
+    private String itemName;
+
+    @Column(nullable = false)
+    private long purchaseCount;
+
+    @Column(nullable = false)
+    private double totalQuantity;
+}
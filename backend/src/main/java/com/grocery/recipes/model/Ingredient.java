@@ -1,16 +1,30 @@
 package com.grocery.recipes.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.grocery.recipes.service.IngredientIndexListener;
+import com.grocery.recipes.service.IngredientNames;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Table(indexes = @Index(name = "ux_ingredient_normalized_name", columnList = "normalized_name", unique = true))
+@EntityListeners(IngredientIndexListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredient")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,4 +37,14 @@ public class Ingredient {
     @NotBlank(message = "Ingredient name is required")
     private String name;
 
+    // Canonical form of name (see IngredientNames); null only for rows not yet canonicalized
+    @Column(name = "normalized_name")
+    @JsonIgnore
+    private String normalizedName;
+
+    @PrePersist
+    @PreUpdate
+    void updateNormalizedName() {
+        normalizedName = IngredientNames.canonical(name);
+    }
 }
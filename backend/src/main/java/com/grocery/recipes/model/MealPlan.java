@@ -9,6 +9,7 @@ import java.util.List;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Getter
@@ -25,7 +26,12 @@ public class MealPlan {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Bumped on every change to the plan or one of its items
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "mealPlan", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<MealPlanItem> items = new ArrayList<>();
 
     // NEW: User association
@@ -0,0 +1,69 @@
+package com.grocery.recipes.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A weekly rotation (one recipe per weekday slot, repeating every intervalWeeks weeks from
+ * startDate) that is expanded into MealPlanItem rows of its meal plan on demand.
+ * expandedThrough is the last date already written, so each expansion only adds new weeks.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class MealPlanTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank(message = "Template name is required")
+    private String name;
+
+    @Min(value = 1, message = "Interval must be at least one week")
+    @Column(nullable = false)
+    private int intervalWeeks = 1;
+
+    @NotNull(message = "Start date is required")
+    @Column(nullable = false)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate startDate;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate endDate;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+    private LocalDate expandedThrough;
+
+    @OneToMany(mappedBy = "template", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<MealPlanTemplateSlot> slots = new ArrayList<>();
+
+    // Plan the expanded items are added to
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "meal_plan_id", nullable = false)
+    @JsonIgnore
+    private MealPlan mealPlan;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @JsonIgnore
+    private User user;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Long getMealPlanId() {
+        return mealPlan != null ? mealPlan.getId() : null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.grocery.recipes.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class MealPlanTemplateSlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne
+    @JoinColumn(name = "template_id", nullable = false)
+    @JsonIgnore // Prevent infinite recursion during serialization
+    private MealPlanTemplate template;
+
+    @NotNull(message = "Day of week is required")
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DayOfWeek dayOfWeek;
+
+    @ManyToOne
+    @JoinColumn(name = "recipe_id", nullable = false)
+    @NotNull(message = "Recipe is required")
+    private Recipe recipe;
+}
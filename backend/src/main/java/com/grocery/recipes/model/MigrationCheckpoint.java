@@ -0,0 +1,46 @@
+package com.grocery.recipes.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * How far a resumable data migration got. The job advances lastId in the same transaction that
+ * writes each chunk, so a restart continues after the last committed chunk without duplicates.
+ */
+@Entity
+@Table(name = "migration_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+public class MigrationCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    // Highest source row id already handled
+    @Column(nullable = false)
+    private long lastId;
+
+    @Column(nullable = false)
+    private long processed;
+
+    @Column(nullable = false)
+    private long migrated;
+
+    @Column(nullable = false)
+    private long skipped;
+
+    private LocalDateTime updatedAt;
+
+    // Set when a run found nothing left to migrate; cleared if later rows show up
+    private LocalDateTime completedAt;
+
+    public MigrationCheckpoint(String name) {
+        this.name = name;
+    }
+}
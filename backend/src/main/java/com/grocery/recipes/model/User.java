@@ -54,6 +54,11 @@ public class User {
     @Column(nullable = false)
     private boolean isActive = true;
 
+    // Grants ROLE_ADMIN for the /api/admin maintenance jobs; only ever set in the database
+    @Column(nullable = false)
+    @JsonIgnore
+    private boolean isAdmin = false;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Recipe> recipes;
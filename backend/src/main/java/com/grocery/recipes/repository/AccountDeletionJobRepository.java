@@ -0,0 +1,44 @@
+package com.grocery.recipes.repository;
+
+import com.grocery.recipes.model.AccountDeletionJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountDeletionJobRepository extends JpaRepository<AccountDeletionJob, String> {
+
+    boolean existsByUserIdAndStatusIn(Long userId, Collection<AccountDeletionJob.Status> statuses);
+
+    Optional<AccountDeletionJob> findFirstByUserIdOrderByRequestedAtDesc(Long userId);
+
+    // Unfinished jobs nobody has reported on since staleBefore: never claimed, or their instance is gone
+    @Query("SELECT j FROM AccountDeletionJob j WHERE j.status IN ?1 AND (j.heartbeatAt IS NULL OR j.heartbeatAt < ?2) " +
+            "ORDER BY j.requestedAt")
+    List<AccountDeletionJob> findAbandoned(Collection<AccountDeletionJob.Status> unfinished, LocalDateTime staleBefore);
+
+    // Conditional, so when several instances see the same abandoned job only one of them takes it
+    @Modifying
+    @Query("UPDATE AccountDeletionJob j SET j.claimedBy = ?2, j.heartbeatAt = ?3 WHERE j.id = ?1 AND j.status IN ?4 " +
+            "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < ?5)")
+    int claim(String id, String owner, LocalDateTime now, Collection<AccountDeletionJob.Status> unfinished,
+              LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("UPDATE AccountDeletionJob j SET j.heartbeatAt = ?3 WHERE j.id IN ?1 AND j.claimedBy = ?2")
+    int heartbeat(Collection<String> ids, String owner, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE AccountDeletionJob j SET j.status = ?2, j.finishedAt = ?3, j.error = ?4 WHERE j.id = ?1")
+    int updateStatus(String id, AccountDeletionJob.Status status, LocalDateTime finishedAt, String error);
+
+    @Modifying
+    @Query("DELETE FROM AccountDeletionJob j WHERE j.finishedAt < ?1")
+    int deleteFinishedBefore(LocalDateTime cutoff);
+}
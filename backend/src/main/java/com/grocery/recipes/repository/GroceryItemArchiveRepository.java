@@ -0,0 +1,39 @@
+package com.grocery.recipes.repository;
+
+import com.grocery.recipes.model.GroceryItemArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GroceryItemArchiveRepository extends JpaRepository<GroceryItemArchive, Long> {
+
+    // Copies the given grocery_item rows; the caller deletes them from grocery_item in the same transaction
+    @Modifying
+    @Query(value = "INSERT INTO grocery_item_archive " +
+            "(id, item_name, unit, quantity, note, date_added, date_purchased, purchased_on, user_id, archived_at) " +
+            "SELECT id, item_name, unit, quantity, note, date_added, date_purchased, purchased_on, user_id, CURRENT_TIMESTAMP " +
+            "FROM grocery_item WHERE id IN (:ids) AND purchased = true AND purchased_on < :cutoff", nativeQuery = true)
+    int copyFromGroceryItems(Collection<Long> ids, LocalDate cutoff);
+
+    // Offset-based because the archive continues the live list at an arbitrary position
+    @Query("SELECT a FROM GroceryItemArchive a WHERE a.userId = ?1 ORDER BY a.purchasedOn DESC, a.id DESC LIMIT ?3 OFFSET ?2")
+    List<GroceryItemArchive> findPageByUserId(Long userId, long offset, int limit);
+
+    // Same row shape as GroceryItemRepository.findPurchaseHistory
+    @Query("SELECT a.userId, a.itemName, a.unit, a.quantity, a.datePurchased FROM GroceryItemArchive a WHERE a.userId IN ?1")
+    List<Object[]> findPurchaseHistory(Collection<Long> userIds);
+
+    @Query("SELECT a.id FROM GroceryItemArchive a WHERE a.userId = ?1 ORDER BY a.id")
+    List<Long> findIdsByUserId(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM GroceryItemArchive a WHERE a.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
@@ -2,10 +2,16 @@ package com.grocery.recipes.repository;
 
 import com.grocery.recipes.model.GroceryItem;
 import com.grocery.recipes.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,7 +32,44 @@ public interface GroceryItemRepository extends JpaRepository<GroceryItem, Long>
 
     Optional<GroceryItem> findByIdAndUser(Long id, User user);
 
-    void deleteByIdAndUser(Long id, User user);
+    // Purchased ones included, so clients see items leave the active list
+    @Query("SELECT g FROM GroceryItem g WHERE g.user.id = ?1 AND g.changeSeq > ?2 ORDER BY g.changeSeq, g.id")
+    List<GroceryItem> findChangedSince(Long userId, long changeSeq);
+
+    @Modifying
+    @Query("DELETE FROM GroceryItem g WHERE g.id = ?1 AND g.user = ?2")
+    int deleteByIdAndUser(Long id, User user);
+
+    @Query("SELECT g.id FROM GroceryItem g WHERE g.user.id = ?1 ORDER BY g.id")
+    List<Long> findIdsByUserId(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM GroceryItem g WHERE g.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+
+    // Oldest purchases first; purchased_on is indexed for this scan. Locked so an unmark waits for the chunk
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g.id FROM GroceryItem g WHERE g.purchased = true AND g.purchasedOn < ?1 ORDER BY g.purchasedOn, g.id")
+    List<Long> findArchivableIds(LocalDate cutoff, Pageable pageable);
+
+    // Rechecks the archival condition, matching GroceryItemArchiveRepository.copyFromGroceryItems
+    @Modifying
+    @Query("DELETE FROM GroceryItem g WHERE g.id IN ?1 AND g.purchased = true AND g.purchasedOn < ?2")
+    int deleteArchivable(Collection<Long> ids, LocalDate cutoff);
+
+    @Query("SELECT g FROM GroceryItem g WHERE g.user = ?1 AND g.purchased = true ORDER BY g.purchasedOn DESC, g.id DESC")
+    List<GroceryItem> findPurchasedPageByUser(User user, Pageable pageable);
+
+    long countByUserAndPurchasedTrue(User user);
 
     List<GroceryItem> findByIdInAndUser(List<Long> ids, User user);
+
+    // Rows of [userId, itemName, unit, quantity, datePurchased] for rebuilding purchase rollups
+    @Query("SELECT g.user.id, g.itemName, g.unit, g.quantity, g.datePurchased FROM GroceryItem g " +
+            "WHERE g.purchased = true AND g.user.id IN ?1")
+    List<Object[]> findPurchaseHistory(Collection<Long> userIds);
+
+    // Dashboard counts; both are served by the (user_id, purchased) index
+    long countByUserIdAndPurchasedFalse(Long userId);
+    long countByUserIdAndPurchasedTrueAndDatePurchasedIn(Long userId, Collection<String> dates);
 }
@@ -0,0 +1,30 @@
+package com.grocery.recipes.repository;
+
+import com.grocery.recipes.model.GroceryItemTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GroceryItemTombstoneRepository extends JpaRepository<GroceryItemTombstone, Long> {
+
+    @Query("SELECT t.itemId FROM GroceryItemTombstone t WHERE t.userId = ?1 AND t.changeSeq > ?2 ORDER BY t.changeSeq")
+    List<Long> findItemIdsDeletedSince(Long userId, long changeSeq);
+
+    // user id and newest change_seq among that user's tombstones deleted before the cutoff
+    @Query("SELECT t.userId, MAX(t.changeSeq) FROM GroceryItemTombstone t WHERE t.deletedAt < ?1 GROUP BY t.userId")
+    List<Object[]> findExpiredByUser(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM GroceryItemTombstone t WHERE t.userId = ?1 AND t.changeSeq <= ?2")
+    int deleteByUserIdThrough(Long userId, long changeSeq);
+
+    @Modifying
+    @Query("DELETE FROM GroceryItemTombstone t WHERE t.userId IN ?1")
+    int deleteByUserIds(Collection<Long> userIds);
+}
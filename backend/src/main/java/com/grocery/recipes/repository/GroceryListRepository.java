@@ -2,9 +2,13 @@ package com.grocery.recipes.repository;
 
 import com.grocery.recipes.model.GroceryList;
 import com.grocery.recipes.model.GroceryListEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Deprecated
@@ -13,6 +17,26 @@ public interface GroceryListRepository extends JpaRepository<GroceryList, Long>
     @Query("SELECT e FROM GroceryListEntry e WHERE e.id = :entryId")
     Optional<GroceryListEntry> findEntryById(Long entryId);
 
+    // Legacy lists hang off a meal plan; entries only know their list through the join column
+    @Modifying
+    @Query(value = "DELETE FROM grocery_list_entry WHERE grocery_list_id IN " +
+            "(SELECT id FROM grocery_list WHERE meal_plan_id IN (?1))", nativeQuery = true)
+    int deleteEntriesByMealPlanIds(Collection<Long> mealPlanIds);
+
+    // Rows of [listId, ownerUserId, date, completed] after the given id; a projection so the eager entries stay unloaded
+    @Query("SELECT gl.id, mp.user.id, gl.date, gl.completed FROM GroceryList gl LEFT JOIN gl.mealPlan mp " +
+            "WHERE gl.id > ?1 ORDER BY gl.id")
+    List<Object[]> findMigrationChunk(Long afterId, Pageable pageable);
+
+    // Rows of [listId, ingredientName, unit, quantity, note, purchased] for the given lists
+    @Query(value = "SELECT grocery_list_id, ingredient_name, unit, quantity, note, purchased FROM grocery_list_entry " +
+            "WHERE grocery_list_id IN (?1) ORDER BY grocery_list_id, id", nativeQuery = true)
+    List<Object[]> findEntryRowsByListIds(Collection<Long> listIds);
+
+    @Modifying
+    @Query("DELETE FROM GroceryList gl WHERE gl.mealPlan.id IN ?1")
+    int deleteByMealPlanIds(Collection<Long> mealPlanIds);
+
     // Save a GroceryListEntry (simply delegates to EntityManager; will work if you mark it as a Spring bean)
     @SuppressWarnings("unchecked")
     default GroceryListEntry saveEntry(GroceryListEntry entry) {
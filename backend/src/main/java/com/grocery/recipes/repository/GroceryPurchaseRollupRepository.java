@@ -0,0 +1,42 @@
+package com.grocery.recipes.repository;
+
+import com.grocery.recipes.dto.PurchaseItemStat;
+import com.grocery.recipes.dto.WeeklyPurchaseStat;
+import com.grocery.recipes.model.GroceryPurchaseRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GroceryPurchaseRollupRepository extends JpaRepository<GroceryPurchaseRollup, Long> {
+
+    // Returns 0 when the bucket doesn't exist yet, in which case the caller inserts it
+    @Modifying
+    @Query("UPDATE GroceryPurchaseRollup r SET r.purchaseCount = r.purchaseCount + ?5, r.totalQuantity = r.totalQuantity + ?6 " +
+            "WHERE r.user.id = ?1 AND r.weekStart = ?2 AND r.itemKey = ?3 AND r.unitKey = ?4")
+    int increment(Long userId, LocalDate weekStart, String itemKey, String unitKey, long count, double quantity);
+
+    @Modifying
+    @Query("DELETE FROM GroceryPurchaseRollup r WHERE r.user.id = ?1 AND r.purchaseCount <= 0")
+    int deleteEmptyByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM GroceryPurchaseRollup r WHERE r.user.id IN ?1")
+    int deleteByUserIds(Collection<Long> userIds);
+
+    @Query("SELECT new com.grocery.recipes.dto.PurchaseItemStat(MAX(r.itemName), r.unitKey, SUM(r.purchaseCount), SUM(r.totalQuantity)) " +
+            "FROM GroceryPurchaseRollup r WHERE r.user.id = ?1 AND r.weekStart >= ?2 " +
+            "GROUP BY r.itemKey, r.unitKey ORDER BY SUM(r.purchaseCount) DESC, MAX(r.itemName)")
+    List<PurchaseItemStat> findTopItems(Long userId, LocalDate fromWeek, Pageable pageable);
+
+    @Query("SELECT new com.grocery.recipes.dto.WeeklyPurchaseStat(r.weekStart, SUM(r.purchaseCount), COUNT(r), SUM(r.totalQuantity)) " +
+            "FROM GroceryPurchaseRollup r WHERE r.user.id = ?1 AND r.weekStart >= ?2 " +
+            "GROUP BY r.weekStart ORDER BY r.weekStart")
+    List<WeeklyPurchaseStat> findWeekly(Long userId, LocalDate fromWeek);
+}
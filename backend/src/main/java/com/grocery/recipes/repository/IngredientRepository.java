@@ -1,10 +1,40 @@
 package com.grocery.recipes.repository;
 
 import com.grocery.recipes.model.Ingredient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
-    // Custom queries can be added here
+
+    // The whole catalogue is served from the query cache until an ingredient is written
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "ingredient-catalogue")
+    })
+    List<Ingredient> findAll();
+
+    Optional<Ingredient> findFirstByNormalizedName(String normalizedName);
+
+    // id, name, normalizedName of every ingredient, without loading entities
+    @Query("SELECT i.id, i.name, i.normalizedName FROM Ingredient i ORDER BY i.id")
+    List<Object[]> findAllNames();
+
+    @Modifying
+    @Query("UPDATE Ingredient i SET i.normalizedName = ?2 WHERE i.id = ?1")
+    int updateNormalizedName(Long id, String normalizedName);
+
+    @Modifying
+    @Query("DELETE FROM Ingredient i WHERE i.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
@@ -1,11 +1,47 @@
 package com.grocery.recipes.repository;
 
+import com.grocery.recipes.dto.MealPlanCalendarEntry;
+import com.grocery.recipes.dto.MealPlanItemView;
+import com.grocery.recipes.model.MealPlan;
 import com.grocery.recipes.model.MealPlanItem;
+import com.grocery.recipes.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface MealPlanItemRepository extends JpaRepository<MealPlanItem, Long> {
     int countByRecipeId(Long recipeId);
-    void deleteByRecipeId(Long recipeId);
+
+    @Modifying
+    @Query("DELETE FROM MealPlanItem i WHERE i.recipe.id IN ?1")
+    int deleteByRecipeIds(Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("DELETE FROM MealPlanItem i WHERE i.mealPlan.id IN ?1")
+    int deleteByMealPlanIds(Collection<Long> mealPlanIds);
+
+    Optional<MealPlanItem> findByIdAndMealPlan(Long id, MealPlan mealPlan);
+
+    // Flat calendar rows for a date window across all of the user's meal plans (ix_meal_plan_item_plan_date)
+    @Query("SELECT new com.grocery.recipes.dto.MealPlanCalendarEntry(i.date, i.id, mp.id, r.id, r.name) " +
+            "FROM MealPlanItem i JOIN i.mealPlan mp JOIN i.recipe r " +
+            "WHERE mp.user = ?1 AND i.date BETWEEN ?2 AND ?3 " +
+            "ORDER BY i.date, mp.id, i.id")
+    List<MealPlanCalendarEntry> findCalendarByUser(User user, LocalDate from, LocalDate to);
+
+    // Items of sparse meal plan views (see ProjectionService), with only the recipe's id, name and servings
+    @Query("SELECT new com.grocery.recipes.dto.MealPlanItemView(mp.id, i.id, i.date, r.id, r.name, r.servings) " +
+            "FROM MealPlanItem i JOIN i.mealPlan mp JOIN i.recipe r WHERE mp.user.id = ?1 ORDER BY mp.id, i.date, i.id")
+    List<MealPlanItemView> findViewsByUserId(Long userId);
+
+    @Query("SELECT new com.grocery.recipes.dto.MealPlanItemView(mp.id, i.id, i.date, r.id, r.name, r.servings) " +
+            "FROM MealPlanItem i JOIN i.mealPlan mp JOIN i.recipe r WHERE mp.id = ?1 ORDER BY i.date, i.id")
+    List<MealPlanItemView> findViewsByMealPlanId(Long mealPlanId);
 }
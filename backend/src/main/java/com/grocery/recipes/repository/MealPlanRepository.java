@@ -1,17 +1,61 @@
 package com.grocery.recipes.repository;
 
+import com.grocery.recipes.dto.MealPlanView;
 import com.grocery.recipes.model.MealPlan;
 import com.grocery.recipes.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MealPlanRepository extends JpaRepository<MealPlan, Long> {
+    // Plans with their items and recipes in one query; recipe ingredients are fetched separately
+    @EntityGraph(attributePaths = {"items", "items.recipe"})
     List<MealPlan> findByUser(User user);
+
+    @EntityGraph(attributePaths = {"items", "items.recipe"})
     Optional<MealPlan> findByIdAndUser(Long id, User user);
+
+    @EntityGraph(attributePaths = {"items", "items.recipe"})
+    List<MealPlan> findByIdInAndUser(Collection<Long> ids, User user);
     boolean existsByIdAndUser(Long id, User user);
-    void deleteByIdAndUser(Long id, User user);
+    long countByUserId(Long userId);
+
+    // Sparse views (see ProjectionService); items are read separately, only when expanded
+    @Query("SELECT new com.grocery.recipes.dto.MealPlanView(mp.id, mp.name, mp.createdAt, mp.version) " +
+            "FROM MealPlan mp WHERE mp.user.id = ?1 ORDER BY mp.id")
+    List<MealPlanView> findViewsByUserId(Long userId);
+
+    @Query("SELECT new com.grocery.recipes.dto.MealPlanView(mp.id, mp.name, mp.createdAt, mp.version) " +
+            "FROM MealPlan mp WHERE mp.id = ?1 AND mp.user.id = ?2")
+    Optional<MealPlanView> findViewByIdAndUserId(Long id, Long userId);
+
+    // Plan row only; its version is incremented at commit so a concurrent edit of the same plan conflicts
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT mp FROM MealPlan mp WHERE mp.id = ?1 AND mp.user = ?2")
+    Optional<MealPlan> findForItemChange(Long id, User user);
+
+    @Query("SELECT mp.version FROM MealPlan mp WHERE mp.id = ?1")
+    Optional<Long> findVersionById(Long id);
+
+    // For item rows written outside the entity model, e.g. template expansion
+    @Modifying
+    @Query("UPDATE MealPlan mp SET mp.version = mp.version + 1 WHERE mp.id IN ?1")
+    int incrementVersions(Collection<Long> ids);
+
+    @Query("SELECT mp.id FROM MealPlan mp WHERE mp.user.id = ?1 ORDER BY mp.id")
+    List<Long> findIdsByUserId(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM MealPlan mp WHERE mp.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
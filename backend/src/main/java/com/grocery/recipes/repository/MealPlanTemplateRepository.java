@@ -0,0 +1,56 @@
+package com.grocery.recipes.repository;
+
+import com.grocery.recipes.model.MealPlanTemplate;
+import com.grocery.recipes.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MealPlanTemplateRepository extends JpaRepository<MealPlanTemplate, Long> {
+
+    @EntityGraph(attributePaths = {"slots", "slots.recipe", "mealPlan"})
+    List<MealPlanTemplate> findByUser(User user);
+
+    Optional<MealPlanTemplate> findByIdAndUser(Long id, User user);
+
+    // Templates of any user that have not been written out up to the given date, for the scheduled top-up
+    @Query("SELECT t.id FROM MealPlanTemplate t WHERE t.startDate <= ?1 " +
+            "AND (t.expandedThrough IS NULL OR (t.expandedThrough < ?1 AND (t.endDate IS NULL OR t.expandedThrough < t.endDate))) " +
+            "ORDER BY t.id")
+    List<Long> findPendingExpansionIds(LocalDate through, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"slots", "slots.recipe", "mealPlan"})
+    List<MealPlanTemplate> findByIdIn(Collection<Long> ids);
+
+    // Rows of [expandedThrough, startDate] for the user's templates not yet written out up to the given date
+    @Query("SELECT t.expandedThrough, t.startDate FROM MealPlanTemplate t WHERE t.user = ?1 AND t.startDate <= ?2 " +
+            "AND (t.expandedThrough IS NULL OR (t.expandedThrough < ?2 AND (t.endDate IS NULL OR t.expandedThrough < t.endDate)))")
+    List<Object[]> findPendingCoverage(User user, LocalDate through);
+
+    @EntityGraph(attributePaths = {"slots", "slots.recipe", "mealPlan"})
+    @Query("SELECT t FROM MealPlanTemplate t WHERE t.user = ?1 AND t.mealPlan.id IN ?2 " +
+            "AND (t.expandedThrough IS NULL OR (t.expandedThrough < ?3 AND (t.endDate IS NULL OR t.expandedThrough < t.endDate)))")
+    List<MealPlanTemplate> findPendingExpansionForPlans(User user, Collection<Long> mealPlanIds, LocalDate through);
+
+    // Moves the watermark only if no concurrent expansion got there first; returns 0 if one did
+    @Modifying
+    @Query("UPDATE MealPlanTemplate t SET t.expandedThrough = ?3 WHERE t.id = ?1 AND t.expandedThrough = ?2")
+    int advanceExpandedThrough(Long id, LocalDate previous, LocalDate through);
+
+    @Modifying
+    @Query("UPDATE MealPlanTemplate t SET t.expandedThrough = ?2 WHERE t.id = ?1 AND t.expandedThrough IS NULL")
+    int startExpandedThrough(Long id, LocalDate through);
+
+    @Modifying
+    @Query("DELETE FROM MealPlanTemplate t WHERE t.mealPlan.id IN ?1")
+    int deleteByMealPlanIds(Collection<Long> mealPlanIds);
+}
@@ -0,0 +1,22 @@
+package com.grocery.recipes.repository;
+
+import com.grocery.recipes.model.MealPlanTemplateSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface MealPlanTemplateSlotRepository extends JpaRepository<MealPlanTemplateSlot, Long> {
+
+    @Modifying
+    @Query("DELETE FROM MealPlanTemplateSlot s WHERE s.recipe.id IN ?1")
+    int deleteByRecipeIds(Collection<Long> recipeIds);
+
+    @Modifying
+    @Query("DELETE FROM MealPlanTemplateSlot s WHERE s.template.id IN " +
+            "(SELECT t.id FROM MealPlanTemplate t WHERE t.mealPlan.id IN ?1)")
+    int deleteByMealPlanIds(Collection<Long> mealPlanIds);
+}
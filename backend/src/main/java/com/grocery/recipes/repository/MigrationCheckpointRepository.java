@@ -0,0 +1,19 @@
+package com.grocery.recipes.repository;
+
+import com.grocery.recipes.model.MigrationCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MigrationCheckpointRepository extends JpaRepository<MigrationCheckpoint, String> {
+
+    // Held until the chunk commits, so a second instance waits and then reads the advanced lastId
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM MigrationCheckpoint c WHERE c.name = ?1")
+    Optional<MigrationCheckpoint> lockByName(String name);
+}
@@ -1,12 +1,39 @@
 package com.grocery.recipes.repository;
 
+import com.grocery.recipes.dto.RecipeIngredientView;
+import com.grocery.recipes.model.Ingredient;
 import com.grocery.recipes.model.RecipeIngredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredient, Long> {
     int countByIngredientId(Long ingredientId);
 
-    // Additional query methods can be implemented as needed
+    // Rows of [ingredientId, usageCount] for the given ingredients
+    @Query("SELECT ri.ingredient.id, COUNT(ri) FROM RecipeIngredient ri WHERE ri.ingredient.id IN ?1 GROUP BY ri.ingredient.id")
+    List<Object[]> countUsageByIngredientIds(Collection<Long> ingredientIds);
+
+    // Point every recipe line using one of the duplicates at the surviving ingredient
+    @Modifying
+    @Query("UPDATE RecipeIngredient ri SET ri.ingredient = ?1 WHERE ri.ingredient.id IN ?2")
+    int repointIngredient(Ingredient survivor, Collection<Long> duplicateIds);
+
+    // Ingredient lines of the given recipes as views, without loading Recipe or Ingredient entities
+    @Query("SELECT new com.grocery.recipes.dto.RecipeIngredientView(ri.recipe.id, ri.id, i.id, i.name, ri.quantity, ri.unit, ri.note) " +
+            "FROM RecipeIngredient ri JOIN ri.ingredient i WHERE ri.recipe.id IN ?1 ORDER BY ri.id")
+    List<RecipeIngredientView> findViewsByRecipeIds(Collection<Long> recipeIds);
+
+    @Query("SELECT new com.grocery.recipes.dto.RecipeIngredientView(ri.recipe.id, ri.id, i.id, i.name, ri.quantity, ri.unit, ri.note) " +
+            "FROM RecipeIngredient ri JOIN ri.ingredient i WHERE ri.recipe.user.id = ?1 ORDER BY ri.id")
+    List<RecipeIngredientView> findViewsByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RecipeIngredient ri WHERE ri.recipe.id IN ?1")
+    int deleteByRecipeIds(Collection<Long> recipeIds);
 }
@@ -1,11 +1,16 @@
 package com.grocery.recipes.repository;
 
+import com.grocery.recipes.dto.RecipeView;
 import com.grocery.recipes.model.Recipe;
 import com.grocery.recipes.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +20,41 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     @EntityGraph(attributePaths = {"ingredients", "ingredients.ingredient"})
     List<Recipe> findByUser(User user);
 
+    @EntityGraph(attributePaths = {"ingredients", "ingredients.ingredient"})
     Optional<Recipe> findByIdAndUser(Long id, User user);
 
+    @EntityGraph(attributePaths = {"ingredients", "ingredients.ingredient"})
+    List<Recipe> findByIdInAndUser(Collection<Long> ids, User user);
+
+    // Initializes the ingredient lines of recipes already in the persistence context, in one query
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.ingredients ri LEFT JOIN FETCH ri.ingredient WHERE r IN ?1")
+    List<Recipe> fetchIngredients(Collection<Recipe> recipes);
+
+    // Sparse views (see ProjectionService): the description column is only read by the WithDescription variants
+    @Query("SELECT new com.grocery.recipes.dto.RecipeView(r.id, r.name, r.servings) " +
+            "FROM Recipe r WHERE r.user.id = ?1 ORDER BY r.id")
+    List<RecipeView> findViewsByUserId(Long userId);
+
+    @Query("SELECT new com.grocery.recipes.dto.RecipeView(r.id, r.name, r.servings, r.description) " +
+            "FROM Recipe r WHERE r.user.id = ?1 ORDER BY r.id")
+    List<RecipeView> findViewsWithDescriptionByUserId(Long userId);
+
+    @Query("SELECT new com.grocery.recipes.dto.RecipeView(r.id, r.name, r.servings) " +
+            "FROM Recipe r WHERE r.id = ?1 AND r.user.id = ?2")
+    Optional<RecipeView> findViewByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT new com.grocery.recipes.dto.RecipeView(r.id, r.name, r.servings, r.description) " +
+            "FROM Recipe r WHERE r.id = ?1 AND r.user.id = ?2")
+    Optional<RecipeView> findViewWithDescriptionByIdAndUserId(Long id, Long userId);
+
     boolean existsByIdAndUser(Long id, User user);
 
-    void deleteByIdAndUser(Long id, User user);
+    long countByUserId(Long userId);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.user.id = ?1 ORDER BY r.id")
+    List<Long> findIdsByUserId(Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Recipe r WHERE r.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
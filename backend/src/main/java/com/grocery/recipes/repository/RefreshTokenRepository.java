@@ -2,6 +2,7 @@ package com.grocery.recipes.repository;
 
 import com.grocery.recipes.model.RefreshToken;
 import com.grocery.recipes.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -14,6 +15,8 @@ import java.util.Optional;
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
+    // The refresh endpoint reads the user after the lookup's transaction has closed
+    @EntityGraph(attributePaths = "user")
     Optional<RefreshToken> findByToken(String token);
 
     List<RefreshToken> findByUser(User user);
@@ -22,6 +25,10 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Query("DELETE FROM RefreshToken rt WHERE rt.user = ?1")
     void deleteByUser(User user);
 
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.user.id = ?1")
+    int deleteByUserId(Long userId);
+
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < ?1")
     void deleteByExpiryDateBefore(LocalDateTime dateTime);
@@ -1,9 +1,16 @@
 package com.grocery.recipes.repository;
 
 import com.grocery.recipes.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +25,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByPhoneAreaCodeAndPhoneNumber(String phoneAreaCode, String phoneNumber);
 
     Optional<User> findByEmailOrPhoneAreaCodeAndPhoneNumber(String email, String phoneAreaCode, String phoneNumber);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > ?1 ORDER BY u.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    // Serializes writes to a user's derived data (rollups) against each other and against rebuilds
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id IN ?1 ORDER BY u.id")
+    List<User> lockByIds(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE User u SET u.isActive = false WHERE u.id = ?1")
+    int deactivate(Long id);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = ?1")
+    int deleteUserById(Long id);
 }
@@ -2,16 +2,19 @@ package com.grocery.recipes.security;
 
 import com.grocery.recipes.model.User;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public class UserDetailsImpl implements UserDetails {
     private Long id;
     private String email;
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean enabled = true;
 
     public UserDetailsImpl(Long id, String email, String password,
                            Collection<? extends GrantedAuthority> authorities) {
@@ -22,11 +25,14 @@ public class UserDetailsImpl implements UserDetails {
     }
 
     public static UserDetailsImpl build(User user) {
-        return new UserDetailsImpl(
+        UserDetailsImpl details = new UserDetailsImpl(
                 user.getId(),
                 user.getEmail(),
                 user.getPasswordHash(),
-                Collections.emptyList());
+                user.isAdmin() ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN")) : Collections.emptyList());
+        // Accounts are deactivated while they are being deleted
+        details.enabled = user.isActive();
+        return details;
     }
 
     @Override
@@ -65,6 +71,6 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 }
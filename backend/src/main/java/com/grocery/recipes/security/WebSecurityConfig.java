@@ -1,5 +1,7 @@
 package com.grocery.recipes.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,18 +30,24 @@ public class WebSecurityConfig {
 
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtUtils jwtUtils;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
 
-    public WebSecurityConfig(UserDetailsServiceImpl userDetailsService, JwtUtils jwtUtils) {
+    // Set in production so Actuator is only reachable on a port that is not published
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
+    public WebSecurityConfig(UserDetailsServiceImpl userDetailsService, JwtUtils jwtUtils, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtUtils = jwtUtils;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsService, meterRegistry);
     }
 
     @Bean
@@ -57,7 +65,7 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -67,8 +75,16 @@ public class WebSecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
+                        // The async dispatch that closes an SSE stream carries no JWT; its request was authorized when opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/ingredients/**").permitAll()
+                        .requestMatchers("/api/account/deletions/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        // The Prometheus scraper reaches the private management port without a JWT
+                        .requestMatchers(request -> request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/recipes/**").authenticated()
                         .requestMatchers("/api/mealplans/**").authenticated()
                         .requestMatchers("/api/groceryitems/**").authenticated()
@@ -0,0 +1,134 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.AccountDeletionJob;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.AccountDeletionJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Starts account deletions in the background and keeps their status for a day so the
+ * client can poll it. The account is deactivated synchronously; the data goes in chunks.
+ * Jobs are stored with the deactivation and claimed by this instance, which refreshes their
+ * heartbeat while they run. At startup and periodically, unfinished jobs whose heartbeat has
+ * gone stale are claimed with a conditional update and resumed. Only stored jobs are resumed;
+ * a deactivated account on its own is never deleted.
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private static final long RETAIN_FINISHED_HOURS = 24;
+    private static final List<AccountDeletionJob.Status> UNFINISHED =
+            List.of(AccountDeletionJob.Status.QUEUED, AccountDeletionJob.Status.RUNNING);
+
+    private final CascadeDeletionService cascadeDeletionService;
+    private final AccountDeletionJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    // Jobs running in this process, whose per-stage counts only live in memory
+    private final Map<String, AccountDeletionJob> jobs = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // A job whose heartbeat is older than this is taken to have lost its instance
+    @Value("${app.account-deletion.stale-after-seconds:300}")
+    private long staleAfterSeconds;
+
+    public AccountDeletionService(CascadeDeletionService cascadeDeletionService,
+                                  AccountDeletionJobRepository jobRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.cascadeDeletionService = cascadeDeletionService;
+        this.jobRepository = jobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // One request at a time per instance, so the in-progress check and the job insert cannot interleave
+    public AccountDeletionJob requestDeletion(User user) {
+        lock.lock();
+        try {
+            pruneFinished();
+            if (jobRepository.existsByUserIdAndStatusIn(user.getId(), UNFINISHED)) {
+                throw new IllegalStateException("Account deletion is already in progress");
+            }
+            AccountDeletionJob job = new AccountDeletionJob(user.getId());
+            job.setClaimedBy(instanceId);
+            job.setHeartbeatAt(LocalDateTime.now());
+            job = cascadeDeletionService.deactivateAccount(job);
+            start(job);
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<AccountDeletionJob> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).or(() -> jobRepository.findById(jobId));
+    }
+
+    // Jobs left behind by a restart, or by an instance that stopped, are finished here
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.account-deletion.resume-interval-ms:300000}",
+            initialDelayString = "${app.account-deletion.resume-interval-ms:300000}")
+    public void resumeUnfinished() {
+        lock.lock();
+        try {
+            LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+            for (AccountDeletionJob job : jobRepository.findAbandoned(UNFINISHED, staleBefore)) {
+                if (jobs.containsKey(job.getId())) {
+                    continue;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                Integer claimed = transactionTemplate.execute(status ->
+                        jobRepository.claim(job.getId(), instanceId, now, UNFINISHED, staleBefore));
+                if (claimed != null && claimed == 1) {
+                    job.setClaimedBy(instanceId);
+                    job.setHeartbeatAt(now);
+                    log.info("Resuming account deletion {} for user {}", job.getId(), job.getUserId());
+                    start(job);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Keeps this instance's running jobs from looking abandoned to the others
+    @Scheduled(fixedDelayString = "${app.account-deletion.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        List<String> running = jobs.values().stream()
+                .filter(job -> job.getFinishedAt() == null)
+                .map(AccountDeletionJob::getId)
+                .toList();
+        if (!running.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.heartbeat(running, instanceId, LocalDateTime.now()));
+        }
+    }
+
+    private void start(AccountDeletionJob job) {
+        jobs.put(job.getId(), job);
+        cascadeDeletionService.deleteAccountAsync(job);
+    }
+
+    private void pruneFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(RETAIN_FINISHED_HOURS);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+        transactionTemplate.executeWithoutResult(status -> jobRepository.deleteFinishedBefore(cutoff));
+    }
+}
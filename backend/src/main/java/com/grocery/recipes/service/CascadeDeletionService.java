@@ -0,0 +1,186 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.AccountDeletionJob;
+import com.grocery.recipes.repository.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Set-based deletes for recipes, meal plans and whole accounts. Every path issues bulk DELETEs
+ * children-first instead of loading entities and letting JPA cascade row by row. Account
+ * deletion walks each table in chunks of chunkSize ids, one transaction per chunk, so a
+ * large account never holds one long transaction or a huge persistence context.
+ */
+@Service
+@SuppressWarnings("deprecation") // Still deletes the legacy grocery lists of an account
+public class CascadeDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CascadeDeletionService.class);
+
+    private final UserRepository userRepository;
+    private final RecipeRepository recipeRepository;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final MealPlanRepository mealPlanRepository;
+    private final MealPlanItemRepository mealPlanItemRepository;
+    private final MealPlanTemplateRepository mealPlanTemplateRepository;
+    private final MealPlanTemplateSlotRepository mealPlanTemplateSlotRepository;
+    private final GroceryItemRepository groceryItemRepository;
+    private final GroceryItemArchiveRepository groceryItemArchiveRepository;
+    private final GroceryItemTombstoneRepository groceryItemTombstoneRepository;
+    private final GroceryListRepository groceryListRepository;
+    private final GroceryPurchaseRollupRepository groceryPurchaseRollupRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final AccountDeletionJobRepository accountDeletionJobRepository;
+    private final GroceryItemOpsService groceryItemOpsService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.deletion.chunk-size:500}")
+    private int chunkSize;
+
+    public CascadeDeletionService(UserRepository userRepository,
+                                  RecipeRepository recipeRepository,
+                                  RecipeIngredientRepository recipeIngredientRepository,
+                                  MealPlanRepository mealPlanRepository,
+                                  MealPlanItemRepository mealPlanItemRepository,
+                                  MealPlanTemplateRepository mealPlanTemplateRepository,
+                                  MealPlanTemplateSlotRepository mealPlanTemplateSlotRepository,
+                                  GroceryItemRepository groceryItemRepository,
+                                  GroceryItemArchiveRepository groceryItemArchiveRepository,
+                                  GroceryItemTombstoneRepository groceryItemTombstoneRepository,
+                                  GroceryListRepository groceryListRepository,
+                                  GroceryPurchaseRollupRepository groceryPurchaseRollupRepository,
+                                  RefreshTokenRepository refreshTokenRepository,
+                                  AccountDeletionJobRepository accountDeletionJobRepository,
+                                  GroceryItemOpsService groceryItemOpsService,
+                                  PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.recipeRepository = recipeRepository;
+        this.recipeIngredientRepository = recipeIngredientRepository;
+        this.mealPlanRepository = mealPlanRepository;
+        this.mealPlanItemRepository = mealPlanItemRepository;
+        this.mealPlanTemplateRepository = mealPlanTemplateRepository;
+        this.mealPlanTemplateSlotRepository = mealPlanTemplateSlotRepository;
+        this.groceryItemRepository = groceryItemRepository;
+        this.groceryItemArchiveRepository = groceryItemArchiveRepository;
+        this.groceryItemTombstoneRepository = groceryItemTombstoneRepository;
+        this.groceryListRepository = groceryListRepository;
+        this.groceryPurchaseRollupRepository = groceryPurchaseRollupRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accountDeletionJobRepository = accountDeletionJobRepository;
+        this.groceryItemOpsService = groceryItemOpsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Recipes plus everything that points at them: meal plan items, template slots and ingredient lines
+    @Transactional
+    public int deleteRecipes(Collection<Long> recipeIds) {
+        if (recipeIds.isEmpty()) return 0;
+        mealPlanItemRepository.deleteByRecipeIds(recipeIds);
+        mealPlanTemplateSlotRepository.deleteByRecipeIds(recipeIds);
+        recipeIngredientRepository.deleteByRecipeIds(recipeIds);
+        return recipeRepository.deleteAllByIdIn(recipeIds);
+    }
+
+    // Meal plans plus their items, templates and legacy grocery lists
+    @Transactional
+    public int deleteMealPlans(Collection<Long> mealPlanIds) {
+        if (mealPlanIds.isEmpty()) return 0;
+        groceryListRepository.deleteEntriesByMealPlanIds(mealPlanIds);
+        groceryListRepository.deleteByMealPlanIds(mealPlanIds);
+        mealPlanTemplateSlotRepository.deleteByMealPlanIds(mealPlanIds);
+        mealPlanTemplateRepository.deleteByMealPlanIds(mealPlanIds);
+        mealPlanItemRepository.deleteByMealPlanIds(mealPlanIds);
+        return mealPlanRepository.deleteAllByIdIn(mealPlanIds);
+    }
+
+    @Transactional
+    public int deleteGroceryItems(Collection<Long> groceryItemIds) {
+        if (groceryItemIds.isEmpty()) return 0;
+        return groceryItemRepository.deleteAllByIdIn(groceryItemIds);
+    }
+
+    // Cuts the account off before the long-running delete: no new logins, no refreshes. The job row
+    // commits with the deactivation, so no account is left deactivated without a job to finish it
+    @Transactional
+    public AccountDeletionJob deactivateAccount(AccountDeletionJob job) {
+        userRepository.deactivate(job.getUserId());
+        refreshTokenRepository.deleteByUserId(job.getUserId());
+        accountDeletionJobRepository.save(job);
+        return job;
+    }
+
+    @Async("applicationTaskExecutor")
+    public void deleteAccountAsync(AccountDeletionJob job) {
+        job.setStatus(AccountDeletionJob.Status.RUNNING);
+        recordStatus(job);
+        try {
+            deleteAccount(job);
+            job.setStatus(AccountDeletionJob.Status.COMPLETED);
+        } catch (RuntimeException e) {
+            log.error("Account deletion {} failed", job.getId(), e);
+            job.setError(e.getMessage());
+            job.setStatus(AccountDeletionJob.Status.FAILED);
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            recordStatus(job);
+        }
+    }
+
+    private void recordStatus(AccountDeletionJob job) {
+        transactionTemplate.executeWithoutResult(status -> accountDeletionJobRepository.updateStatus(
+                job.getId(), job.getStatus(), job.getFinishedAt(), job.getError()));
+    }
+
+    // Plans before recipes (items reference both), then the leaves, then the user row itself
+    public void deleteAccount(AccountDeletionJob job) {
+        Long userId = job.getUserId();
+        job.getDeleted().put("mealPlans",
+                deleteInChunks(() -> mealPlanRepository.findIdsByUserId(userId, firstChunk()), this::deleteMealPlans));
+        job.getDeleted().put("recipes",
+                deleteInChunks(() -> recipeRepository.findIdsByUserId(userId, firstChunk()), this::deleteRecipes));
+        job.getDeleted().put("groceryItems",
+                deleteInChunks(() -> groceryItemRepository.findIdsByUserId(userId, firstChunk()), this::deleteGroceryItems));
+        job.getDeleted().put("archivedGroceryItems",
+                deleteInChunks(() -> groceryItemArchiveRepository.findIdsByUserId(userId, firstChunk()),
+                        groceryItemArchiveRepository::deleteAllByIdIn));
+        transactionTemplate.executeWithoutResult(status -> {
+            groceryPurchaseRollupRepository.deleteByUserIds(List.of(userId));
+            groceryItemTombstoneRepository.deleteByUserIds(List.of(userId));
+            groceryItemOpsService.deleteRecordedOps(userId);
+            refreshTokenRepository.deleteByUserId(userId);
+            userRepository.deleteUserById(userId);
+        });
+        log.info("Deleted account {}: {}", userId, job.getDeleted());
+    }
+
+    private long deleteInChunks(Supplier<List<Long>> nextChunk, Function<List<Long>, Integer> delete) {
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = nextChunk.get();
+                return ids.isEmpty() ? null : delete.apply(ids);
+            });
+            if (deleted == null) {
+                return total;
+            }
+            total += deleted;
+        }
+    }
+
+    private PageRequest firstChunk() {
+        return PageRequest.of(0, chunkSize);
+    }
+}
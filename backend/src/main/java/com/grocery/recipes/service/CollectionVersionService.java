@@ -0,0 +1,77 @@
+package com.grocery.recipes.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Change counters behind the ETags of the list endpoints: one per user and collection, plus a
+ * global one for the ingredient catalogue that every recipe embeds. Write services bump them
+ * inside their own transaction, so a counter commits together with the change it describes;
+ * list endpoints compare the resulting ETag with If-None-Match before loading anything.
+ * The counters are unmapped columns written with plain JDBC, so saving a User entity can never
+ * put back a stale value, and the update also serializes concurrent writes of the same user.
+ */
+@Service
+public class CollectionVersionService {
+
+    public enum UserCollection {
+        RECIPES("recipes_version"),
+        MEAL_PLANS("meal_plans_version"),
+        GROCERY_ITEMS("grocery_items_version");
+
+        private final String column;
+
+        UserCollection(String column) {
+            this.column = column;
+        }
+    }
+
+    private static final String INGREDIENTS = "ingredients";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CollectionVersionService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void bump(Long userId, UserCollection collection) {
+        jdbcTemplate.update("UPDATE users SET " + collection.column + " = " + collection.column + " + 1 WHERE id = ?",
+                userId);
+    }
+
+    // Bumps and returns the new value. The UPDATE holds the user row until commit, so a user's writes
+    // get their numbers in commit order and a reader never sees a higher number before the lower one
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(Long userId, UserCollection collection) {
+        bump(userId, collection);
+        Long version = jdbcTemplate.queryForObject("SELECT " + collection.column + " FROM users WHERE id = ?",
+                Long.class, userId);
+        return version == null ? 0 : version;
+    }
+
+    @Transactional
+    public void bumpIngredients() {
+        jdbcTemplate.update("UPDATE content_version SET version = version + 1 WHERE name = ?", INGREDIENTS);
+    }
+
+    // The user id is part of the tag, so a browser shared between accounts never revalidates another user's list
+    @Transactional(readOnly = true)
+    public String etag(Long userId, UserCollection collection) {
+        List<String> tags = jdbcTemplate.query(
+                "SELECT u.recipes_version, u.meal_plans_version, u.grocery_items_version, c.version " +
+                        "FROM users u CROSS JOIN content_version c WHERE u.id = ? AND c.name = ?",
+                (rs, rowNum) -> switch (collection) {
+                    // Recipes embed ingredients; meal plans embed recipes with their ingredients
+                    case RECIPES -> userId + "-r" + rs.getLong(1) + "-i" + rs.getLong(4);
+                    case MEAL_PLANS -> userId + "-m" + rs.getLong(2) + "-r" + rs.getLong(1) + "-i" + rs.getLong(4);
+                    case GROCERY_ITEMS -> userId + "-g" + rs.getLong(3);
+                },
+                userId, INGREDIENTS);
+        return tags.isEmpty() ? null : "\"" + tags.get(0) + "\"";
+    }
+}
@@ -0,0 +1,104 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import com.grocery.recipes.repository.IngredientRepository;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Home page counts for one user, computed with COUNT queries and cached per user for a few
+ * seconds. Services that change recipes, meal plans or grocery items evict the user's entry
+ * after commit, so the TTL only bounds staleness of the global ingredient count.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final int MAX_CACHED_USERS = 10_000;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final RecipeRepository recipeRepository;
+    private final MealPlanRepository mealPlanRepository;
+    private final GroceryItemRepository groceryItemRepository;
+    private final IngredientRepository ingredientRepository;
+    private final Map<Long, CachedSummary> cache = new ConcurrentHashMap<>();
+
+    @Value("${app.dashboard.cache-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    public DashboardStatsService(RecipeRepository recipeRepository,
+                                 MealPlanRepository mealPlanRepository,
+                                 GroceryItemRepository groceryItemRepository,
+                                 IngredientRepository ingredientRepository) {
+        this.recipeRepository = recipeRepository;
+        this.mealPlanRepository = mealPlanRepository;
+        this.groceryItemRepository = groceryItemRepository;
+        this.ingredientRepository = ingredientRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSummary(Long userId) {
+        long now = System.nanoTime();
+        CachedSummary cached = cache.get(userId);
+        if (cached != null && now - cached.loadedAt < ttlSeconds * 1_000_000_000L) {
+            return cached.summary;
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalRecipes", recipeRepository.countByUserId(userId));
+        summary.put("totalMealPlans", mealPlanRepository.countByUserId(userId));
+        summary.put("totalIngredients", ingredientRepository.count());
+        summary.put("activeGroceryItems", groceryItemRepository.countByUserIdAndPurchasedFalse(userId));
+        summary.put("purchasedThisWeek",
+                groceryItemRepository.countByUserIdAndPurchasedTrueAndDatePurchasedIn(userId, currentWeekDates()));
+        summary = Collections.unmodifiableMap(summary);
+
+        if (cache.size() >= MAX_CACHED_USERS) {
+            cache.clear();
+        }
+        cache.put(userId, new CachedSummary(summary, now));
+        return summary;
+    }
+
+    public void evictAfterCommit(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        Long userId = user.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(userId);
+                }
+            });
+        } else {
+            cache.remove(userId);
+        }
+    }
+
+    // datePurchased is stored as dd-MM-yyyy text, so the week is matched as its seven date strings
+    private List<String> currentWeekDates() {
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        List<String> dates = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            dates.add(monday.plusDays(i).format(DATE_FORMAT));
+        }
+        return dates;
+    }
+
+    private record CachedSummary(Map<String, Object> summary, long loadedAt) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.repository.GroceryItemArchiveRepository;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves purchased grocery items older than afterDays from grocery_item into grocery_item_archive,
+ * so the hot table only holds the active list plus recent history. Each chunk is copied with one
+ * INSERT ... SELECT and removed with one DELETE in its own transaction; the selected rows are locked
+ * and both statements recheck the purchase condition, so an item unmarked meanwhile is left alone.
+ * Purchase rollups are not touched: archived purchases still count, and PurchaseStatsService.rebuild
+ * reads both tables.
+ */
+@Service
+public class GroceryItemArchivalService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryItemArchivalService.class);
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final GroceryItemArchiveRepository groceryItemArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.groceryitems.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${app.groceryitems.archive.chunk-size:500}")
+    private int chunkSize;
+
+    public GroceryItemArchivalService(GroceryItemRepository groceryItemRepository,
+                                      GroceryItemArchiveRepository groceryItemArchiveRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.groceryItemRepository = groceryItemRepository;
+        this.groceryItemArchiveRepository = groceryItemArchiveRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.groceryitems.archive.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        if (!running.get()) {
+            run();
+        }
+    }
+
+    public Report run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Grocery item archival is already running");
+        }
+        try {
+            LocalDate cutoff = LocalDate.now().minusDays(afterDays);
+            long archived = 0;
+            int chunks = 0;
+            while (true) {
+                Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                if (moved == null || moved == 0) break;
+                archived += moved;
+                chunks++;
+            }
+            log.info("Archived {} purchased grocery items older than {} in {} chunks", archived, cutoff, chunks);
+            return new Report(cutoff, archived, chunks);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveChunk(LocalDate cutoff) {
+        List<Long> ids = groceryItemRepository.findArchivableIds(cutoff, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // The ids are locked, but an item unmarked before the lock was taken must still stay active
+        groceryItemArchiveRepository.copyFromGroceryItems(ids, cutoff);
+        return groceryItemRepository.deleteArchivable(ids, cutoff);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Report {
+        private LocalDate cutoff;
+        private long archived;
+        private int chunks;
+    }
+}
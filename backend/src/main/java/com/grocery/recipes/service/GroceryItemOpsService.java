@@ -0,0 +1,334 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.dto.GroceryItemOp;
+import com.grocery.recipes.dto.GroceryItemOpResult;
+import com.grocery.recipes.dto.GroceryItemOpResult.Status;
+import com.grocery.recipes.model.GroceryItem;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Applies a batch of grocery operations queued by an offline client, in order and in one
+ * transaction, so a reconnect is one request instead of one per change. The batch takes one
+ * change sequence, and each op id is recorded in grocery_item_op with its outcome: a retried
+ * batch (or a retried op in a later batch) gets the recorded result back instead of being
+ * applied twice. Taking the change sequence first locks the user row, so two copies of the same
+ * batch run one after the other and the second sees the first's op ids.
+ * SQL is batched: one query for recorded op ids, one for the targeted items, one for the active
+ * list when there are adds, and the item updates and deletes are flushed as JDBC batches. New
+ * items still insert one by one, since their ids come from an identity column.
+ */
+@Service
+public class GroceryItemOpsService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryItemOpsService.class);
+    private static final int MAX_OP_ID_LENGTH = 64;
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final CollectionVersionService collectionVersionService;
+    private final PurchaseStatsService purchaseStatsService;
+    private final DashboardStatsService dashboardStatsService;
+    private final GroceryItemStreamService groceryItemStreamService;
+    private final JdbcTemplate jdbcTemplate;
+    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.groceryitems.ops.max-batch:500}")
+    private int maxBatch;
+
+    @Value("${app.groceryitems.ops.jdbc-batch-size:50}")
+    private int jdbcBatchSize;
+
+    @Value("${app.groceryitems.ops.retention-days:14}")
+    private int retentionDays;
+
+    public GroceryItemOpsService(GroceryItemRepository groceryItemRepository,
+                                 CollectionVersionService collectionVersionService,
+                                 PurchaseStatsService purchaseStatsService,
+                                 DashboardStatsService dashboardStatsService,
+                                 GroceryItemStreamService groceryItemStreamService,
+                                 JdbcTemplate jdbcTemplate) {
+        this.groceryItemRepository = groceryItemRepository;
+        this.collectionVersionService = collectionVersionService;
+        this.purchaseStatsService = purchaseStatsService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.groceryItemStreamService = groceryItemStreamService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Throws IllegalArgumentException for a malformed batch; problems with single ops are reported per op
+    @Transactional
+    public List<GroceryItemOpResult> apply(List<GroceryItemOp> ops, User user) {
+        validate(ops);
+        if (ops.isEmpty()) {
+            return List.of();
+        }
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        long changeSeq = collectionVersionService.next(user.getId(), UserCollection.GROCERY_ITEMS);
+
+        // Earlier outcomes of these op ids, and of the adds that refs point to
+        Set<String> opIds = new LinkedHashSet<>();
+        for (GroceryItemOp op : ops) {
+            opIds.add(op.getOpId());
+            if (op.getRef() != null) opIds.add(op.getRef());
+        }
+        Map<String, Recorded> recorded = findRecorded(user.getId(), opIds);
+
+        Set<Long> targetIds = new LinkedHashSet<>();
+        boolean adds = false;
+        for (GroceryItemOp op : ops) {
+            if (recorded.containsKey(op.getOpId())) continue;
+            if ("add".equals(op.getType())) adds = true;
+            if (op.getItemId() != null) targetIds.add(op.getItemId());
+            Recorded ref = op.getRef() == null ? null : recorded.get(op.getRef());
+            if (ref != null && ref.itemId != null) targetIds.add(ref.itemId);
+        }
+        Map<Long, GroceryItem> items = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            for (GroceryItem item : groceryItemRepository.findByIdInAndUser(new ArrayList<>(targetIds), user)) {
+                items.put(item.getId(), item);
+            }
+        }
+        // Taken out of the purchase rollups as loaded, put back as they end up
+        purchaseStatsService.record(user, items.values(), -1);
+        List<GroceryItem> active = adds
+                ? new ArrayList<>(groceryItemRepository.findByUserAndPurchasedFalseOrderByDateAddedDesc(user))
+                : new ArrayList<>();
+
+        Map<String, GroceryItem> addedByOpId = new HashMap<>();
+        Map<Long, GroceryItem> changed = new LinkedHashMap<>();
+        List<GroceryItem> deleted = new ArrayList<>();
+        List<GroceryItemOpResult> results = new ArrayList<>(ops.size());
+        for (GroceryItemOp op : ops) {
+            Recorded previous = recorded.get(op.getOpId());
+            if (previous != null) {
+                results.add(new GroceryItemOpResult(op.getOpId(), previous.status, true, previous.itemId, null));
+                continue;
+            }
+            GroceryItemOpResult result = applyOne(op, user, changeSeq, items, active, addedByOpId, recorded, deleted);
+            if (result.getStatus() == Status.APPLIED && result.getItem() != null) {
+                changed.put(result.getItemId(), result.getItem());
+            }
+            results.add(result);
+        }
+
+        for (GroceryItem item : deleted) {
+            changed.remove(item.getId());
+        }
+        groceryItemRepository.deleteAll(deleted);
+        recordTombstones(user.getId(), changeSeq, deleted);
+        recordOps(user.getId(), results);
+        // Loaded items left untouched by invalid ops go back unchanged; deletes have left the map
+        Map<Long, GroceryItem> remaining = new LinkedHashMap<>(items);
+        remaining.putAll(changed);
+        purchaseStatsService.record(user, remaining.values(), 1);
+        dashboardStatsService.evictAfterCommit(user);
+        publish(user.getId(), changeSeq, changed.values(), deleted);
+        return results;
+    }
+
+    // Recorded op ids outlive any client retry by far; they only need to cover an offline spell
+    @Scheduled(cron = "${app.groceryitems.ops.prune-cron:0 45 4 * * *}")
+    public void pruneRecordedOps() {
+        int pruned = jdbcTemplate.update("DELETE FROM grocery_item_op WHERE applied_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays)));
+        log.info("Pruned {} recorded grocery item ops older than {} days", pruned, retentionDays);
+    }
+
+    @Transactional
+    public void deleteRecordedOps(Long userId) {
+        jdbcTemplate.update("DELETE FROM grocery_item_op WHERE user_id = ?", userId);
+    }
+
+    private GroceryItemOpResult applyOne(GroceryItemOp op, User user, long changeSeq, Map<Long, GroceryItem> items,
+                                         List<GroceryItem> active, Map<String, GroceryItem> addedByOpId,
+                                         Map<String, Recorded> recorded, List<GroceryItem> deleted) {
+        String type = op.getType() == null ? "" : op.getType();
+        if (type.equals("add")) {
+            return add(op, user, changeSeq, active, addedByOpId);
+        }
+        if (!List.of("update", "delete", "mark", "unmark").contains(type)
+                || (op.getItemId() == null) == (op.getRef() == null)
+                || (type.equals("update") && !hasName(op.getItem()))) {
+            return new GroceryItemOpResult(op.getOpId(), Status.INVALID, false, null, null);
+        }
+        GroceryItem target = target(op, items, addedByOpId, recorded);
+        if (target == null) {
+            return new GroceryItemOpResult(op.getOpId(), Status.NOT_FOUND, false, op.getItemId(), null);
+        }
+        target.setChangeSeq(changeSeq);
+        switch (type) {
+            case "update" -> {
+                GroceryItem fields = op.getItem();
+                target.setItemName(fields.getItemName());
+                target.setQuantity(fields.getQuantity());
+                target.setUnit(fields.getUnit());
+                target.setNote(fields.getNote());
+                target.setDateAdded(fields.getDateAdded());
+            }
+            case "delete" -> {
+                items.remove(target.getId());
+                addedByOpId.values().remove(target);
+                active.remove(target);
+                deleted.add(target);
+                return new GroceryItemOpResult(op.getOpId(), Status.APPLIED, false, target.getId(), null);
+            }
+            case "mark" -> {
+                LocalDate today = LocalDate.now();
+                target.setPurchased(true);
+                target.setDatePurchased(today.format(dateFormatter));
+                target.setPurchasedOn(today);
+                active.remove(target);
+            }
+            default -> {
+                target.setPurchased(false);
+                target.setDatePurchased(null);
+                target.setPurchasedOn(null);
+                if (!active.contains(target)) active.add(target);
+            }
+        }
+        return new GroceryItemOpResult(op.getOpId(), Status.APPLIED, false, target.getId(), target);
+    }
+
+    // Same merge-by-quantity as POST /api/groceryitems, against the active list as the batch has left it
+    private GroceryItemOpResult add(GroceryItemOp op, User user, long changeSeq, List<GroceryItem> active,
+                                    Map<String, GroceryItem> addedByOpId) {
+        GroceryItem fields = op.getItem();
+        if (!hasName(fields) || op.getItemId() != null || op.getRef() != null) {
+            return new GroceryItemOpResult(op.getOpId(), Status.INVALID, false, null, null);
+        }
+        GroceryItem newItem = new GroceryItem();
+        newItem.setItemName(fields.getItemName());
+        newItem.setQuantity(fields.getQuantity());
+        newItem.setUnit(fields.getUnit());
+        newItem.setNote(fields.getNote());
+        newItem.setDateAdded(fields.getDateAdded() == null || fields.getDateAdded().isEmpty()
+                ? LocalDate.now().format(dateFormatter) : fields.getDateAdded());
+        newItem.setUser(user);
+        GroceryItem existing = active.stream()
+                .filter(c -> GroceryItemServiceImpl.isMergeable(c, newItem)).findFirst().orElse(null);
+        GroceryItem result;
+        if (existing == null) {
+            newItem.setChangeSeq(changeSeq);
+            result = groceryItemRepository.save(newItem);
+            active.add(result);
+        } else {
+            existing.setQuantity(existing.getQuantity() + newItem.getQuantity());
+            existing.setChangeSeq(changeSeq);
+            result = existing;
+        }
+        addedByOpId.put(op.getOpId(), result);
+        return new GroceryItemOpResult(op.getOpId(), Status.APPLIED, false, result.getId(), result);
+    }
+
+    private GroceryItem target(GroceryItemOp op, Map<Long, GroceryItem> items, Map<String, GroceryItem> addedByOpId,
+                               Map<String, Recorded> recorded) {
+        if (op.getItemId() != null) {
+            return items.get(op.getItemId());
+        }
+        GroceryItem added = addedByOpId.get(op.getRef());
+        if (added != null) {
+            return added;
+        }
+        Recorded ref = recorded.get(op.getRef());
+        return ref == null || ref.itemId == null ? null : items.get(ref.itemId);
+    }
+
+    private void validate(List<GroceryItemOp> ops) {
+        if (ops == null) {
+            throw new IllegalArgumentException("ops are required");
+        }
+        if (ops.size() > maxBatch) {
+            throw new IllegalArgumentException("At most " + maxBatch + " ops per request");
+        }
+        Set<String> seen = new HashSet<>();
+        for (GroceryItemOp op : ops) {
+            if (op == null || op.getOpId() == null || op.getOpId().isBlank() || op.getOpId().length() > MAX_OP_ID_LENGTH) {
+                throw new IllegalArgumentException("Every op needs an opId of at most " + MAX_OP_ID_LENGTH + " characters");
+            }
+            if (!seen.add(op.getOpId())) {
+                throw new IllegalArgumentException("Duplicate opId " + op.getOpId());
+            }
+        }
+    }
+
+    private static boolean hasName(GroceryItem item) {
+        return item != null && item.getItemName() != null && !item.getItemName().isBlank();
+    }
+
+    private Map<String, Recorded> findRecorded(Long userId, Set<String> opIds) {
+        Map<String, Recorded> recorded = new HashMap<>();
+        String placeholders = String.join(",", Collections.nCopies(opIds.size(), "?"));
+        List<Object> args = new ArrayList<>(opIds.size() + 1);
+        args.add(userId);
+        args.addAll(opIds);
+        jdbcTemplate.query("SELECT op_id, status, item_id FROM grocery_item_op WHERE user_id = ? AND op_id IN ("
+                        + placeholders + ")",
+                rs -> {
+                    long itemId = rs.getLong(3);
+                    recorded.put(rs.getString(1), new Recorded(Status.valueOf(rs.getString(2)), rs.wasNull() ? null : itemId));
+                }, args.toArray());
+        return recorded;
+    }
+
+    private void recordOps(Long userId, List<GroceryItemOpResult> results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (GroceryItemOpResult result : results) {
+            if (!result.isDuplicate()) {
+                rows.add(new Object[]{userId, result.getOpId(), result.getStatus().name(), result.getItemId(), now});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO grocery_item_op (user_id, op_id, status, item_id, applied_at) "
+                    + "VALUES (?, ?, ?, ?, ?)", rows);
+        }
+    }
+
+    // The delta sync's tombstones (see GroceryItemSyncService), inserted as one batch
+    private void recordTombstones(Long userId, long changeSeq, List<GroceryItem> deleted) {
+        if (deleted.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(deleted.size());
+        for (GroceryItem item : deleted) {
+            rows.add(new Object[]{userId, item.getId(), changeSeq, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO grocery_item_tombstone (user_id, item_id, change_seq, deleted_at) "
+                + "VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private void publish(Long userId, long changeSeq, Collection<GroceryItem> changed, List<GroceryItem> deleted) {
+        if (!changed.isEmpty()) {
+            groceryItemStreamService.publishAfterCommit(userId, "changed", changeSeq,
+                    changed.stream().map(GroceryItem::getId).toList());
+        }
+        if (!deleted.isEmpty()) {
+            groceryItemStreamService.publishAfterCommit(userId, "deleted", changeSeq,
+                    deleted.stream().map(GroceryItem::getId).toList());
+        }
+    }
+
+    private record Recorded(Status status, Long itemId) {
+    }
+}
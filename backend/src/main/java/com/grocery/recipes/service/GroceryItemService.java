@@ -13,6 +13,7 @@ public interface GroceryItemService {
 
     List<GroceryItem> findAllPurchased();
     List<GroceryItem> findAllPurchasedByUser(User user);
+    List<GroceryItem> findPurchasedPageByUser(User user, int page, int size, boolean includeArchived);
 
     Optional<GroceryItem> findById(Long id);
 
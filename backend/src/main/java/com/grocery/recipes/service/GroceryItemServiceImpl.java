@@ -2,6 +2,11 @@ package com.grocery.recipes.service;
 
 import com.grocery.recipes.model.*;
 import com.grocery.recipes.repository.*;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,17 +19,41 @@ import java.util.stream.Collectors;
 public class GroceryItemServiceImpl implements GroceryItemService {
 
     private final GroceryItemRepository groceryItemRepository;
+    private final GroceryItemArchiveRepository groceryItemArchiveRepository;
+    private final GroceryItemTombstoneRepository groceryItemTombstoneRepository;
     private final RecipeRepository recipeRepository;
     private final MealPlanRepository mealPlanRepository;
+    private final MealPlanTemplateService mealPlanTemplateService;
+    private final DashboardStatsService dashboardStatsService;
+    private final PurchaseStatsService purchaseStatsService;
+    private final CollectionVersionService collectionVersionService;
+    private final GroceryItemStreamService groceryItemStreamService;
+    private final MeterRegistry meterRegistry;
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
 
     public GroceryItemServiceImpl(GroceryItemRepository groceryItemRepository,
+                                  GroceryItemArchiveRepository groceryItemArchiveRepository,
+                                  GroceryItemTombstoneRepository groceryItemTombstoneRepository,
                                   RecipeRepository recipeRepository,
-                                  MealPlanRepository mealPlanRepository) {
+                                  MealPlanRepository mealPlanRepository,
+                                  MealPlanTemplateService mealPlanTemplateService,
+                                  DashboardStatsService dashboardStatsService,
+                                  PurchaseStatsService purchaseStatsService,
+                                  CollectionVersionService collectionVersionService,
+                                  GroceryItemStreamService groceryItemStreamService,
+                                  MeterRegistry meterRegistry) {
         this.groceryItemRepository = groceryItemRepository;
+        this.groceryItemArchiveRepository = groceryItemArchiveRepository;
+        this.groceryItemTombstoneRepository = groceryItemTombstoneRepository;
         this.recipeRepository = recipeRepository;
         this.mealPlanRepository = mealPlanRepository;
+        this.mealPlanTemplateService = mealPlanTemplateService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.purchaseStatsService = purchaseStatsService;
+        this.collectionVersionService = collectionVersionService;
+        this.groceryItemStreamService = groceryItemStreamService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -37,6 +66,7 @@ public class GroceryItemServiceImpl implements GroceryItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GroceryItem> findAllActiveByUser(User user) {
         return groceryItemRepository.findByUserAndPurchasedFalseOrderByDateAddedDesc(user);
     }
@@ -51,10 +81,29 @@ public class GroceryItemServiceImpl implements GroceryItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<GroceryItem> findAllPurchasedByUser(User user) {
         return groceryItemRepository.findByUserAndPurchasedTrueOrderByDatePurchasedDesc(user);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<GroceryItem> findPurchasedPageByUser(User user, int page, int size, boolean includeArchived) {
+        long offset = (long) page * size;
+        List<GroceryItem> result = new ArrayList<>(
+                groceryItemRepository.findPurchasedPageByUser(user, PageRequest.of(page, size)));
+        if (!includeArchived || result.size() == size) {
+            return result;
+        }
+        // Archived purchases are all older than the live ones, so they continue the same newest-first order
+        long archiveOffset = Math.max(0, offset - groceryItemRepository.countByUserAndPurchasedTrue(user));
+        for (GroceryItemArchive archived : groceryItemArchiveRepository.findPageByUserId(
+                user.getId(), archiveOffset, size - result.size())) {
+            result.add(fromArchive(archived));
+        }
+        return result;
+    }
+
     @Override
     public Optional<GroceryItem> findById(Long id) {
         return groceryItemRepository.findById(id);
@@ -69,18 +118,24 @@ public class GroceryItemServiceImpl implements GroceryItemService {
     @Override
     @Transactional
     public GroceryItem updateItem(GroceryItem item) {
-        Optional<GroceryItem> dbItemOpt = groceryItemRepository.findById(item.getId());
-        if (dbItemOpt.isEmpty()) {
-            throw new NoSuchElementException("Item not found with id " + item.getId());
-        }
-
-        GroceryItem dbItem = dbItemOpt.get();
+        // Scoped to the owner the caller set, so another user's id reads as missing
+        GroceryItem dbItem = groceryItemRepository.findByIdInAndUser(List.of(item.getId()), item.getUser()).stream()
+                .findFirst()
+                .orElseThrow(() -> new NoSuchElementException("Item not found with id " + item.getId()));
+        long changeSeq = nextChangeSeq(dbItem.getUser());
+        // Editing a purchased item moves its purchase to the new name/unit bucket
+        List<GroceryItem> purchased = dbItem.isPurchased() ? List.of(dbItem) : List.of();
+        purchaseStatsService.record(dbItem.getUser(), purchased, -1);
+        dbItem.setChangeSeq(changeSeq);
         dbItem.setItemName(item.getItemName());
         dbItem.setQuantity(item.getQuantity());
         dbItem.setUnit(item.getUnit());
         dbItem.setNote(item.getNote());
         dbItem.setDateAdded(item.getDateAdded());
-        return groceryItemRepository.save(dbItem);
+        GroceryItem saved = groceryItemRepository.save(dbItem);
+        purchaseStatsService.record(dbItem.getUser(), purchased, 1);
+        publishAfterCommit(dbItem.getUser(), "changed", changeSeq, List.of(saved));
+        return saved;
     }
 
     @Override
@@ -92,17 +147,27 @@ public class GroceryItemServiceImpl implements GroceryItemService {
     @Override
     @Transactional
     public void deleteItemByIdAndUser(Long id, User user) {
+        long changeSeq = nextChangeSeq(user);
+        List<GroceryItem> deleted = groceryItemRepository.findByIdInAndUser(List.of(id), user);
+        purchaseStatsService.record(user, deleted, -1);
         groceryItemRepository.deleteByIdAndUser(id, user);
+        for (GroceryItem item : deleted) {
+            groceryItemTombstoneRepository.save(new GroceryItemTombstone(user.getId(), item.getId(), changeSeq));
+        }
+        publishAfterCommit(user, "deleted", changeSeq, deleted);
+        dashboardStatsService.evictAfterCommit(user);
     }
 
     @Override
     @Transactional
     public void markItemsPurchased(List<Long> itemIds) {
         List<GroceryItem> items = groceryItemRepository.findAllById(itemIds);
-        String nowStr = LocalDate.now().format(dateFormatter);
+        LocalDate today = LocalDate.now();
+        String nowStr = today.format(dateFormatter);
         for (GroceryItem item : items) {
             item.setPurchased(true);
             item.setDatePurchased(nowStr);
+            item.setPurchasedOn(today);
         }
         groceryItemRepository.saveAll(items);
     }
@@ -110,13 +175,22 @@ public class GroceryItemServiceImpl implements GroceryItemService {
     @Override
     @Transactional
     public void markItemsPurchasedByUser(List<Long> itemIds, User user) {
+        long changeSeq = nextChangeSeq(user);
         List<GroceryItem> items = groceryItemRepository.findByIdInAndUser(itemIds, user);
-        String nowStr = LocalDate.now().format(dateFormatter);
+        // Re-marking an item moves its purchase to today
+        purchaseStatsService.record(user, items, -1);
+        LocalDate today = LocalDate.now();
+        String nowStr = today.format(dateFormatter);
         for (GroceryItem item : items) {
+            item.setChangeSeq(changeSeq);
             item.setPurchased(true);
             item.setDatePurchased(nowStr);
+            item.setPurchasedOn(today);
         }
         groceryItemRepository.saveAll(items);
+        purchaseStatsService.record(user, items, 1);
+        publishAfterCommit(user, "changed", changeSeq, items);
+        dashboardStatsService.evictAfterCommit(user);
     }
 
     @Override
@@ -126,6 +200,7 @@ public class GroceryItemServiceImpl implements GroceryItemService {
         for (GroceryItem item : items) {
             item.setPurchased(false);
             item.setDatePurchased(null);
+            item.setPurchasedOn(null);
         }
         groceryItemRepository.saveAll(items);
     }
@@ -133,17 +208,26 @@ public class GroceryItemServiceImpl implements GroceryItemService {
     @Override
     @Transactional
     public void markItemsUnpurchasedByUser(List<Long> itemIds, User user) {
+        long changeSeq = nextChangeSeq(user);
         List<GroceryItem> items = groceryItemRepository.findByIdInAndUser(itemIds, user);
+        purchaseStatsService.record(user, items, -1);
         for (GroceryItem item : items) {
+            item.setChangeSeq(changeSeq);
             item.setPurchased(false);
             item.setDatePurchased(null);
+            item.setPurchasedOn(null);
         }
         groceryItemRepository.saveAll(items);
+        publishAfterCommit(user, "changed", changeSeq, items);
+        dashboardStatsService.evictAfterCommit(user);
     }
 
     @Override
     @Transactional
     public GroceryItem mergeOrAddItem(GroceryItem newItem) {
+        // Also called once per item by the generate methods, so timed here rather than with @Timed
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long changeSeq = nextChangeSeq(newItem.getUser());
         // Normalize name and note for matching
         String newName = newItem.getItemName().trim().toLowerCase();
         String newNote = newItem.getNote() != null ? newItem.getNote().trim().toLowerCase() : null;
@@ -153,23 +237,33 @@ public class GroceryItemServiceImpl implements GroceryItemService {
         List<GroceryItem> candidates = groceryItemRepository.findMergableActiveByUser(
                 newItem.getItemName(), newItem.getUnit(), newItem.getNote(), newItem.getUser());
 
+        dashboardStatsService.evictAfterCommit(newItem.getUser());
         if (candidates.isEmpty()) {
             // New item
             if (newItem.getDateAdded() == null || newItem.getDateAdded().isEmpty()) {
                 newItem.setDateAdded(LocalDate.now().format(dateFormatter));
             }
             newItem.setPurchased(false);
-            return groceryItemRepository.save(newItem);
+            newItem.setChangeSeq(changeSeq);
+            GroceryItem saved = groceryItemRepository.save(newItem);
+            publishAfterCommit(newItem.getUser(), "changed", changeSeq, List.of(saved));
+            sample.stop(meterRegistry.timer("grocery.items.merge", "result", "added"));
+            return saved;
         } else {
             // Merge quantities
             GroceryItem existing = candidates.get(0);
             existing.setQuantity(existing.getQuantity() + newItem.getQuantity());
-            return groceryItemRepository.save(existing);
+            existing.setChangeSeq(changeSeq);
+            GroceryItem saved = groceryItemRepository.save(existing);
+            publishAfterCommit(newItem.getUser(), "changed", changeSeq, List.of(saved));
+            sample.stop(meterRegistry.timer("grocery.items.merge", "result", "merged"));
+            return saved;
         }
     }
 
     @Override
     @Transactional
+    @Timed(value = "grocery.items.generate", extraTags = {"source", "recipes"})
     public List<GroceryItem> generateFromRecipes(List<Long> recipeIds, String date) {
         Map<String, GroceryItem> merged = new LinkedHashMap<>();
         for (Long recipeId : recipeIds) {
@@ -206,43 +300,27 @@ public class GroceryItemServiceImpl implements GroceryItemService {
 
     @Override
     @Transactional
+    @Timed(value = "grocery.items.generate", extraTags = {"source", "recipes"})
     public List<GroceryItem> generateFromRecipesByUser(List<Long> recipeIds, String date, User user) {
+        // All recipes with their ingredient lines in one query instead of one lookup per id
+        Map<Long, Recipe> recipes = new HashMap<>();
+        for (Recipe recipe : recipeRepository.findByIdInAndUser(recipeIds, user)) {
+            recipes.put(recipe.getId(), recipe);
+        }
         Map<String, GroceryItem> merged = new LinkedHashMap<>();
         for (Long recipeId : recipeIds) {
-            Recipe recipe = recipeRepository.findByIdAndUser(recipeId, user)
-                    .orElseThrow(() -> new NoSuchElementException("Recipe not found or doesn't belong to user: " + recipeId));
-            for (RecipeIngredient ri : recipe.getIngredients()) {
-                if (ri.getIngredient() == null) continue;
-                String key = ri.getIngredient().getName().trim().toLowerCase() +
-                        (ri.getUnit() != null ? ri.getUnit().trim().toLowerCase() : "") +
-                        (ri.getNote() != null ? ri.getNote().trim().toLowerCase() : "");
-                GroceryItem item = merged.get(key);
-                if (item == null) {
-                    GroceryItem newItem = new GroceryItem();
-                    newItem.setItemName(ri.getIngredient().getName());
-                    newItem.setQuantity(ri.getQuantity());
-                    newItem.setUnit(ri.getUnit());
-                    newItem.setNote(ri.getNote());
-                    newItem.setDateAdded(date);
-                    newItem.setPurchased(false);
-                    newItem.setUser(user);
-                    merged.put(key, newItem);
-                } else {
-                    item.setQuantity(item.getQuantity() + ri.getQuantity());
-                }
+            Recipe recipe = recipes.get(recipeId);
+            if (recipe == null) {
+                throw new NoSuchElementException("Recipe not found or doesn't belong to user: " + recipeId);
             }
+            addIngredients(merged, recipe, date, user);
         }
-
-        List<GroceryItem> savedItems = new ArrayList<>();
-        for (GroceryItem item : merged.values()) {
-            GroceryItem saved = mergeOrAddItem(item);
-            savedItems.add(saved);
-        }
-        return savedItems;
+        return mergeOrAddAll(merged.values(), user);
     }
 
     @Override
     @Transactional
+    @Timed(value = "grocery.items.generate", extraTags = {"source", "mealplans"})
     public List<GroceryItem> generateFromMealPlans(List<Long> mealPlanIds, String date) {
         Map<String, GroceryItem> merged = new LinkedHashMap<>();
         for (Long mealPlanId : mealPlanIds) {
@@ -283,42 +361,128 @@ public class GroceryItemServiceImpl implements GroceryItemService {
 
     @Override
     @Transactional
+    @Timed(value = "grocery.items.generate", extraTags = {"source", "mealplans"})
     public List<GroceryItem> generateFromMealPlansByUser(List<Long> mealPlanIds, String date, User user) {
+        // Template-backed plans only hold the weeks asked for so far; write out the upcoming ones first
+        mealPlanTemplateService.expandPlans(user, mealPlanIds);
+        // Plans with items and recipes in one query, then every recipe's ingredient lines in one more
+        Map<Long, MealPlan> mealPlans = new HashMap<>();
+        for (MealPlan mealPlan : mealPlanRepository.findByIdInAndUser(mealPlanIds, user)) {
+            mealPlans.put(mealPlan.getId(), mealPlan);
+        }
+        Set<Recipe> recipes = new HashSet<>();
+        for (MealPlan mealPlan : mealPlans.values()) {
+            for (MealPlanItem mpi : mealPlan.getItems()) {
+                if (mpi.getRecipe() != null) recipes.add(mpi.getRecipe());
+            }
+        }
+        if (!recipes.isEmpty()) {
+            recipeRepository.fetchIngredients(recipes);
+        }
+
         Map<String, GroceryItem> merged = new LinkedHashMap<>();
         for (Long mealPlanId : mealPlanIds) {
-            MealPlan mealPlan = mealPlanRepository.findByIdAndUser(mealPlanId, user)
-                    .orElseThrow(() -> new NoSuchElementException("Meal Plan not found or doesn't belong to user: " + mealPlanId));
+            MealPlan mealPlan = mealPlans.get(mealPlanId);
+            if (mealPlan == null) {
+                throw new NoSuchElementException("Meal Plan not found or doesn't belong to user: " + mealPlanId);
+            }
             for (MealPlanItem mpi : mealPlan.getItems()) {
-                Recipe recipe = mpi.getRecipe();
-                if (recipe == null) continue;
-                for (RecipeIngredient ri : recipe.getIngredients()) {
-                    if (ri.getIngredient() == null) continue;
-                    String key = ri.getIngredient().getName().trim().toLowerCase() +
-                            (ri.getUnit() != null ? ri.getUnit().trim().toLowerCase() : "") +
-                            (ri.getNote() != null ? ri.getNote().trim().toLowerCase() : "");
-                    GroceryItem item = merged.get(key);
-                    if (item == null) {
-                        GroceryItem newItem = new GroceryItem();
-                        newItem.setItemName(ri.getIngredient().getName());
-                        newItem.setQuantity(ri.getQuantity());
-                        newItem.setUnit(ri.getUnit());
-                        newItem.setNote(ri.getNote());
-                        newItem.setDateAdded(date);
-                        newItem.setPurchased(false);
-                        newItem.setUser(user);
-                        merged.put(key, newItem);
-                    } else {
-                        item.setQuantity(item.getQuantity() + ri.getQuantity());
-                    }
+                if (mpi.getRecipe() != null) {
+                    addIngredients(merged, mpi.getRecipe(), date, user);
                 }
             }
         }
+        return mergeOrAddAll(merged.values(), user);
+    }
 
-        List<GroceryItem> savedItems = new ArrayList<>();
-        for (GroceryItem item : merged.values()) {
-            GroceryItem saved = mergeOrAddItem(item);
-            savedItems.add(saved);
+    // Sums the recipe's ingredient lines into the pending items, keyed by name + unit + note
+    private void addIngredients(Map<String, GroceryItem> merged, Recipe recipe, String date, User user) {
+        for (RecipeIngredient ri : recipe.getIngredients()) {
+            if (ri.getIngredient() == null) continue;
+            String key = ri.getIngredient().getName().trim().toLowerCase() +
+                    (ri.getUnit() != null ? ri.getUnit().trim().toLowerCase() : "") +
+                    (ri.getNote() != null ? ri.getNote().trim().toLowerCase() : "");
+            GroceryItem item = merged.get(key);
+            if (item == null) {
+                GroceryItem newItem = new GroceryItem();
+                newItem.setItemName(ri.getIngredient().getName());
+                newItem.setQuantity(ri.getQuantity());
+                newItem.setUnit(ri.getUnit());
+                newItem.setNote(ri.getNote());
+                newItem.setDateAdded(date);
+                newItem.setPurchased(false);
+                newItem.setUser(user);
+                merged.put(key, newItem);
+            } else {
+                item.setQuantity(item.getQuantity() + ri.getQuantity());
+            }
         }
-        return savedItems;
+    }
+
+    // Same matching as mergeOrAddItem, but against the user's active list loaded once instead of
+    // one findMergableActiveByUser query per generated item
+    private List<GroceryItem> mergeOrAddAll(Collection<GroceryItem> newItems, User user) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long changeSeq = nextChangeSeq(user);
+        List<GroceryItem> active = new ArrayList<>(groceryItemRepository.findByUserAndPurchasedFalseOrderByDateAddedDesc(user));
+        List<GroceryItem> added = new ArrayList<>();
+        List<GroceryItem> result = new ArrayList<>();
+        for (GroceryItem newItem : newItems) {
+            GroceryItem existing = active.stream().filter(c -> isMergeable(c, newItem)).findFirst().orElse(null);
+            if (existing == null) {
+                if (newItem.getDateAdded() == null || newItem.getDateAdded().isEmpty()) {
+                    newItem.setDateAdded(LocalDate.now().format(dateFormatter));
+                }
+                newItem.setPurchased(false);
+                newItem.setChangeSeq(changeSeq);
+                added.add(newItem);
+                active.add(newItem);
+                result.add(newItem);
+            } else {
+                existing.setQuantity(existing.getQuantity() + newItem.getQuantity());
+                existing.setChangeSeq(changeSeq);
+                result.add(existing);
+            }
+        }
+        groceryItemRepository.saveAll(added);
+        publishAfterCommit(user, "changed", changeSeq, result);
+        dashboardStatsService.evictAfterCommit(user);
+        sample.stop(meterRegistry.timer("grocery.items.merge", "result", "generated"));
+        return result;
+    }
+
+    // Also bumps the list's ETag counter; see GroceryItemSyncService
+    private long nextChangeSeq(User user) {
+        return collectionVersionService.next(user.getId(), UserCollection.GROCERY_ITEMS);
+    }
+
+    // Tells the user's open streams (other devices) which items to fetch once the write is visible
+    private void publishAfterCommit(User user, String type, long changeSeq, List<GroceryItem> items) {
+        if (!items.isEmpty()) {
+            groceryItemStreamService.publishAfterCommit(user.getId(), type, changeSeq,
+                    items.stream().map(GroceryItem::getId).distinct().toList());
+        }
+    }
+
+    // Mirrors findMergableActiveByUser: case-insensitive name, same unit, compatible note
+    static boolean isMergeable(GroceryItem candidate, GroceryItem item) {
+        return candidate.getItemName().toLowerCase(Locale.ROOT).equals(item.getItemName().toLowerCase(Locale.ROOT))
+                && item.getUnit() != null && item.getUnit().equals(candidate.getUnit())
+                && (candidate.getNote() == null || item.getNote() == null
+                || candidate.getNote().equalsIgnoreCase(item.getNote()));
+    }
+
+    private static GroceryItem fromArchive(GroceryItemArchive archived) {
+        GroceryItem item = new GroceryItem();
+        item.setId(archived.getId());
+        item.setItemName(archived.getItemName());
+        item.setUnit(archived.getUnit());
+        item.setQuantity(archived.getQuantity());
+        item.setNote(archived.getNote());
+        item.setDateAdded(archived.getDateAdded());
+        item.setPurchased(true);
+        item.setDatePurchased(archived.getDatePurchased());
+        item.setPurchasedOn(archived.getPurchasedOn());
+        return item;
     }
 }
@@ -0,0 +1,141 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.dto.GroceryItemEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live grocery list updates over Server-Sent Events. Each open stream is an SseEmitter on an
+ * async servlet request, so an idle listener holds a socket but no Tomcat thread and no
+ * connection. Grocery writes publish after their transaction commits; the sends run on the task
+ * executor rather than the writer's request thread, so a slow client never delays a write.
+ * Streams are held in memory per instance; a client that reconnects (or whose events went to
+ * another instance) catches up through GET /api/groceryitems/changes with its last token.
+ */
+@Service
+public class GroceryItemStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryItemStreamService.class);
+
+    private final Map<Long, List<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final TaskExecutor taskExecutor;
+
+    @Value("${app.groceryitems.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.groceryitems.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    public GroceryItemStreamService(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                    MeterRegistry meterRegistry) {
+        this.taskExecutor = taskExecutor;
+        Gauge.builder("grocery.stream.connections", open, AtomicInteger::get).register(meterRegistry);
+    }
+
+    // Empty once the user already has maxPerUser streams. Closing an old stream instead would only
+    // make its EventSource reconnect and close the next one, round and round between the tabs
+    public Optional<SseEmitter> subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean admitted = new AtomicBoolean();
+        emittersByUser.compute(userId, (k, current) -> {
+            List<SseEmitter> list = current == null ? new CopyOnWriteArrayList<>() : current;
+            if (list.size() < maxPerUser) {
+                list.add(emitter);
+                admitted.set(true);
+            }
+            return list.isEmpty() ? null : list;
+        });
+        if (!admitted.get()) {
+            return Optional.empty();
+        }
+        open.incrementAndGet();
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitter.complete());
+        // Flushes the headers, so the client sees the stream open before the first change
+        send(userId, emitter, SseEmitter.event().comment("connected"));
+        return Optional.of(emitter);
+    }
+
+    // Called inside the writing transaction; nothing is sent if it rolls back
+    public void publishAfterCommit(Long userId, String type, long changeSeq, List<Long> ids) {
+        if (userId == null || !emittersByUser.containsKey(userId)) {
+            return;
+        }
+        GroceryItemEvent event = new GroceryItemEvent(type, Long.toString(changeSeq), ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    taskExecutor.execute(() -> publish(userId, event));
+                }
+            });
+        } else {
+            taskExecutor.execute(() -> publish(userId, event));
+        }
+    }
+
+    // Comments keep proxies from closing idle streams and find the ones whose client went away
+    @Scheduled(fixedDelayString = "${app.groceryitems.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emittersByUser.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    public int openStreams() {
+        return open.get();
+    }
+
+    private void publish(Long userId, GroceryItemEvent event) {
+        List<SseEmitter> emitters = emittersByUser.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            send(userId, emitter, SseEmitter.event().id(event.getToken()).name(event.getType()).data(event));
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or emitter already completed
+            log.debug("Dropping grocery stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (k, emitters) -> {
+            if (emitters.remove(emitter)) {
+                open.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
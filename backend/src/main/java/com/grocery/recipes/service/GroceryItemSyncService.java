@@ -0,0 +1,127 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.dto.GroceryItemChanges;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import com.grocery.recipes.repository.GroceryItemTombstoneRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delta sync for the grocery list. Every grocery write stamps the rows it touches with the
+ * user's next grocery_items_version and leaves a tombstone for each row it deletes, so a client
+ * holding a token only reads the rows past it, on the (user_id, change_seq) indexes. The token
+ * is the version read before the rows, so a row committed in between is sent again next time
+ * rather than missed. Tombstones older than tombstone-days are pruned in chunks; the user's
+ * grocery_sync_floor keeps the newest pruned sequence, and older tokens can no longer be answered.
+ */
+@Service
+public class GroceryItemSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryItemSyncService.class);
+
+    private final GroceryItemRepository groceryItemRepository;
+    private final GroceryItemTombstoneRepository tombstoneRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.groceryitems.sync.tombstone-days:30}")
+    private int tombstoneDays;
+
+    @Value("${app.groceryitems.sync.chunk-size:500}")
+    private int chunkSize;
+
+    public GroceryItemSyncService(GroceryItemRepository groceryItemRepository,
+                                  GroceryItemTombstoneRepository tombstoneRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.groceryItemRepository = groceryItemRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Changes since the token, or the full active list when since is null; empty when the token is too old or unknown
+    @Transactional(readOnly = true)
+    public Optional<GroceryItemChanges> changes(User user, Long since) {
+        List<long[]> state = jdbcTemplate.query("SELECT grocery_items_version, grocery_sync_floor FROM users WHERE id = ?",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, user.getId());
+        if (state.isEmpty()) {
+            return Optional.empty();
+        }
+        long version = state.get(0)[0];
+        long floor = state.get(0)[1];
+        String token = Long.toString(version);
+        if (since == null) {
+            return Optional.of(new GroceryItemChanges(token, true,
+                    groceryItemRepository.findByUserAndPurchasedFalseOrderByDateAddedDesc(user), List.of()));
+        }
+        if (since < floor || since > version) {
+            return Optional.empty();
+        }
+        return Optional.of(new GroceryItemChanges(token, false,
+                groceryItemRepository.findChangedSince(user.getId(), since),
+                tombstoneRepository.findItemIdsDeletedSince(user.getId(), since)));
+    }
+
+    @Scheduled(cron = "${app.groceryitems.sync.prune-cron:0 30 4 * * *}")
+    public void scheduledPrune() {
+        if (!running.get()) {
+            pruneTombstones();
+        }
+    }
+
+    public PruneReport pruneTombstones() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Tombstone pruning is already running");
+        }
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneDays);
+            List<Object[]> expired = tombstoneRepository.findExpiredByUser(cutoff);
+            long pruned = 0;
+            for (int from = 0; from < expired.size(); from += chunkSize) {
+                List<Object[]> chunk = expired.subList(from, Math.min(from + chunkSize, expired.size()));
+                Integer deleted = transactionTemplate.execute(status -> {
+                    int count = 0;
+                    for (Object[] row : chunk) {
+                        Long userId = (Long) row[0];
+                        long through = (Long) row[1];
+                        // Raise the floor first, so no client gets a delta that silently lacks the deletions
+                        jdbcTemplate.update("UPDATE users SET grocery_sync_floor = ? WHERE id = ? AND grocery_sync_floor < ?",
+                                through, userId, through);
+                        count += tombstoneRepository.deleteByUserIdThrough(userId, through);
+                    }
+                    return count;
+                });
+                pruned += deleted == null ? 0 : deleted;
+            }
+            log.info("Pruned {} grocery item tombstones older than {} for {} users", pruned, cutoff, expired.size());
+            return new PruneReport(cutoff, expired.size(), pruned);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PruneReport {
+        private LocalDateTime cutoff;
+        private int users;
+        private long pruned;
+    }
+}
@@ -0,0 +1,225 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.GroceryItem;
+import com.grocery.recipes.model.MigrationCheckpoint;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import com.grocery.recipes.repository.GroceryListRepository;
+import com.grocery.recipes.repository.MigrationCheckpointRepository;
+import com.grocery.recipes.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copies the deprecated GroceryList/GroceryListEntry data into per-user GroceryItem rows.
+ * Lists are read in id order, chunkSize at a time, through projections so the eager entries
+ * collection is never loaded. Each chunk's items and the advanced checkpoint commit together,
+ * so the job can be stopped at any point and resumed without migrating a list twice; the
+ * checkpoint row is locked for the chunk, so instances running the job at the same time take
+ * turns instead of migrating the same lists. A list's owner is the owner of its meal plan; lists
+ * without a meal plan have no owner and are skipped. Unticked entries merge into a matching
+ * active item the way generated items do, so lists still written through the legacy endpoints
+ * do not pile up duplicates on later runs.
+ */
+@Service
+@SuppressWarnings("deprecation") // Reads the legacy grocery lists it migrates
+public class GroceryListMigrationService {
+
+    public static final String CHECKPOINT = "grocery-list-to-grocery-item";
+
+    private static final Logger log = LoggerFactory.getLogger(GroceryListMigrationService.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final GroceryListRepository groceryListRepository;
+    private final GroceryItemRepository groceryItemRepository;
+    private final UserRepository userRepository;
+    private final MigrationCheckpointRepository checkpointRepository;
+    private final PurchaseStatsService purchaseStatsService;
+    private final CollectionVersionService collectionVersionService;
+    private final DashboardStatsService dashboardStatsService;
+    private final GroceryItemStreamService groceryItemStreamService;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.legacy.grocery-lists.migration.chunk-size:200}")
+    private int chunkSize;
+
+    public GroceryListMigrationService(GroceryListRepository groceryListRepository,
+                                       GroceryItemRepository groceryItemRepository,
+                                       UserRepository userRepository,
+                                       MigrationCheckpointRepository checkpointRepository,
+                                       PurchaseStatsService purchaseStatsService,
+                                       CollectionVersionService collectionVersionService,
+                                       DashboardStatsService dashboardStatsService,
+                                       GroceryItemStreamService groceryItemStreamService,
+                                       PlatformTransactionManager transactionManager) {
+        this.groceryListRepository = groceryListRepository;
+        this.groceryItemRepository = groceryItemRepository;
+        this.userRepository = userRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.purchaseStatsService = purchaseStatsService;
+        this.collectionVersionService = collectionVersionService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.groceryItemStreamService = groceryItemStreamService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Optional<MigrationCheckpoint> progress() {
+        return checkpointRepository.findById(CHECKPOINT);
+    }
+
+    @Scheduled(cron = "${app.legacy.grocery-lists.migration.cron:0 15 4 * * *}")
+    public void scheduledRun() {
+        if (!running.get()) {
+            run();
+        }
+    }
+
+    public MigrationCheckpoint run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Grocery list migration is already running");
+        }
+        try {
+            createCheckpoint();
+            MigrationCheckpoint checkpoint;
+            do {
+                checkpoint = transactionTemplate.execute(status -> migrateChunk());
+            } while (checkpoint.getCompletedAt() == null);
+            log.info("Grocery list migration complete: {} lists processed, {} items created, {} lists skipped",
+                    checkpoint.getProcessed(), checkpoint.getMigrated(), checkpoint.getSkipped());
+            return checkpoint;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Its own transaction, so instances starting together race on the insert rather than on a chunk
+    private void createCheckpoint() {
+        if (checkpointRepository.existsById(CHECKPOINT)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    checkpointRepository.saveAndFlush(new MigrationCheckpoint(CHECKPOINT)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Migration checkpoint {} was created by another instance", CHECKPOINT);
+        }
+    }
+
+    private MigrationCheckpoint migrateChunk() {
+        MigrationCheckpoint checkpoint = checkpointRepository.lockByName(CHECKPOINT).orElseThrow();
+        List<Object[]> lists = groceryListRepository.findMigrationChunk(checkpoint.getLastId(), PageRequest.of(0, chunkSize));
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        if (lists.isEmpty()) {
+            checkpoint.setCompletedAt(checkpoint.getUpdatedAt());
+            return checkpointRepository.save(checkpoint);
+        }
+
+        Map<Long, Object[]> listsById = new LinkedHashMap<>();
+        for (Object[] list : lists) {
+            if (list[1] == null) {
+                checkpoint.setSkipped(checkpoint.getSkipped() + 1);
+            } else {
+                listsById.put((Long) list[0], list);
+            }
+        }
+
+        Map<Long, List<GroceryItem>> itemsByUser = new LinkedHashMap<>();
+        if (!listsById.isEmpty()) {
+            for (Object[] entry : groceryListRepository.findEntryRowsByListIds(listsById.keySet())) {
+                Object[] list = listsById.get(((Number) entry[0]).longValue());
+                GroceryItem item = toGroceryItem(list, entry);
+                if (item != null) {
+                    itemsByUser.computeIfAbsent((Long) list[1], k -> new ArrayList<>()).add(item);
+                }
+            }
+        }
+
+        for (Map.Entry<Long, List<GroceryItem>> userItems : itemsByUser.entrySet()) {
+            User user = userRepository.getReferenceById(userItems.getKey());
+            // Migrated rows show up in the user's next delta sync like any other new item
+            long changeSeq = collectionVersionService.next(user.getId(), CollectionVersionService.UserCollection.GROCERY_ITEMS);
+            List<GroceryItem> active = new ArrayList<>(groceryItemRepository.findByUserAndPurchasedFalseOrderByDateAddedDesc(user));
+            List<GroceryItem> added = new ArrayList<>();
+            List<GroceryItem> changed = new ArrayList<>();
+            for (GroceryItem item : userItems.getValue()) {
+                // Purchases are history and stay separate; only what is still to buy merges
+                if (!item.isPurchased()) {
+                    GroceryItem existing = active.stream()
+                            .filter(candidate -> GroceryItemServiceImpl.isMergeable(candidate, item))
+                            .findFirst().orElse(null);
+                    if (existing != null) {
+                        existing.setQuantity(existing.getQuantity() + item.getQuantity());
+                        existing.setChangeSeq(changeSeq);
+                        changed.add(existing);
+                        continue;
+                    }
+                    active.add(item);
+                }
+                item.setUser(user);
+                item.setChangeSeq(changeSeq);
+                added.add(item);
+            }
+            groceryItemRepository.saveAll(added);
+            changed.addAll(added);
+            purchaseStatsService.record(user, added, 1);
+            // Once the chunk commits, like any other grocery write: fresh counts and a push to open streams
+            dashboardStatsService.evictAfterCommit(user);
+            groceryItemStreamService.publishAfterCommit(user.getId(), "changed", changeSeq,
+                    changed.stream().map(GroceryItem::getId).distinct().toList());
+            checkpoint.setMigrated(checkpoint.getMigrated() + added.size());
+        }
+
+        checkpoint.setLastId((Long) lists.get(lists.size() - 1)[0]);
+        checkpoint.setProcessed(checkpoint.getProcessed() + lists.size());
+        checkpoint.setCompletedAt(null);
+        return checkpointRepository.save(checkpoint);
+    }
+
+    // list: [id, userId, date, completed]; entry: [listId, ingredientName, unit, quantity, note, purchased]
+    private GroceryItem toGroceryItem(Object[] list, Object[] entry) {
+        String name = (String) entry[1];
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String date = (String) list[2];
+        GroceryItem item = new GroceryItem();
+        item.setItemName(name.trim());
+        item.setUnit((String) entry[2]);
+        item.setQuantity(entry[3] == null ? 0 : ((Number) entry[3]).doubleValue());
+        item.setNote((String) entry[4]);
+        item.setDateAdded(date);
+        // A completed list counts as bought even where single entries were never ticked off
+        if (Boolean.TRUE.equals(entry[5]) || Boolean.TRUE.equals(list[3])) {
+            item.setPurchased(true);
+            item.setDatePurchased(date);
+            item.setPurchasedOn(parseDate(date));
+        }
+        return item;
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.trim(), DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
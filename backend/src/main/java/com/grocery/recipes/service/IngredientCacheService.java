@@ -0,0 +1,90 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.Ingredient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Owns the second-level cache regions for the global ingredient catalogue.
+ * Hibernate keeps the entity region consistent on its own; the catalogue query
+ * region is evicted explicitly after every committed ingredient write.
+ */
+@Service
+public class IngredientCacheService {
+
+    public static final String ENTITY_REGION = "ingredient";
+    public static final String CATALOGUE_REGION = "ingredient-catalogue";
+
+    private final SessionFactory sessionFactory;
+
+    public IngredientCacheService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    // Evict once the surrounding transaction commits, so a concurrent reader cannot re-cache the old row
+    public void evictAfterCommit(Long ingredientId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(ingredientId);
+                }
+            });
+        } else {
+            evict(ingredientId);
+        }
+    }
+
+    public void evict(Long ingredientId) {
+        Cache cache = sessionFactory.getCache();
+        if (ingredientId != null) {
+            cache.evictEntityData(Ingredient.class, ingredientId);
+        }
+        cache.evictQueryRegion(CATALOGUE_REGION);
+    }
+
+    public void evictAll() {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(Ingredient.class);
+        cache.evictQueryRegion(CATALOGUE_REGION);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put(ENTITY_REGION, regionStatistics(statistics.getDomainDataRegionStatistics(ENTITY_REGION)));
+        result.put(CATALOGUE_REGION, regionStatistics(statistics.getQueryRegionStatistics(CATALOGUE_REGION)));
+        result.put("queryCacheHitRatio", ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        result.put("secondLevelCacheHitRatio",
+                ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        return result;
+    }
+
+    private Map<String, Object> regionStatistics(CacheRegionStatistics region) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (region == null) {
+            return stats;
+        }
+        stats.put("hits", region.getHitCount());
+        stats.put("misses", region.getMissCount());
+        stats.put("puts", region.getPutCount());
+        stats.put("hitRatio", ratio(region.getHitCount(), region.getMissCount()));
+        stats.put("elementsInMemory", region.getElementCountInMemory());
+        return stats;
+    }
+
+    private double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,224 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.repository.IngredientRepository;
+import com.grocery.recipes.repository.RecipeIngredientRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background job that merges ingredients whose names only differ in case, spacing or plural
+ * ("Tomato", "tomato", "tomatoes "). Recipe lines are repointed to one survivor per group with
+ * set-based UPDATEs, duplicates are deleted in chunks (one transaction per chunk), and every
+ * remaining row gets its normalized name so the unique index stops new duplicates.
+ */
+@Service
+public class IngredientCanonicalizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngredientCanonicalizationService.class);
+
+    private final IngredientRepository ingredientRepository;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final IngredientCacheService ingredientCacheService;
+    private final IngredientSuggestIndex suggestIndex;
+    private final CollectionVersionService collectionVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.ingredients.canonicalization.chunk-size:500}")
+    private int chunkSize;
+
+    public IngredientCanonicalizationService(IngredientRepository ingredientRepository,
+                                             RecipeIngredientRepository recipeIngredientRepository,
+                                             IngredientCacheService ingredientCacheService,
+                                             IngredientSuggestIndex suggestIndex,
+                                             CollectionVersionService collectionVersionService,
+                                             PlatformTransactionManager transactionManager) {
+        this.ingredientRepository = ingredientRepository;
+        this.recipeIngredientRepository = recipeIngredientRepository;
+        this.ingredientCacheService = ingredientCacheService;
+        this.suggestIndex = suggestIndex;
+        this.collectionVersionService = collectionVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Dry run: what a canonicalization pass would merge, without changing anything
+    public Report report() {
+        List<IngredientRow> rows = loadRows();
+        List<DuplicateGroup> groups = findDuplicateGroups(rows);
+        int duplicates = groups.stream().mapToInt(g -> g.getDuplicateIds().size()).sum();
+        return new Report(true, rows.size(), groups.size(), duplicates,
+                groups.stream().mapToLong(DuplicateGroup::getAffectedRecipeLines).sum(),
+                pendingBackfill(rows, groups).size(), groups);
+    }
+
+    @Scheduled(cron = "${app.ingredients.canonicalization.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (!running.get()) {
+            run();
+        }
+    }
+
+    public Report run() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ingredient canonicalization is already running");
+        }
+        try {
+            List<IngredientRow> rows = loadRows();
+            List<DuplicateGroup> groups = findDuplicateGroups(rows);
+
+            // Merge groups chunk by chunk so no transaction holds more than chunkSize duplicates
+            List<DuplicateGroup> chunk = new ArrayList<>();
+            int chunkDuplicates = 0;
+            for (DuplicateGroup group : groups) {
+                chunk.add(group);
+                chunkDuplicates += group.getDuplicateIds().size();
+                if (chunkDuplicates >= chunkSize) {
+                    mergeChunk(chunk);
+                    chunk = new ArrayList<>();
+                    chunkDuplicates = 0;
+                }
+            }
+            if (!chunk.isEmpty()) {
+                mergeChunk(chunk);
+            }
+
+            // Backfill normalized names on rows that were never part of a duplicate group
+            List<IngredientRow> pending = pendingBackfill(rows, groups);
+            for (int from = 0; from < pending.size(); from += chunkSize) {
+                List<IngredientRow> slice = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+                transactionTemplate.executeWithoutResult(status -> slice.forEach(r ->
+                        ingredientRepository.updateNormalizedName(r.id, IngredientNames.canonical(r.name))));
+            }
+
+            ingredientCacheService.evictAll();
+            int duplicates = groups.stream().mapToInt(g -> g.getDuplicateIds().size()).sum();
+            log.info("Ingredient canonicalization merged {} duplicates into {} ingredients, backfilled {} names",
+                    duplicates, groups.size(), pending.size());
+            return new Report(false, rows.size(), groups.size(), duplicates,
+                    groups.stream().mapToLong(DuplicateGroup::getAffectedRecipeLines).sum(), pending.size(), groups);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void mergeChunk(List<DuplicateGroup> chunk) {
+        List<Long> duplicateIds = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (DuplicateGroup group : chunk) {
+                recipeIngredientRepository.repointIngredient(
+                        ingredientRepository.getReferenceById(group.getSurvivorId()), group.getDuplicateIds());
+                duplicateIds.addAll(group.getDuplicateIds());
+            }
+            // Delete before naming the survivors, in case a duplicate already holds the normalized name
+            ingredientRepository.deleteAllByIdIn(duplicateIds);
+            for (DuplicateGroup group : chunk) {
+                ingredientRepository.updateNormalizedName(group.getSurvivorId(), group.getCanonicalName());
+            }
+            // Recipes that used a duplicate now show the survivor
+            collectionVersionService.bumpIngredients();
+        });
+        // Bulk statements bypass the entity listener, so update the autocomplete index here
+        duplicateIds.forEach(suggestIndex::remove);
+    }
+
+    private List<IngredientRow> pendingBackfill(List<IngredientRow> rows, List<DuplicateGroup> groups) {
+        Set<Long> merged = new HashSet<>();
+        for (DuplicateGroup group : groups) {
+            merged.add(group.getSurvivorId());
+            merged.addAll(group.getDuplicateIds());
+        }
+        return rows.stream()
+                .filter(r -> !merged.contains(r.id))
+                .filter(r -> !Objects.equals(r.normalizedName, IngredientNames.canonical(r.name)))
+                .toList();
+    }
+
+    private List<IngredientRow> loadRows() {
+        List<IngredientRow> rows = new ArrayList<>();
+        for (Object[] row : ingredientRepository.findAllNames()) {
+            rows.add(new IngredientRow((Long) row[0], (String) row[1], (String) row[2]));
+        }
+        return rows;
+    }
+
+    private List<DuplicateGroup> findDuplicateGroups(List<IngredientRow> rows) {
+        Map<String, List<IngredientRow>> byCanonical = new LinkedHashMap<>();
+        for (IngredientRow row : rows) {
+            String canonical = IngredientNames.canonical(row.name);
+            if (canonical == null || canonical.isEmpty()) continue;
+            byCanonical.computeIfAbsent(canonical, k -> new ArrayList<>()).add(row);
+        }
+
+        List<DuplicateGroup> groups = new ArrayList<>();
+        List<Long> allDuplicateIds = new ArrayList<>();
+        for (Map.Entry<String, List<IngredientRow>> entry : byCanonical.entrySet()) {
+            List<IngredientRow> members = entry.getValue();
+            if (members.size() < 2) continue;
+            // Keep the row that already owns the normalized name, otherwise the oldest one
+            IngredientRow survivor = members.stream()
+                    .filter(r -> entry.getKey().equals(r.normalizedName))
+                    .findFirst()
+                    .orElse(members.get(0));
+            List<Long> duplicateIds = new ArrayList<>();
+            List<String> duplicateNames = new ArrayList<>();
+            for (IngredientRow member : members) {
+                if (member != survivor) {
+                    duplicateIds.add(member.id);
+                    duplicateNames.add(member.name);
+                }
+            }
+            allDuplicateIds.addAll(duplicateIds);
+            groups.add(new DuplicateGroup(entry.getKey(), survivor.id, survivor.name, duplicateIds, duplicateNames, 0));
+        }
+
+        if (!allDuplicateIds.isEmpty()) {
+            Map<Long, Long> usage = new HashMap<>();
+            for (int from = 0; from < allDuplicateIds.size(); from += chunkSize) {
+                List<Long> slice = allDuplicateIds.subList(from, Math.min(from + chunkSize, allDuplicateIds.size()));
+                for (Object[] row : recipeIngredientRepository.countUsageByIngredientIds(slice)) {
+                    usage.put((Long) row[0], (Long) row[1]);
+                }
+            }
+            for (DuplicateGroup group : groups) {
+                group.affectedRecipeLines = group.getDuplicateIds().stream().mapToLong(id -> usage.getOrDefault(id, 0L)).sum();
+            }
+        }
+        return groups;
+    }
+
+    private record IngredientRow(Long id, String name, String normalizedName) {
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class DuplicateGroup {
+        private String canonicalName;
+        private Long survivorId;
+        private String survivorName;
+        private List<Long> duplicateIds;
+        private List<String> duplicateNames;
+        private long affectedRecipeLines;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Report {
+        private boolean dryRun;
+        private int ingredientsScanned;
+        private int duplicateGroups;
+        private int duplicateIngredients;
+        private long recipeLinesRepointed;
+        private int normalizedNamesBackfilled;
+        private List<DuplicateGroup> groups;
+    }
+}
@@ -0,0 +1,50 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.Ingredient;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link IngredientSuggestIndex} in step with every ingredient write, including the ones
+ * RecipeServiceImpl makes directly through the repository. Changes are applied after commit.
+ */
+@Component
+public class IngredientIndexListener {
+
+    private final IngredientSuggestIndex suggestIndex;
+
+    public IngredientIndexListener(IngredientSuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Ingredient ingredient) {
+        Long id = ingredient.getId();
+        String name = ingredient.getName();
+        afterCommit(() -> suggestIndex.put(id, name));
+    }
+
+    @PostRemove
+    public void onRemoved(Ingredient ingredient) {
+        Long id = ingredient.getId();
+        afterCommit(() -> suggestIndex.remove(id));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.grocery.recipes.service;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Canonical form of an ingredient name, used to spot duplicates such as "Tomato", "tomato"
+ * and "tomatoes ". Lower-cases, trims, collapses whitespace and singularizes the last word.
+ */
+public final class IngredientNames {
+
+    // Words the suffix rules get wrong: -ie nouns, -che nouns, and words that only look plural
+    private static final Map<String, String> EXCEPTIONS = Map.ofEntries(
+            Map.entry("cookies", "cookie"),
+            Map.entry("brownies", "brownie"),
+            Map.entry("smoothies", "smoothie"),
+            Map.entry("veggies", "veggie"),
+            Map.entry("goodies", "goodie"),
+            Map.entry("hoagies", "hoagie"),
+            Map.entry("quiches", "quiche"),
+            Map.entry("molasses", "molasses"),
+            Map.entry("schnapps", "schnapps"),
+            Map.entry("species", "species"),
+            Map.entry("series", "series"));
+
+    private IngredientNames() {
+    }
+
+    public static String canonical(String name) {
+        if (name == null) return null;
+        String normalized = name.trim().toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll("[.,;:!]+$", "");
+        if (normalized.isEmpty()) return normalized;
+
+        int lastSpace = normalized.lastIndexOf(' ');
+        return normalized.substring(0, lastSpace + 1) + singular(normalized.substring(lastSpace + 1));
+    }
+
+    private static String singular(String word) {
+        if (word.length() <= 3) return word;
+        String exception = EXCEPTIONS.get(word);
+        if (exception != null) return exception;
+        if (word.endsWith("ies")) {
+            // berries -> berry and fries -> fry, but a one-letter stem keeps its e (pies -> pie)
+            String stem = word.substring(0, word.length() - 3);
+            return stem.length() >= 2 ? stem + "y" : stem + "ie";
+        }
+        if (word.endsWith("oes") && word.length() >= 6) {
+            return word.substring(0, word.length() - 2);                                    // tomatoes, not sloes
+        }
+        if (word.endsWith("ches") || word.endsWith("shes") || word.endsWith("xes")
+                || word.endsWith("sses") || word.endsWith("zes")) {
+            return word.substring(0, word.length() - 2);                                    // peaches
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);                                    // onions
+        }
+        return word;
+    }
+}
@@ -10,4 +10,5 @@ public interface IngredientService {
     Optional<Ingredient> findById(Long id);
     Ingredient save(Ingredient ingredient);
     void deleteById(Long id);
+    List<Ingredient> suggest(String prefix, int limit);
 }
@@ -3,8 +3,10 @@ package com.grocery.recipes.service;
 import com.grocery.recipes.model.Ingredient;
 import com.grocery.recipes.repository.IngredientRepository;
 import com.grocery.recipes.repository.RecipeIngredientRepository;
-import jakarta.transaction.Transactional;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,9 +17,28 @@ public class IngredientServiceImpl implements IngredientService {
 
     private final RecipeIngredientRepository recipeIngredientRepository;
 
-    public IngredientServiceImpl(IngredientRepository ingredientRepository, RecipeIngredientRepository recipeIngredientRepository) {
+    private final IngredientCacheService ingredientCacheService;
+
+    private final IngredientSuggestIndex suggestIndex;
+
+    private final CollectionVersionService collectionVersionService;
+
+    public IngredientServiceImpl(IngredientRepository ingredientRepository,
+                                 RecipeIngredientRepository recipeIngredientRepository,
+                                 IngredientCacheService ingredientCacheService,
+                                 IngredientSuggestIndex suggestIndex,
+                                 CollectionVersionService collectionVersionService) {
         this.ingredientRepository = ingredientRepository;
         this.recipeIngredientRepository = recipeIngredientRepository;
+        this.ingredientCacheService = ingredientCacheService;
+        this.suggestIndex = suggestIndex;
+        this.collectionVersionService = collectionVersionService;
+    }
+
+    // Build the autocomplete index once; IngredientIndexListener keeps it current afterwards
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSuggestIndex() {
+        suggestIndex.rebuild(ingredientRepository.findAll());
     }
 
     @Override
@@ -31,8 +52,17 @@ public class IngredientServiceImpl implements IngredientService {
     }
 
     @Override
+    @Transactional
     public Ingredient save(Ingredient ingredient) {
-        return ingredientRepository.save(ingredient);
+        ingredientRepository.findFirstByNormalizedName(IngredientNames.canonical(ingredient.getName()))
+                .filter(existing -> !existing.getId().equals(ingredient.getId()))
+                .ifPresent(existing -> {
+                    throw new IllegalStateException("Ingredient already exists: " + existing.getName());
+                });
+        Ingredient saved = ingredientRepository.save(ingredient);
+        ingredientCacheService.evictAfterCommit(saved.getId());
+        collectionVersionService.bumpIngredients();
+        return saved;
     }
 
     @Transactional
@@ -42,5 +72,12 @@ public class IngredientServiceImpl implements IngredientService {
             throw new IllegalStateException("Ingredient is used in one or more recipes and cannot be deleted.");
         }
         ingredientRepository.deleteById(id);
+        ingredientCacheService.evictAfterCommit(id);
+        collectionVersionService.bumpIngredients();
+    }
+
+    @Override
+    public List<Ingredient> suggest(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, limit);
     }
 }
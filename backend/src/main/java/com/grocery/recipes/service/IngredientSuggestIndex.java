@@ -0,0 +1,208 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.Ingredient;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory autocomplete index over the ingredient catalogue.
+ * Prefix lookups walk a sorted term map (full name plus every word start, so "tom" finds
+ * "cherry tomato"). When that yields fewer than the requested results, the query's words are
+ * corrected against the word vocabulary by trigram overlap and the corrected query is looked up
+ * again, so typos like "tomatoe" or "brocoli" still match. The vocabulary is far smaller than
+ * the catalogue, which keeps the fuzzy path cheap. Reads are lock-free; writes are serialized
+ * and applied incrementally.
+ */
+@Component
+public class IngredientSuggestIndex {
+
+    // Share of the query word's trigrams a vocabulary word must contain to count as a correction
+    private static final double MIN_TRIGRAM_OVERLAP = 0.4;
+    private static final int MIN_FUZZY_WORD_LENGTH = 3;
+    private static final int MAX_CORRECTIONS = 3;
+
+    private final Map<Long, String> namesById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> idsByTerm = new ConcurrentSkipListMap<>();
+    private final Map<String, Integer> wordUsage = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> wordsByTrigram = new ConcurrentHashMap<>();
+
+    public synchronized void put(Long id, String name) {
+        if (id == null) return;
+        removeInternal(id);
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) return;
+        namesById.put(id, name);
+        for (String term : terms(normalized)) {
+            idsByTerm.computeIfAbsent(term, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        for (String word : words(normalized)) {
+            if (wordUsage.merge(word, 1, Integer::sum) == 1) {
+                for (String trigram : trigrams(word, true)) {
+                    wordsByTrigram.computeIfAbsent(trigram, k -> ConcurrentHashMap.newKeySet()).add(word);
+                }
+            }
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        if (id == null) return;
+        removeInternal(id);
+    }
+
+    public synchronized void rebuild(Collection<Ingredient> ingredients) {
+        namesById.clear();
+        idsByTerm.clear();
+        wordUsage.clear();
+        wordsByTrigram.clear();
+        for (Ingredient ingredient : ingredients) {
+            put(ingredient.getId(), ingredient.getName());
+        }
+    }
+
+    public int size() {
+        return namesById.size();
+    }
+
+    public List<Ingredient> suggest(String prefix, int limit) {
+        String query = normalize(prefix);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        LinkedHashSet<Long> matches = new LinkedHashSet<>();
+        collectPrefixMatches(query, limit, matches);
+        if (matches.size() < limit) {
+            for (String corrected : correctedQueries(query)) {
+                collectPrefixMatches(corrected, limit, matches);
+                if (matches.size() >= limit) break;
+            }
+        }
+        return toIngredients(matches);
+    }
+
+    private void collectPrefixMatches(String query, int limit, Set<Long> matches) {
+        for (Set<Long> ids : idsByTerm.subMap(query, true, query + Character.MAX_VALUE, false).values()) {
+            for (Long id : ids) {
+                matches.add(id);
+                if (matches.size() >= limit) return;
+            }
+        }
+    }
+
+    // Complete words must be corrected as whole words; the last one may still be half typed
+    private List<String> correctedQueries(String query) {
+        List<String> queryWords = words(query);
+        StringBuilder head = new StringBuilder();
+        for (int i = 0; i < queryWords.size() - 1; i++) {
+            String word = queryWords.get(i);
+            List<String> corrections = wordUsage.containsKey(word) ? List.of(word) : corrections(word, true, 1);
+            if (corrections.isEmpty()) return List.of();
+            head.append(corrections.get(0)).append(' ');
+        }
+
+        String last = queryWords.get(queryWords.size() - 1);
+        List<String> corrected = new ArrayList<>();
+        for (String correction : corrections(last, false, MAX_CORRECTIONS)) {
+            String candidate = head + correction;
+            if (!candidate.equals(query)) {
+                corrected.add(candidate);
+            }
+        }
+        return corrected;
+    }
+
+    private List<String> corrections(String word, boolean complete, int max) {
+        if (word.length() < MIN_FUZZY_WORD_LENGTH) return List.of();
+        Set<String> wordTrigrams = trigrams(word, complete);
+        Map<String, Integer> overlap = new HashMap<>();
+        for (String trigram : wordTrigrams) {
+            Set<String> candidates = wordsByTrigram.get(trigram);
+            if (candidates == null) continue;
+            for (String candidate : candidates) {
+                overlap.merge(candidate, 1, Integer::sum);
+            }
+        }
+
+        int required = (int) Math.ceil(wordTrigrams.size() * MIN_TRIGRAM_OVERLAP);
+        return overlap.entrySet().stream()
+                .filter(e -> e.getValue() >= required)
+                .sorted(Comparator.<Map.Entry<String, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                        .thenComparingInt(e -> Math.abs(e.getKey().length() - word.length()))
+                        .thenComparing(Map.Entry::getKey))
+                .limit(max)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private void removeInternal(Long id) {
+        String previous = namesById.remove(id);
+        if (previous == null) return;
+        String normalized = normalize(previous);
+        for (String term : terms(normalized)) {
+            Set<Long> ids = idsByTerm.get(term);
+            if (ids == null) continue;
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByTerm.remove(term);
+            }
+        }
+        for (String word : words(normalized)) {
+            if (wordUsage.merge(word, -1, Integer::sum) <= 0) {
+                wordUsage.remove(word);
+                for (String trigram : trigrams(word, true)) {
+                    Set<String> words = wordsByTrigram.get(trigram);
+                    if (words == null) continue;
+                    words.remove(word);
+                    if (words.isEmpty()) {
+                        wordsByTrigram.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Ingredient> toIngredients(Collection<Long> ids) {
+        List<Ingredient> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            String name = namesById.get(id);
+            if (name == null) continue; // removed concurrently
+            Ingredient ingredient = new Ingredient();
+            ingredient.setId(id);
+            ingredient.setName(name);
+            result.add(ingredient);
+        }
+        return result;
+    }
+
+    // Full name plus the remainder starting at each word, e.g. "cherry tomato" -> ["cherry tomato", "tomato"]
+    private static List<String> terms(String normalized) {
+        List<String> terms = new ArrayList<>();
+        terms.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            terms.add(normalized.substring(i + 1));
+        }
+        return terms;
+    }
+
+    private static List<String> words(String normalized) {
+        return new ArrayList<>(new LinkedHashSet<>(Arrays.asList(normalized.split(" "))));
+    }
+
+    // Trailing padding is left off for a word that is still being typed, so it matches as a prefix
+    private static Set<String> trigrams(String word, boolean padEnd) {
+        String padded = " " + word + (padEnd ? " " : "");
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    static String normalize(String value) {
+        if (value == null) return "";
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -1,8 +1,11 @@
 package com.grocery.recipes.service;
 
+import com.grocery.recipes.dto.MealPlanCalendar;
 import com.grocery.recipes.model.MealPlan;
+import com.grocery.recipes.model.MealPlanItem;
 import com.grocery.recipes.model.User;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +18,8 @@ public interface MealPlanService {
     void deleteById(Long id);
     void deleteByIdAndUser(Long id, User user);
     boolean existsByIdAndUser(Long id, User user);
+    MealPlanItem addItem(Long mealPlanId, User user, MealPlanItem item, Long expectedVersion);
+    MealPlanItem updateItem(Long mealPlanId, Long itemId, User user, MealPlanItem changes, Long expectedVersion);
+    void deleteItem(Long mealPlanId, Long itemId, User user, Long expectedVersion);
+    MealPlanCalendar findCalendarByUser(User user, LocalDate from, LocalDate to);
 }
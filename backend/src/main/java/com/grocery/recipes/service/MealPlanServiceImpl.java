@@ -1,21 +1,50 @@
 package com.grocery.recipes.service;
 
+import com.grocery.recipes.dto.MealPlanCalendar;
 import com.grocery.recipes.model.MealPlan;
+import com.grocery.recipes.model.MealPlanItem;
+import com.grocery.recipes.model.Recipe;
 import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.MealPlanItemRepository;
 import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class MealPlanServiceImpl implements MealPlanService {
 
     private final MealPlanRepository mealPlanRepository;
+    private final RecipeRepository recipeRepository;
+    private final MealPlanItemRepository mealPlanItemRepository;
+    private final CascadeDeletionService cascadeDeletionService;
+    private final MealPlanTemplateService mealPlanTemplateService;
+    private final DashboardStatsService dashboardStatsService;
+    private final CollectionVersionService collectionVersionService;
 
-    public MealPlanServiceImpl(MealPlanRepository mealPlanRepository) {
+    public MealPlanServiceImpl(MealPlanRepository mealPlanRepository,
+                               RecipeRepository recipeRepository,
+                               MealPlanItemRepository mealPlanItemRepository,
+                               CascadeDeletionService cascadeDeletionService,
+                               MealPlanTemplateService mealPlanTemplateService,
+                               DashboardStatsService dashboardStatsService,
+                               CollectionVersionService collectionVersionService) {
         this.mealPlanRepository = mealPlanRepository;
+        this.recipeRepository = recipeRepository;
+        this.mealPlanItemRepository = mealPlanItemRepository;
+        this.cascadeDeletionService = cascadeDeletionService;
+        this.mealPlanTemplateService = mealPlanTemplateService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.collectionVersionService = collectionVersionService;
     }
 
     @Override
@@ -23,9 +52,13 @@ public class MealPlanServiceImpl implements MealPlanService {
         return mealPlanRepository.findAll();
     }
 
+    // Plans, items and recipes in one query plus one for all recipe ingredients, however many plans there are
     @Override
+    @Transactional(readOnly = true)
     public List<MealPlan> findAllByUser(User user) {
-        return mealPlanRepository.findByUser(user);
+        List<MealPlan> mealPlans = mealPlanRepository.findByUser(user);
+        fetchRecipeIngredients(mealPlans);
+        return mealPlans;
     }
 
     @Override
@@ -34,29 +67,122 @@ public class MealPlanServiceImpl implements MealPlanService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<MealPlan> findByIdAndUser(Long id, User user) {
-        return mealPlanRepository.findByIdAndUser(id, user);
+        Optional<MealPlan> mealPlan = mealPlanRepository.findByIdAndUser(id, user);
+        mealPlan.ifPresent(plan -> fetchRecipeIngredients(List.of(plan)));
+        return mealPlan;
     }
 
     @Override
+    @Transactional
     public MealPlan save(MealPlan mealPlan) {
         mealPlan.getItems().forEach(item -> item.setMealPlan(mealPlan));
-        return mealPlanRepository.save(mealPlan);
+        // Clients that don't send a version update whatever is current; a null version would otherwise read as a new plan
+        if (mealPlan.getId() != null && mealPlan.getVersion() == null) {
+            mealPlanRepository.findVersionById(mealPlan.getId()).ifPresent(mealPlan::setVersion);
+        }
+        dashboardStatsService.evictAfterCommit(mealPlan.getUser());
+        MealPlan saved = mealPlanRepository.save(mealPlan);
+        collectionVersionService.bump(mealPlan.getUser().getId(), UserCollection.MEAL_PLANS);
+        return saved;
     }
 
     @Override
     public void deleteById(Long id) {
-        mealPlanRepository.deleteById(id);
+        cascadeDeletionService.deleteMealPlans(List.of(id));
     }
 
     @Override
     @Transactional
     public void deleteByIdAndUser(Long id, User user) {
-        mealPlanRepository.deleteByIdAndUser(id, user);
+        if (mealPlanRepository.existsByIdAndUser(id, user)) {
+            cascadeDeletionService.deleteMealPlans(List.of(id));
+            dashboardStatsService.evictAfterCommit(user);
+            collectionVersionService.bump(user.getId(), UserCollection.MEAL_PLANS);
+        }
     }
 
     @Override
     public boolean existsByIdAndUser(Long id, User user) {
         return mealPlanRepository.existsByIdAndUser(id, user);
     }
+
+    @Override
+    @Transactional
+    public MealPlanItem addItem(Long mealPlanId, User user, MealPlanItem item, Long expectedVersion) {
+        MealPlan mealPlan = lockForItemChange(mealPlanId, user, expectedVersion);
+        item.setId(null);
+        item.setMealPlan(mealPlan);
+        item.setRecipe(findRecipe(item.getRecipe(), user));
+        return mealPlanItemRepository.save(item);
+    }
+
+    @Override
+    @Transactional
+    public MealPlanItem updateItem(Long mealPlanId, Long itemId, User user, MealPlanItem changes, Long expectedVersion) {
+        MealPlan mealPlan = lockForItemChange(mealPlanId, user, expectedVersion);
+        MealPlanItem item = mealPlanItemRepository.findByIdAndMealPlan(itemId, mealPlan)
+                .orElseThrow(() -> new IllegalArgumentException("Meal plan item not found"));
+        if (changes.getDate() != null) {
+            item.setDate(changes.getDate());
+        }
+        if (changes.getRecipe() != null) {
+            item.setRecipe(findRecipe(changes.getRecipe(), user));
+        }
+        return item;
+    }
+
+    @Override
+    @Transactional
+    public void deleteItem(Long mealPlanId, Long itemId, User user, Long expectedVersion) {
+        MealPlan mealPlan = lockForItemChange(mealPlanId, user, expectedVersion);
+        MealPlanItem item = mealPlanItemRepository.findByIdAndMealPlan(itemId, mealPlan)
+                .orElseThrow(() -> new IllegalArgumentException("Meal plan item not found"));
+        mealPlanItemRepository.delete(item);
+    }
+
+    // Read-only: template weeks are written by template writes and the scheduled top-up, so a window
+    // reaching past what they have written so far comes back flagged as truncated
+    @Override
+    @Transactional(readOnly = true)
+    public MealPlanCalendar findCalendarByUser(User user, LocalDate from, LocalDate to) {
+        LocalDate completeThrough = mealPlanTemplateService.completeThrough(user, to);
+        return new MealPlanCalendar(mealPlanItemRepository.findCalendarByUser(user, from, to),
+                completeThrough.isBefore(to), completeThrough);
+    }
+
+    // Loads only the plan row and checks the caller's version; the version is bumped when the item change commits
+    private MealPlan lockForItemChange(Long mealPlanId, User user, Long expectedVersion) {
+        MealPlan mealPlan = mealPlanRepository.findForItemChange(mealPlanId, user)
+                .orElseThrow(() -> new IllegalArgumentException("Meal plan not found"));
+        if (expectedVersion != null && !expectedVersion.equals(mealPlan.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(MealPlan.class, mealPlanId);
+        }
+        collectionVersionService.bump(user.getId(), UserCollection.MEAL_PLANS);
+        return mealPlan;
+    }
+
+    private Recipe findRecipe(Recipe recipe, User user) {
+        if (recipe == null || recipe.getId() == null) {
+            throw new IllegalArgumentException("Recipe is required");
+        }
+        return recipeRepository.findByIdAndUser(recipe.getId(), user)
+                .orElseThrow(() -> new IllegalArgumentException("Recipe not found"));
+    }
+
+    // Responses are serialized after the transaction (open-in-view is off), so initialize them here
+    private void fetchRecipeIngredients(Collection<MealPlan> mealPlans) {
+        Set<Recipe> recipes = new LinkedHashSet<>();
+        for (MealPlan mealPlan : mealPlans) {
+            for (MealPlanItem item : mealPlan.getItems()) {
+                if (item.getRecipe() != null) {
+                    recipes.add(item.getRecipe());
+                }
+            }
+        }
+        if (!recipes.isEmpty()) {
+            recipeRepository.fetchIngredients(recipes);
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.MealPlanTemplate;
+import com.grocery.recipes.model.User;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface MealPlanTemplateService {
+    List<MealPlanTemplate> findAllByUser(User user);
+    MealPlanTemplate create(MealPlanTemplate template, User user);
+    void deleteByIdAndUser(Long id, User user);
+    LocalDate completeThrough(User user, LocalDate through);
+    int topUp();
+    int expandPlans(User user, Collection<Long> mealPlanIds);
+}
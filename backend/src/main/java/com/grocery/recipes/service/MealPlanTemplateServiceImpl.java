@@ -0,0 +1,280 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.MealPlanTemplateRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@Service
+public class MealPlanTemplateServiceImpl implements MealPlanTemplateService {
+
+    // Plain JDBC so all expanded rows go out as one batch; IDENTITY ids keep Hibernate from batching inserts
+    private static final String INSERT_ITEM_SQL = "insert into meal_plan_item (meal_plan_id, recipe_id, date) values (?, ?, ?)";
+
+    private final MealPlanTemplateRepository templateRepository;
+    private final MealPlanRepository mealPlanRepository;
+    private final RecipeRepository recipeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DashboardStatsService dashboardStatsService;
+    private final CollectionVersionService collectionVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean toppingUp = new AtomicBoolean(false);
+
+    // How far ahead of today a plan is written out when groceries are generated from it
+    @Value("${app.mealplans.templates.horizon-days:14}")
+    private int horizonDays;
+
+    // How far ahead of today templates are written out on create and by the top-up (the calendar's limit too)
+    @Value("${app.mealplans.max-horizon-days:366}")
+    private int maxHorizonDays;
+
+    // Upper bound on the rows one expansion (one transaction) writes; whatever is left goes to the top-up
+    @Value("${app.mealplans.templates.max-expansion-rows:2000}")
+    private int maxExpansionRows;
+
+    public MealPlanTemplateServiceImpl(MealPlanTemplateRepository templateRepository,
+                                       MealPlanRepository mealPlanRepository,
+                                       RecipeRepository recipeRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       DashboardStatsService dashboardStatsService,
+                                       CollectionVersionService collectionVersionService,
+                                       PlatformTransactionManager transactionManager) {
+        this.templateRepository = templateRepository;
+        this.mealPlanRepository = mealPlanRepository;
+        this.recipeRepository = recipeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dashboardStatsService = dashboardStatsService;
+        this.collectionVersionService = collectionVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MealPlanTemplate> findAllByUser(User user) {
+        List<MealPlanTemplate> templates = templateRepository.findByUser(user);
+        // Slot recipes are serialized with their ingredient lines; load them for all templates at once
+        Set<Recipe> recipes = new LinkedHashSet<>();
+        for (MealPlanTemplate template : templates) {
+            for (MealPlanTemplateSlot slot : template.getSlots()) {
+                recipes.add(slot.getRecipe());
+            }
+        }
+        if (!recipes.isEmpty()) {
+            recipeRepository.fetchIngredients(recipes);
+        }
+        return templates;
+    }
+
+    @Override
+    @Transactional
+    public MealPlanTemplate create(MealPlanTemplate template, User user) {
+        if (template.getName() == null || template.getName().isBlank() || template.getStartDate() == null
+                || template.getIntervalWeeks() < 1) {
+            throw new IllegalArgumentException("Template needs a name, a start date and an interval of at least one week");
+        }
+        if (template.getSlots().isEmpty()) {
+            throw new IllegalArgumentException("Template needs at least one slot");
+        }
+        if (template.getEndDate() != null && template.getEndDate().isBefore(template.getStartDate())) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        Map<Long, Recipe> recipes = new HashMap<>();
+        for (MealPlanTemplateSlot slot : template.getSlots()) {
+            if (slot.getDayOfWeek() == null || slot.getRecipe() == null || slot.getRecipe().getId() == null) {
+                throw new IllegalArgumentException("Every slot needs a day of week and a recipe");
+            }
+            Long recipeId = slot.getRecipe().getId();
+            Recipe recipe = recipes.computeIfAbsent(recipeId, id -> recipeRepository.findByIdAndUser(id, user)
+                    .orElseThrow(() -> new IllegalArgumentException("Recipe not found: " + id)));
+            slot.setId(null);
+            slot.setRecipe(recipe);
+            slot.setTemplate(template);
+        }
+
+        MealPlan mealPlan = new MealPlan();
+        mealPlan.setName(template.getName());
+        mealPlan.setUser(user);
+        mealPlanRepository.save(mealPlan);
+        dashboardStatsService.evictAfterCommit(user);
+        collectionVersionService.bump(user.getId(), UserCollection.MEAL_PLANS);
+
+        template.setId(null);
+        template.setUser(user);
+        template.setMealPlan(mealPlan);
+        template.setExpandedThrough(null);
+        MealPlanTemplate saved = templateRepository.saveAndFlush(template);
+
+        // Templates starting past the horizon are written once the top-up reaches them
+        expand(List.of(saved), LocalDate.now().plusDays(maxHorizonDays));
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteByIdAndUser(Long id, User user) {
+        // Items already written out stay in the plan; the template just stops producing new weeks
+        MealPlanTemplate template = templateRepository.findByIdAndUser(id, user)
+                .orElseThrow(() -> new IllegalArgumentException("Template not found"));
+        templateRepository.delete(template);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LocalDate completeThrough(User user, LocalDate through) {
+        LocalDate complete = through;
+        for (Object[] row : templateRepository.findPendingCoverage(user, through)) {
+            LocalDate expandedThrough = (LocalDate) row[0];
+            LocalDate covered = expandedThrough != null ? expandedThrough : ((LocalDate) row[1]).minusDays(1);
+            if (covered.isBefore(complete)) {
+                complete = covered;
+            }
+        }
+        return complete;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mealplans.templates.top-up-interval-ms:600000}",
+            initialDelayString = "${app.mealplans.templates.top-up-interval-ms:600000}")
+    public void scheduledTopUp() {
+        if (!toppingUp.get()) {
+            topUp();
+        }
+    }
+
+    @Override
+    public int topUp() {
+        if (!toppingUp.compareAndSet(false, true)) {
+            throw new IllegalStateException("Meal plan template top-up is already running");
+        }
+        try {
+            LocalDate through = LocalDate.now().plusDays(maxHorizonDays);
+            int written = 0;
+            // One transaction of at most maxExpansionRows per round; a round in which no template
+            // moved on means the rest is written by another instance (or nothing is left)
+            while (true) {
+                int[] round = transactionTemplate.execute(status -> {
+                    List<Long> ids = templateRepository.findPendingExpansionIds(through, PageRequest.of(0, 100));
+                    if (ids.isEmpty()) {
+                        return new int[]{0, 0};
+                    }
+                    List<MealPlanTemplate> templates = new ArrayList<>(templateRepository.findByIdIn(ids));
+                    templates.sort(Comparator.comparing(MealPlanTemplate::getId));
+                    Map<Long, LocalDate> before = new HashMap<>();
+                    templates.forEach(t -> before.put(t.getId(), t.getExpandedThrough()));
+                    int rows = expand(templates, through);
+                    int advanced = (int) templates.stream()
+                            .filter(t -> !Objects.equals(before.get(t.getId()), t.getExpandedThrough()))
+                            .count();
+                    return new int[]{rows, advanced};
+                });
+                written += round[0];
+                if (round[1] == 0) {
+                    break;
+                }
+            }
+            if (written > 0) {
+                log.info("Meal plan template top-up wrote {} items through {}", written, through);
+            }
+            return written;
+        } finally {
+            toppingUp.set(false);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int expandPlans(User user, Collection<Long> mealPlanIds) {
+        if (mealPlanIds.isEmpty()) {
+            return 0;
+        }
+        LocalDate through = LocalDate.now().plusDays(horizonDays);
+        return expand(templateRepository.findPendingExpansionForPlans(user, mealPlanIds, through), through);
+    }
+
+    private int expand(List<MealPlanTemplate> templates, LocalDate through) {
+        List<Object[]> rows = new ArrayList<>();
+        Set<Long> touchedPlans = new HashSet<>();
+        Set<Long> touchedUsers = new HashSet<>();
+        for (MealPlanTemplate template : templates) {
+            int budget = maxExpansionRows - rows.size();
+            if (budget <= 0) {
+                break;
+            }
+            LocalDate previous = template.getExpandedThrough();
+            LocalDate from = previous == null ? template.getStartDate() : previous.plusDays(1);
+            LocalDate to = template.getEndDate() != null && template.getEndDate().isBefore(through)
+                    ? template.getEndDate() : through;
+            if (to.isBefore(from)) {
+                continue;
+            }
+            List<Object[]> templateRows = new ArrayList<>();
+            LocalDate covered = occurrences(template, from, to, budget, templateRows);
+            if (covered == null) {
+                break;
+            }
+            int claimed = previous == null
+                    ? templateRepository.startExpandedThrough(template.getId(), covered)
+                    : templateRepository.advanceExpandedThrough(template.getId(), previous, covered);
+            if (claimed == 0) {
+                continue; // another request already wrote these weeks
+            }
+            template.setExpandedThrough(covered);
+            if (!templateRows.isEmpty()) {
+                rows.addAll(templateRows);
+                touchedPlans.add(template.getMealPlan().getId());
+                touchedUsers.add(template.getUser().getId());
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, rows);
+            // New items are a change to the plan, so clients holding the old version must refetch
+            mealPlanRepository.incrementVersions(touchedPlans);
+            touchedUsers.forEach(userId -> collectionVersionService.bump(userId, UserCollection.MEAL_PLANS));
+        }
+        return rows.size();
+    }
+
+    // Adds the template's rows for from..to, stopping before the first date that would take them past
+    // limit; returns the last date covered, or null when not even the first planned date fits
+    private LocalDate occurrences(MealPlanTemplate template, LocalDate from, LocalDate to, int limit,
+                                  List<Object[]> rows) {
+        Map<DayOfWeek, List<Long>> recipesByDay = new EnumMap<>(DayOfWeek.class);
+        for (MealPlanTemplateSlot slot : template.getSlots()) {
+            recipesByDay.computeIfAbsent(slot.getDayOfWeek(), d -> new ArrayList<>()).add(slot.getRecipe().getId());
+        }
+        LocalDate firstWeek = template.getStartDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+        LocalDate date = from;
+        for (; !date.isAfter(to); date = date.plusDays(1)) {
+            List<Long> recipeIds = recipesByDay.get(date.getDayOfWeek());
+            if (recipeIds == null) continue;
+            long week = ChronoUnit.WEEKS.between(firstWeek, date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            if (week % template.getIntervalWeeks() != 0) continue;
+            if (rows.size() + recipeIds.size() > limit) break;
+            for (Long recipeId : recipeIds) {
+                rows.add(new Object[]{template.getMealPlan().getId(), recipeId, Date.valueOf(date)});
+            }
+        }
+        LocalDate covered = date.minusDays(1);
+        return covered.isBefore(from) ? null : covered;
+    }
+}
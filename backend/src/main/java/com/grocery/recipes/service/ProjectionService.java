@@ -0,0 +1,167 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.dto.MealPlanItemView;
+import com.grocery.recipes.dto.MealPlanView;
+import com.grocery.recipes.dto.RecipeIngredientView;
+import com.grocery.recipes.dto.RecipeView;
+import com.grocery.recipes.repository.MealPlanItemRepository;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeIngredientRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse recipe and meal plan responses for ?fields= (columns) and ?expand= (nested lines). Each
+ * part is read with a constructor-expression query straight into its DTO, so no entity is loaded
+ * and nothing that was not asked for is serialized: a recipe's description is only selected when
+ * requested, ingredient lines only when expanded, and meal plan items carry just the recipe's id,
+ * name and servings unless its ingredients are expanded too. Every expansion is one more query,
+ * however many rows it covers.
+ */
+@Service
+public class ProjectionService {
+
+    public static final Selection.Spec RECIPES = new Selection.Spec(
+            Set.of("id", "name", "description", "servings"), Set.of("id", "name", "servings"),
+            Set.of("ingredients"));
+    public static final Selection.Spec MEAL_PLANS = new Selection.Spec(
+            Set.of("id", "name", "createdAt", "version"), Set.of("id", "name", "createdAt", "version"),
+            Set.of("items", "items.recipe.ingredients"));
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final MealPlanRepository mealPlanRepository;
+    private final MealPlanItemRepository mealPlanItemRepository;
+
+    public ProjectionService(RecipeRepository recipeRepository,
+                             RecipeIngredientRepository recipeIngredientRepository,
+                             MealPlanRepository mealPlanRepository,
+                             MealPlanItemRepository mealPlanItemRepository) {
+        this.recipeRepository = recipeRepository;
+        this.recipeIngredientRepository = recipeIngredientRepository;
+        this.mealPlanRepository = mealPlanRepository;
+        this.mealPlanItemRepository = mealPlanItemRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeView> recipes(Long userId, Selection selection) {
+        List<RecipeView> recipes = selection.fields().contains("description")
+                ? recipeRepository.findViewsWithDescriptionByUserId(userId)
+                : recipeRepository.findViewsByUserId(userId);
+        if (selection.expands("ingredients") && !recipes.isEmpty()) {
+            attachIngredients(recipes, recipeIngredientRepository.findViewsByUserId(userId));
+        }
+        recipes.forEach(recipe -> recipe.retain(selection.fields()));
+        return recipes;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<RecipeView> recipe(Long id, Long userId, Selection selection) {
+        Optional<RecipeView> recipe = selection.fields().contains("description")
+                ? recipeRepository.findViewWithDescriptionByIdAndUserId(id, userId)
+                : recipeRepository.findViewByIdAndUserId(id, userId);
+        recipe.ifPresent(view -> {
+            if (selection.expands("ingredients")) {
+                attachIngredients(List.of(view), recipeIngredientRepository.findViewsByRecipeIds(List.of(id)));
+            }
+            view.retain(selection.fields());
+        });
+        return recipe;
+    }
+
+    @Transactional(readOnly = true)
+    public List<MealPlanView> mealPlans(Long userId, Selection selection) {
+        List<MealPlanView> mealPlans = mealPlanRepository.findViewsByUserId(userId);
+        if (selection.expands("items") && !mealPlans.isEmpty()) {
+            attachItems(mealPlans, mealPlanItemRepository.findViewsByUserId(userId),
+                    selection.expands("items.recipe.ingredients"));
+        }
+        mealPlans.forEach(mealPlan -> mealPlan.retain(selection.fields()));
+        return mealPlans;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<MealPlanView> mealPlan(Long id, Long userId, Selection selection) {
+        Optional<MealPlanView> mealPlan = mealPlanRepository.findViewByIdAndUserId(id, userId);
+        mealPlan.ifPresent(view -> {
+            if (selection.expands("items")) {
+                attachItems(List.of(view), mealPlanItemRepository.findViewsByMealPlanId(id),
+                        selection.expands("items.recipe.ingredients"));
+            }
+            view.retain(selection.fields());
+        });
+        return mealPlan;
+    }
+
+    private void attachIngredients(List<RecipeView> recipes, List<RecipeIngredientView> lines) {
+        Map<Long, List<RecipeIngredientView>> byRecipe = lines.stream()
+                .collect(Collectors.groupingBy(RecipeIngredientView::getRecipeId));
+        for (RecipeView recipe : recipes) {
+            recipe.setIngredients(byRecipe.getOrDefault(recipe.getId(), List.of()));
+        }
+    }
+
+    private void attachItems(List<MealPlanView> mealPlans, List<MealPlanItemView> items, boolean withIngredients) {
+        Map<Long, List<MealPlanItemView>> byPlan = items.stream()
+                .collect(Collectors.groupingBy(MealPlanItemView::getMealPlanId));
+        for (MealPlanView mealPlan : mealPlans) {
+            mealPlan.setItems(byPlan.getOrDefault(mealPlan.getId(), List.of()));
+        }
+        if (withIngredients && !items.isEmpty()) {
+            Set<Long> recipeIds = items.stream().map(item -> item.getRecipe().getId()).collect(Collectors.toSet());
+            Map<Long, List<RecipeIngredientView>> byRecipe = recipeIngredientRepository.findViewsByRecipeIds(recipeIds)
+                    .stream().collect(Collectors.groupingBy(RecipeIngredientView::getRecipeId));
+            for (MealPlanItemView item : items) {
+                item.getRecipe().setIngredients(byRecipe.getOrDefault(item.getRecipe().getId(), List.of()));
+            }
+        }
+    }
+
+    /**
+     * A parsed ?fields= / ?expand= pair. Names are comma separated; an expansion also implies its
+     * parents (items.recipe.ingredients implies items), and id is always included.
+     */
+    public record Selection(Set<String> fields, Set<String> expand) {
+
+        public record Spec(Set<String> fields, Set<String> defaultFields, Set<String> expansions) {
+        }
+
+        // Null when neither parameter is given, so callers keep the full entity response
+        public static Selection parse(String fields, String expand, Spec spec) {
+            if (fields == null && expand == null) {
+                return null;
+            }
+            Set<String> selected = fields == null ? new HashSet<>(spec.defaultFields()) : names(fields, spec.fields(), "field");
+            selected.add("id");
+            Set<String> expanded = new HashSet<>();
+            for (String name : expand == null ? Set.<String>of() : names(expand, spec.expansions(), "expansion")) {
+                for (int dot = name.indexOf('.'); dot > 0; dot = name.indexOf('.', dot + 1)) {
+                    expanded.add(name.substring(0, dot));
+                }
+                expanded.add(name);
+            }
+            return new Selection(Set.copyOf(selected), Set.copyOf(expanded));
+        }
+
+        public boolean expands(String name) {
+            return expand.contains(name);
+        }
+
+        private static Set<String> names(String value, Set<String> allowed, String kind) {
+            Set<String> names = new HashSet<>();
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if (trimmed.isEmpty()) continue;
+                if (!allowed.contains(trimmed)) {
+                    throw new IllegalArgumentException("Unknown " + kind + " " + trimmed);
+                }
+                names.add(trimmed);
+            }
+            return names;
+        }
+    }
+}
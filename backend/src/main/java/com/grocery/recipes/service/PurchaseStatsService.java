@@ -0,0 +1,209 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.dto.PurchaseItemStat;
+import com.grocery.recipes.dto.WeeklyPurchaseStat;
+import com.grocery.recipes.model.GroceryItem;
+import com.grocery.recipes.model.GroceryPurchaseRollup;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.GroceryItemArchiveRepository;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import com.grocery.recipes.repository.GroceryPurchaseRollupRepository;
+import com.grocery.recipes.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Purchase analytics served from grocery_purchase_rollup instead of the raw item history.
+ * Marking items purchased or unpurchased applies signed deltas to the affected (item, unit,
+ * week) buckets in the same transaction, under a lock on the user row so concurrent requests
+ * can't both insert the same bucket. rebuild() recomputes every user's buckets from history,
+ * live and archived.
+ */
+@Service
+public class PurchaseStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseStatsService.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final GroceryPurchaseRollupRepository rollupRepository;
+    private final GroceryItemRepository groceryItemRepository;
+    private final GroceryItemArchiveRepository groceryItemArchiveRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+
+    @Value("${app.purchase-stats.rebuild-chunk-size:200}")
+    private int rebuildChunkSize;
+
+    public PurchaseStatsService(GroceryPurchaseRollupRepository rollupRepository,
+                                GroceryItemRepository groceryItemRepository,
+                                GroceryItemArchiveRepository groceryItemArchiveRepository,
+                                UserRepository userRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.groceryItemRepository = groceryItemRepository;
+        this.groceryItemArchiveRepository = groceryItemArchiveRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Adds (sign = 1) or removes (sign = -1) the purchases of the given items; unpurchased items are ignored
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(User user, Collection<GroceryItem> items, int sign) {
+        Map<BucketKey, Bucket> buckets = new LinkedHashMap<>();
+        for (GroceryItem item : items) {
+            if (item.isPurchased()) {
+                add(buckets, item.getItemName(), item.getUnit(), item.getQuantity(), item.getDatePurchased());
+            }
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+        userRepository.lockByIds(List.of(user.getId()));
+        for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+            BucketKey key = entry.getKey();
+            Bucket bucket = entry.getValue();
+            long count = sign * bucket.count;
+            double quantity = sign * bucket.quantity;
+            int updated = rollupRepository.increment(user.getId(), key.weekStart, key.itemKey, key.unitKey, count, quantity);
+            if (updated == 0 && sign > 0) {
+                rollupRepository.save(newRollup(user, key, bucket));
+            }
+        }
+        if (sign < 0) {
+            rollupRepository.deleteEmptyByUserId(user.getId());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<PurchaseItemStat> topItems(Long userId, int weeks, int limit) {
+        return rollupRepository.findTopItems(userId, firstWeek(weeks), PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<WeeklyPurchaseStat> weekly(Long userId, int weeks) {
+        return rollupRepository.findWeekly(userId, firstWeek(weeks));
+    }
+
+    // Recomputes all rollups from purchase history, one chunk of users per transaction
+    public RebuildReport rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Purchase rollup rebuild is already running");
+        }
+        try {
+            long users = 0;
+            long rollups = 0;
+            long lastUserId = 0;
+            while (true) {
+                List<Long> userIds = userRepository.findIdsAfter(lastUserId, PageRequest.of(0, rebuildChunkSize));
+                if (userIds.isEmpty()) break;
+                Integer written = transactionTemplate.execute(status -> rebuildUsers(userIds));
+                users += userIds.size();
+                rollups += written == null ? 0 : written;
+                lastUserId = userIds.get(userIds.size() - 1);
+            }
+            log.info("Rebuilt {} purchase rollups for {} users", rollups, users);
+            return new RebuildReport(users, rollups);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private int rebuildUsers(List<Long> userIds) {
+        Map<Long, User> lockedUsers = new HashMap<>();
+        for (User user : userRepository.lockByIds(userIds)) {
+            lockedUsers.put(user.getId(), user);
+        }
+        Map<Long, Map<BucketKey, Bucket>> bucketsByUser = new HashMap<>();
+        List<Object[]> history = new ArrayList<>(groceryItemRepository.findPurchaseHistory(userIds));
+        history.addAll(groceryItemArchiveRepository.findPurchaseHistory(userIds));
+        for (Object[] row : history) {
+            add(bucketsByUser.computeIfAbsent((Long) row[0], k -> new LinkedHashMap<>()),
+                    (String) row[1], (String) row[2], (Double) row[3], (String) row[4]);
+        }
+
+        rollupRepository.deleteByUserIds(userIds);
+        List<GroceryPurchaseRollup> rollups = new ArrayList<>();
+        bucketsByUser.forEach((userId, buckets) -> buckets.forEach((key, bucket) ->
+                rollups.add(newRollup(lockedUsers.get(userId), key, bucket))));
+        rollupRepository.saveAll(rollups);
+        return rollups.size();
+    }
+
+    private void add(Map<BucketKey, Bucket> buckets, String itemName, String unit, double quantity, String datePurchased) {
+        LocalDate weekStart = weekStart(datePurchased);
+        if (weekStart == null || itemName == null) {
+            return;
+        }
+        BucketKey key = new BucketKey(weekStart, itemName.trim().toLowerCase(Locale.ROOT),
+                unit == null ? "" : unit.trim().toLowerCase(Locale.ROOT));
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(itemName.trim()));
+        bucket.count++;
+        bucket.quantity += quantity;
+    }
+
+    private GroceryPurchaseRollup newRollup(User user, BucketKey key, Bucket bucket) {
+        GroceryPurchaseRollup rollup = new GroceryPurchaseRollup();
+        rollup.setUser(user);
+        rollup.setWeekStart(key.weekStart);
+        rollup.setItemKey(key.itemKey);
+        rollup.setUnitKey(key.unitKey);
+        rollup.setItemName(bucket.itemName);
+        rollup.setPurchaseCount(bucket.count);
+        rollup.setTotalQuantity(bucket.quantity);
+        return rollup;
+    }
+
+    private static LocalDate weekStart(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.trim(), DATE_FORMAT).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Monday of the oldest week in a window of the given number of weeks ending with the current one
+    private static LocalDate firstWeek(int weeks) {
+        return LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(weeks - 1L);
+    }
+
+    private record BucketKey(LocalDate weekStart, String itemKey, String unitKey) {
+    }
+
+    private static final class Bucket {
+        private final String itemName;
+        private long count;
+        private double quantity;
+
+        private Bucket(String itemName) {
+            this.itemName = itemName;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RebuildReport {
+        private long users;
+        private long rollups;
+    }
+}
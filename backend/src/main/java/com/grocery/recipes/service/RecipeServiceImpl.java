@@ -8,9 +8,11 @@ import com.grocery.recipes.repository.IngredientRepository;
 import com.grocery.recipes.repository.MealPlanItemRepository;
 import com.grocery.recipes.repository.RecipeIngredientRepository;
 import com.grocery.recipes.repository.RecipeRepository;
-import jakarta.transaction.Transactional;
+import com.grocery.recipes.service.CollectionVersionService.UserCollection;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,14 +23,23 @@ public class RecipeServiceImpl implements RecipeService {
 
     private final RecipeRepository recipeRepository;
     private final MealPlanItemRepository mealPlanItemRepository;
+    private final CascadeDeletionService cascadeDeletionService;
+    private final DashboardStatsService dashboardStatsService;
+    private final CollectionVersionService collectionVersionService;
     @Autowired
     private IngredientRepository ingredientRepository;
     @Autowired
     private RecipeIngredientRepository recipeIngredientRepository;
 
-    public RecipeServiceImpl(RecipeRepository recipeRepository, MealPlanItemRepository mealPlanItemRepository) {
+    public RecipeServiceImpl(RecipeRepository recipeRepository, MealPlanItemRepository mealPlanItemRepository,
+                             CascadeDeletionService cascadeDeletionService,
+                             DashboardStatsService dashboardStatsService,
+                             CollectionVersionService collectionVersionService) {
         this.recipeRepository = recipeRepository;
         this.mealPlanItemRepository = mealPlanItemRepository;
+        this.cascadeDeletionService = cascadeDeletionService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.collectionVersionService = collectionVersionService;
     }
 
     @Override
@@ -37,6 +48,7 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Recipe> findAllByUser(User user) {
         return recipeRepository.findByUser(user);
     }
@@ -47,12 +59,14 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Recipe> findByIdAndUser(Long id, User user) {
         return recipeRepository.findByIdAndUser(id, user);
     }
 
     @Override
     @Transactional
+    @Timed("recipes.save")
     public Recipe save(Recipe recipe) {
         List<RecipeIngredient> newIngredients = new ArrayList<>();
         for (RecipeIngredient ri : recipe.getIngredients()) {
@@ -66,16 +80,12 @@ public class RecipeServiceImpl implements RecipeService {
                     // Use existing ingredient from database
                     dbIng = existingIngredient.get();
                 } else {
-                    // ID provided but not found - create new ingredient
-                    Ingredient newIngredient = new Ingredient();
-                    newIngredient.setName(ri.getIngredient().getName());
-                    dbIng = ingredientRepository.save(newIngredient);
+                    // ID provided but not found - reuse by name or create new ingredient
+                    dbIng = findOrCreateIngredient(ri.getIngredient().getName());
                 }
             } else {
-                // No ID provided - create new ingredient
-                Ingredient newIngredient = new Ingredient();
-                newIngredient.setName(ri.getIngredient() != null ? ri.getIngredient().getName() : "");
-                dbIng = ingredientRepository.save(newIngredient);
+                // No ID provided - reuse by name or create new ingredient
+                dbIng = findOrCreateIngredient(ri.getIngredient() != null ? ri.getIngredient().getName() : "");
             }
 
             RecipeIngredient newRI = new RecipeIngredient();
@@ -88,9 +98,21 @@ public class RecipeServiceImpl implements RecipeService {
             newIngredients.add(newRI);
         }
         recipe.setIngredients(newIngredients);
+        dashboardStatsService.evictAfterCommit(recipe.getUser());
+        collectionVersionService.bump(recipe.getUser().getId(), UserCollection.RECIPES);
         return recipeRepository.save(recipe);
     }
 
+    // "Tomatoes " and "tomato" resolve to the same catalogue entry instead of adding a duplicate
+    private Ingredient findOrCreateIngredient(String name) {
+        return ingredientRepository.findFirstByNormalizedName(IngredientNames.canonical(name))
+                .orElseGet(() -> {
+                    Ingredient newIngredient = new Ingredient();
+                    newIngredient.setName(name);
+                    return ingredientRepository.save(newIngredient);
+                });
+    }
+
     @Override
     @Transactional
     public void deleteById(Long id) {
@@ -98,17 +120,15 @@ public class RecipeServiceImpl implements RecipeService {
 //        if (usageCount > 0) {
 //            throw new IllegalStateException("Recipe is used in one or more meal plans and cannot be deleted.");
 //        }
-        mealPlanItemRepository.deleteByRecipeId(id); // Remove references
-
-        recipeRepository.deleteById(id);
+        // Meal plan items, template slots and ingredient lines go first, as bulk deletes
+        cascadeDeletionService.deleteRecipes(List.of(id));
     }
 
     @Override
     @Transactional
     public void deleteByIdAndUser(Long id, User user) {
         // Check if recipe belongs to user and if it's used in meal plans
-        Optional<Recipe> recipeOpt = recipeRepository.findByIdAndUser(id, user);
-        if (recipeOpt.isEmpty()) {
+        if (!recipeRepository.existsByIdAndUser(id, user)) {
             throw new IllegalArgumentException("Recipe not found or doesn't belong to user");
         }
 
@@ -116,9 +136,9 @@ public class RecipeServiceImpl implements RecipeService {
 //        if (usageCount > 0) {
 //            throw new IllegalStateException("Recipe is used in one or more meal plans and cannot be deleted.");
 //        }
-        mealPlanItemRepository.deleteByRecipeId(id); // Remove references
-
-        recipeRepository.deleteByIdAndUser(id, user);
+        cascadeDeletionService.deleteRecipes(List.of(id));
+        dashboardStatsService.evictAfterCommit(user);
+        collectionVersionService.bump(user.getId(), UserCollection.RECIPES);
     }
 
     @Override
@@ -151,6 +171,7 @@ public class RecipeServiceImpl implements RecipeService {
         }
 
         recipeRepository.save(recipe);
+        collectionVersionService.bump(user.getId(), UserCollection.RECIPES);
     }
 
     @Override
@@ -172,5 +193,6 @@ public class RecipeServiceImpl implements RecipeService {
         }
 
         recipeRepository.saveAll(userRecipes);
+        collectionVersionService.bump(user.getId(), UserCollection.RECIPES);
     }
 }
@@ -0,0 +1,13 @@
+-- Per-user change counters behind the ETags of the list endpoints (see CollectionVersionService)
+alter table users add column if not exists recipes_version bigint not null default 0;
+alter table users add column if not exists meal_plans_version bigint not null default 0;
+alter table users add column if not exists grocery_items_version bigint not null default 0;
+
+-- Counters for data shared by all users; 'ingredients' covers the catalogue embedded in every recipe
+create table content_version (
+    name varchar(100) not null,
+    version bigint not null,
+    primary key (name)
+);
+
+insert into content_version (name, version) values ('ingredients', 0);
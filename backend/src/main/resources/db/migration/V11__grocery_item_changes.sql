@@ -0,0 +1,26 @@
+-- Delta sync for grocery items (see GroceryItemSyncService). Each write stamps the rows it touches
+-- with the user's next grocery_items_version; rows last written before this migration stay at 0.
+alter table grocery_item add column if not exists change_seq bigint not null default 0;
+
+-- Serves GET /api/groceryitems/changes: a user's rows past the client's token
+create index ix_grocery_item_user_change_seq on grocery_item (user_id, change_seq);
+
+-- Deleted items, kept for app.groceryitems.sync.tombstone-days so deltas can report them
+create table grocery_item_tombstone (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    item_id bigint not null,
+    change_seq bigint not null,
+    deleted_at timestamp(6) not null,
+    primary key (id)
+);
+
+alter table grocery_item_tombstone add constraint fk_grocery_item_tombstone_user foreign key (user_id) references users (id);
+
+create index ix_grocery_item_tombstone_user_change_seq on grocery_item_tombstone (user_id, change_seq);
+
+-- Serves the pruning job's scan for expired tombstones
+create index ix_grocery_item_tombstone_deleted_at on grocery_item_tombstone (deleted_at);
+
+-- Newest change_seq whose tombstone was pruned; tokens before it can no longer be answered
+alter table users add column if not exists grocery_sync_floor bigint not null default 0;
@@ -0,0 +1,16 @@
+-- Client operation ids already applied by POST /api/groceryitems/ops (see GroceryItemOpsService).
+-- A replayed op returns its recorded status instead of being applied twice; item_id also lets a
+-- later batch refer to an item by the op id of the add that created it.
+create table grocery_item_op (
+    user_id bigint not null,
+    op_id varchar(64) not null,
+    status varchar(20) not null,
+    item_id bigint,
+    applied_at timestamp(6) not null,
+    primary key (user_id, op_id)
+);
+
+alter table grocery_item_op add constraint fk_grocery_item_op_user foreign key (user_id) references users (id);
+
+-- Serves the retention cleanup
+create index ix_grocery_item_op_applied_at on grocery_item_op (applied_at);
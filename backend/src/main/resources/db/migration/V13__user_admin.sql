@@ -0,0 +1,2 @@
+-- Administrators (ROLE_ADMIN) may run the /api/admin maintenance jobs; granted directly in the database
+alter table users add column if not exists is_admin boolean not null default false;
@@ -0,0 +1,6 @@
+-- MealPlanItemRepository.findCalendarByUser: lead with the plan, so each of the user's plans is
+-- one bounded range seek on date instead of reading every user's items in the window
+drop index if exists ix_meal_plan_item_date;
+create index if not exists ix_meal_plan_item_plan_date on meal_plan_item (meal_plan_id, date);
+-- Superseded by the composite index, which serves the same MealPlan.items lookups
+drop index if exists ix_meal_plan_item_meal_plan;
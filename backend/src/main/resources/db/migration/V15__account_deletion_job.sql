@@ -0,0 +1,15 @@
+-- Background account deletions (see AccountDeletionService). The row is written with the
+-- deactivation, so a restart finds unfinished jobs and resumes them. user_id has no foreign
+-- key because the user row is the last thing a job deletes.
+create table account_deletion_job (
+    id varchar(36) not null,
+    user_id bigint not null,
+    status varchar(20) not null,
+    requested_at timestamp(6) not null,
+    finished_at timestamp(6),
+    error varchar(1000),
+    primary key (id)
+);
+
+-- AccountDeletionJobRepository lookups by user when a deletion is requested or resumed
+create index if not exists ix_account_deletion_job_user on account_deletion_job (user_id);
@@ -0,0 +1,5 @@
+-- Which instance runs an account deletion job and when it last reported in. A job is only
+-- resumed from this table, and only once its heartbeat has gone stale, so a job still running
+-- on another instance is left alone.
+alter table account_deletion_job add column if not exists claimed_by varchar(36);
+alter table account_deletion_job add column if not exists heartbeat_at timestamp(6);
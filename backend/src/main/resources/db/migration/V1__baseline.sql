@@ -0,0 +1,114 @@
+-- Baseline: schema as it existed before versioned migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and only receive the migrations that follow.
+
+create table users (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    email varchar(255) not null unique,
+    phone_area_code varchar(255) not null,
+    phone_number varchar(255) not null,
+    password_hash varchar(255) not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    is_active boolean not null,
+    primary key (id)
+);
+
+create table refresh_tokens (
+    id bigint generated by default as identity,
+    version bigint,
+    token varchar(255) not null unique,
+    user_id bigint not null,
+    expiry_date timestamp(6) not null,
+    created_at timestamp(6) not null,
+    device_info varchar(255),
+    is_active boolean not null,
+    primary key (id)
+);
+
+create table ingredient (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    primary key (id)
+);
+
+create table recipe (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    description text,
+    servings integer not null check ((servings <= 100) and (servings >= 1)),
+    user_id bigint,
+    primary key (id)
+);
+
+create table recipe_ingredient (
+    id bigint generated by default as identity,
+    recipe_id bigint,
+    ingredient_id bigint not null,
+    quantity float(53) not null check (quantity >= 0),
+    unit varchar(255),
+    note varchar(255),
+    primary key (id)
+);
+
+create table meal_plan (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    created_at timestamp(6),
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table meal_plan_item (
+    id bigint generated by default as identity,
+    meal_plan_id bigint not null,
+    recipe_id bigint not null,
+    date date not null,
+    primary key (id)
+);
+
+create table grocery_item (
+    id bigint generated by default as identity,
+    item_name varchar(255) not null,
+    unit varchar(255),
+    quantity float(53) not null,
+    note varchar(255),
+    date_added varchar(255),
+    purchased boolean not null,
+    date_purchased varchar(255),
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table grocery_list (
+    id bigint generated by default as identity,
+    name varchar(255),
+    date varchar(255),
+    completed boolean not null,
+    meal_plan_id bigint,
+    primary key (id)
+);
+
+create table grocery_list_entry (
+    id bigint generated by default as identity,
+    ingredient_id bigint,
+    ingredient_name varchar(255),
+    unit varchar(255),
+    quantity float(53) not null,
+    note varchar(255),
+    purchased boolean not null,
+    grocery_list_id bigint,
+    primary key (id)
+);
+
+alter table refresh_tokens add constraint fk_refresh_tokens_user foreign key (user_id) references users (id);
+alter table recipe add constraint fk_recipe_user foreign key (user_id) references users (id);
+alter table recipe_ingredient add constraint fk_recipe_ingredient_recipe foreign key (recipe_id) references recipe (id);
+alter table recipe_ingredient add constraint fk_recipe_ingredient_ingredient foreign key (ingredient_id) references ingredient (id);
+alter table meal_plan add constraint fk_meal_plan_user foreign key (user_id) references users (id);
+alter table meal_plan_item add constraint fk_meal_plan_item_meal_plan foreign key (meal_plan_id) references meal_plan (id);
+alter table meal_plan_item add constraint fk_meal_plan_item_recipe foreign key (recipe_id) references recipe (id);
+alter table grocery_item add constraint fk_grocery_item_user foreign key (user_id) references users (id);
+alter table grocery_list add constraint fk_grocery_list_meal_plan foreign key (meal_plan_id) references meal_plan (id);
+alter table grocery_list_entry add constraint fk_grocery_list_entry_grocery_list foreign key (grocery_list_id) references grocery_list (id);
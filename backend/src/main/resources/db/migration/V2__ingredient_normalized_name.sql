@@ -0,0 +1,5 @@
+-- Canonical ingredient name used for deduplication (see IngredientCanonicalizationService).
+-- Stays NULL until the canonicalization job has processed the row.
+alter table ingredient add column if not exists normalized_name varchar(255);
+
+create unique index if not exists ux_ingredient_normalized_name on ingredient (normalized_name);
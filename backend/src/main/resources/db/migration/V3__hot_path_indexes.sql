@@ -0,0 +1,24 @@
+-- PostgreSQL does not index foreign keys on its own; these cover the lookups the services run.
+
+-- RecipeIngredientRepository.countByIngredientId, canonicalization repointing
+create index if not exists ix_recipe_ingredient_ingredient on recipe_ingredient (ingredient_id);
+-- Recipe.ingredients collection loads
+create index if not exists ix_recipe_ingredient_recipe on recipe_ingredient (recipe_id);
+
+-- MealPlanItemRepository.countByRecipeId / deleteByRecipeId
+create index if not exists ix_meal_plan_item_recipe on meal_plan_item (recipe_id);
+-- MealPlan.items collection loads
+create index if not exists ix_meal_plan_item_meal_plan on meal_plan_item (meal_plan_id);
+
+-- RecipeRepository.findByUser, MealPlanRepository.findByUser
+create index if not exists ix_recipe_user on recipe (user_id);
+create index if not exists ix_meal_plan_user on meal_plan (user_id);
+
+-- GroceryItemRepository.findByUserAndPurchased... and findMergableActiveByUser
+create index if not exists ix_grocery_item_user_purchased on grocery_item (user_id, purchased);
+
+-- RefreshTokenRepository.findByUser / deleteByUser / deactivateAllByUser
+create index if not exists ix_refresh_tokens_user on refresh_tokens (user_id);
+
+-- Legacy grocery lists (entries are loaded eagerly per list)
+create index if not exists ix_grocery_list_entry_list on grocery_list_entry (grocery_list_id);
@@ -0,0 +1,3 @@
+-- MealPlanItemRepository.findCalendarByUser: the date window bounds the rows read,
+-- not the length of the user's history
+create index if not exists ix_meal_plan_item_date on meal_plan_item (date, meal_plan_id);
@@ -0,0 +1,2 @@
+-- Optimistic version for MealPlan; item-level edits bump it so stale writes from another device fail
+alter table meal_plan add column if not exists version bigint not null default 0;
@@ -0,0 +1,30 @@
+-- Recurring meal plan templates, expanded lazily into meal_plan_item rows
+create table meal_plan_template (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    interval_weeks integer not null,
+    start_date date not null,
+    end_date date,
+    expanded_through date,
+    meal_plan_id bigint not null,
+    user_id bigint not null,
+    primary key (id)
+);
+
+create table meal_plan_template_slot (
+    id bigint generated by default as identity,
+    template_id bigint not null,
+    day_of_week varchar(16) not null,
+    recipe_id bigint not null,
+    primary key (id)
+);
+
+alter table meal_plan_template add constraint fk_meal_plan_template_meal_plan foreign key (meal_plan_id) references meal_plan (id);
+alter table meal_plan_template add constraint fk_meal_plan_template_user foreign key (user_id) references users (id);
+alter table meal_plan_template_slot add constraint fk_meal_plan_template_slot_template foreign key (template_id) references meal_plan_template (id);
+alter table meal_plan_template_slot add constraint fk_meal_plan_template_slot_recipe foreign key (recipe_id) references recipe (id);
+
+create index ix_meal_plan_template_user on meal_plan_template (user_id);
+create index ix_meal_plan_template_meal_plan on meal_plan_template (meal_plan_id);
+create index ix_meal_plan_template_slot_template on meal_plan_template_slot (template_id);
+create index ix_meal_plan_template_slot_recipe on meal_plan_template_slot (recipe_id);
@@ -0,0 +1,17 @@
+-- Per-user, per-item, per-week purchase counts backing /api/groceryitems/stats
+create table grocery_purchase_rollup (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    week_start date not null,
+    item_key varchar(255) not null,
+    unit_key varchar(255) not null,
+    item_name varchar(255) not null,
+    purchase_count bigint not null,
+    total_quantity float(53) not null,
+    primary key (id)
+);
+
+alter table grocery_purchase_rollup add constraint fk_grocery_purchase_rollup_user foreign key (user_id) references users (id);
+
+-- Serves the incremental update lookup and the per-user week range scans
+create unique index ux_grocery_purchase_rollup_key on grocery_purchase_rollup (user_id, week_start, item_key, unit_key);
@@ -0,0 +1,29 @@
+-- Typed purchase date so old purchases can be found by range; date_purchased stays the API value
+alter table grocery_item add column purchased_on date;
+
+update grocery_item set purchased_on = to_date(date_purchased, 'DD-MM-YYYY')
+where purchased = true and date_purchased like '__-__-____';
+
+-- Serves the archival job's scan for purchases older than the cutoff
+create index ix_grocery_item_purchased_on on grocery_item (purchased_on);
+
+-- Cold storage for purchased items past app.groceryitems.archive.after-days (see GroceryItemArchivalService).
+-- Rows keep their original id.
+create table grocery_item_archive (
+    id bigint not null,
+    item_name varchar(255) not null,
+    unit varchar(255),
+    quantity float(53) not null,
+    note varchar(255),
+    date_added varchar(255),
+    date_purchased varchar(255),
+    purchased_on date,
+    user_id bigint not null,
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+alter table grocery_item_archive add constraint fk_grocery_item_archive_user foreign key (user_id) references users (id);
+
+-- Serves paging a user's archived history newest first
+create index ix_grocery_item_archive_user on grocery_item_archive (user_id, purchased_on);
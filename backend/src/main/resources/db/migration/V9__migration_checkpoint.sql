@@ -0,0 +1,12 @@
+-- Progress of resumable data migration jobs, keyed by job name (see GroceryListMigrationService).
+-- last_id is written in the same transaction as each migrated chunk.
+create table migration_checkpoint (
+    name varchar(100) not null,
+    last_id bigint not null,
+    processed bigint not null,
+    migrated bigint not null,
+    skipped bigint not null,
+    updated_at timestamp(6),
+    completed_at timestamp(6),
+    primary key (name)
+);
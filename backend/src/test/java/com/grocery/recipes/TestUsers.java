@@ -0,0 +1,58 @@
+package com.grocery.recipes;
+
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.UserRepository;
+import com.grocery.recipes.security.JwtUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Users and bearer tokens for tests. Every user gets its own email and phone number, so tests
+ * sharing a Spring context (and so a database) never collide on them.
+ */
+@Component
+public class TestUsers {
+
+    // Ten digits, so they never meet the shorter numbers tests register through the API
+    private static final AtomicLong PHONE_NUMBERS = new AtomicLong(1_000_000_000L);
+
+    private final UserRepository userRepository;
+    private final JwtUtils jwtUtils;
+
+    public TestUsers(UserRepository userRepository, JwtUtils jwtUtils) {
+        this.userRepository = userRepository;
+        this.jwtUtils = jwtUtils;
+    }
+
+    // Not saved, for tests that seed the user together with its data
+    public static User newUser() {
+        User user = new User();
+        user.setName("Test user");
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPhoneAreaCode("+1");
+        user.setPhoneNumber(String.valueOf(PHONE_NUMBERS.incrementAndGet()));
+        user.setPasswordHash("hash");
+        return user;
+    }
+
+    public User seed() {
+        return userRepository.save(newUser());
+    }
+
+    public User seedAdmin() {
+        User user = newUser();
+        user.setAdmin(true);
+        return userRepository.save(user);
+    }
+
+    // A token for a fresh user, for tests that never look at the user itself
+    public String token() {
+        return token(seed());
+    }
+
+    public String token(User user) {
+        return jwtUtils.generateJwtToken(user.getEmail(), user.getId());
+    }
+}
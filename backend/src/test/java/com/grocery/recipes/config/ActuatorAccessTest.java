@@ -0,0 +1,34 @@
+package com.grocery.recipes.config;
+
+import com.grocery.recipes.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActuatorAccessTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+
+    @Test
+    void metricsOnTheAppPortNeedAnAdministrator() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + testUsers.token()))
+                .andExpect(status().isForbidden());
+        // Metrics exporters are off in tests, so the admin check uses the cache statistics endpoint
+        mockMvc.perform(get("/actuator/ingredientcache").header("Authorization", "Bearer " + testUsers.token()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/ingredientcache").header("Authorization", "Bearer " + testUsers.token(testUsers.seedAdmin())))
+                .andExpect(status().isOk());
+    }
+}
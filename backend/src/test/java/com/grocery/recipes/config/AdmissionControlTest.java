@@ -0,0 +1,165 @@
+package com.grocery.recipes.config;
+
+import com.grocery.recipes.TestUsers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AdmissionControl admissionControl;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void heavyRequestsAreShedWhileReadsKeepWorking() throws Exception {
+        String token = testUsers.token();
+        ConcurrencyLimiter heavy = admissionControl.limiter(AdmissionControl.RequestClass.HEAVY);
+        List<Runnable> releases = new ArrayList<>();
+        try {
+            // Occupy every heavy slot, as long-running generations would
+            while (heavy.getInFlight() < heavy.getLimit()) {
+                assertThat(heavy.acquire()).isEqualTo(ConcurrencyLimiter.Outcome.ADMITTED);
+                releases.add(heavy::release);
+            }
+
+            mockMvc.perform(post("/api/groceryitems/generate-from-recipes")
+                            .header("Authorization", "Bearer " + token)
+                            .header("Origin", "http://localhost:5173")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\":[],\"date\":\"01-01-2025\"}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "5"))
+                    .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:5173"));
+
+            mockMvc.perform(get("/api/recipes").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        } finally {
+            releases.forEach(Runnable::run);
+        }
+    }
+
+    @Test
+    void waitersAreAdmittedWhenASlotFreesAndRejectedWhenTheQueueIsFull() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1, 1, 1, 1, 2000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertThat(limiter.acquire()).isEqualTo(ConcurrencyLimiter.Outcome.ADMITTED);
+            Future<ConcurrencyLimiter.Outcome> queued = executor.submit(limiter::acquire);
+            while (limiter.getWaiting() == 0) {
+                Thread.sleep(5);
+            }
+            assertThat(executor.submit(limiter::acquire).get()).isEqualTo(ConcurrencyLimiter.Outcome.QUEUE_FULL);
+
+            limiter.release();
+            assertThat(queued.get()).isEqualTo(ConcurrencyLimiter.Outcome.ADMITTED);
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        ConcurrencyLimiter noQueue = new ConcurrencyLimiter("test", 1, 1, 1, 1, 20);
+        noQueue.acquire();
+        assertThat(noQueue.acquire()).isEqualTo(ConcurrencyLimiter.Outcome.TIMED_OUT);
+    }
+
+    @Test
+    void aFreedSlotGoesToTheOldestWaiterBeforeANewCaller() throws Exception {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 1, 1, 1, 2, 2000);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertThat(limiter.acquire()).isEqualTo(ConcurrencyLimiter.Outcome.ADMITTED);
+            Future<ConcurrencyLimiter.Outcome> first = executor.submit(limiter::acquire);
+            while (limiter.getWaiting() == 0) {
+                Thread.sleep(5);
+            }
+
+            // The slot is handed over on release, so the next caller finds it taken and queues
+            limiter.release();
+            assertThat(limiter.getWaiting()).isZero();
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+            Future<ConcurrencyLimiter.Outcome> second = executor.submit(limiter::acquire);
+            assertThat(first.get()).isEqualTo(ConcurrencyLimiter.Outcome.ADMITTED);
+            while (limiter.getWaiting() == 0) {
+                Thread.sleep(5);
+            }
+            assertThat(second.isDone()).isFalse();
+
+            limiter.release();
+            assertThat(second.get()).isEqualTo(ConcurrencyLimiter.Outcome.ADMITTED);
+            assertThat(limiter.getInFlight()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void adaptiveLimitsBackOffOnSlowConnectionsAndRecoverUnderDemand() throws Exception {
+        ConcurrencyLimiter heavy = admissionControl.limiter(AdmissionControl.RequestClass.HEAVY);
+        ConcurrencyLimiter read = admissionControl.limiter(AdmissionControl.RequestClass.READ);
+        int heavyStart = heavy.getLimit();
+        int readStart = read.getLimit();
+
+        admissionControl.adjust(500);
+        admissionControl.adjust(500);
+        assertThat(heavy.getLimit()).isLessThan(heavyStart);
+        assertThat(read.getLimit()).isEqualTo(readStart);
+
+        // Grows back one step per interval, but only while demand reaches the limit
+        admissionControl.adjust(1);
+        int idle = heavy.getLimit();
+        admissionControl.adjust(1);
+        assertThat(heavy.getLimit()).isEqualTo(idle);
+        while (heavy.getLimit() < heavyStart) {
+            int before = heavy.getLimit();
+            for (int i = 0; i < before; i++) heavy.acquire();
+            for (int i = 0; i < before; i++) heavy.release();
+            admissionControl.adjust(1);
+            assertThat(heavy.getLimit()).isEqualTo(before + 1);
+        }
+    }
+
+    @Test
+    void onlyThePrimaryPoolsConnectionWaitsMoveTheLimits() {
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "primary").timer()).isNotNull();
+        ConcurrencyLimiter write = admissionControl.limiter(AdmissionControl.RequestClass.WRITE);
+        Timer replica = Timer.builder("hikaricp.connections.acquire").tag("pool", "replica").register(meterRegistry);
+        try {
+            admissionControl.adjust();
+            int before = write.getLimit();
+            // A replica that is slow to hand out connections says nothing about the write path
+            for (int i = 0; i < 10; i++) {
+                replica.record(Duration.ofSeconds(1));
+            }
+            admissionControl.adjust();
+            assertThat(write.getLimit()).isEqualTo(before);
+        } finally {
+            meterRegistry.remove(replica);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.grocery.recipes.config;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.GroceryItem;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.security.UserDetailsImpl;
+import com.grocery.recipes.service.GroceryItemService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two in-memory databases with nothing replicating between them, so every read shows where it went
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.sticky-ms=5000"})
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private GroceryItemService groceryItemService;
+    @Autowired
+    private MutableClock clock;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaUnlessTheUserJustWrote() {
+        User user = testUsers.seed();
+        groceryItemService.addItem(item(user, "Milk"));
+
+        // An anonymous write does not make anyone sticky, so the read sees the empty replica
+        assertThat(groceryItemService.findAllActiveByUser(user)).isEmpty();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                UserDetailsImpl.build(user), null, List.of()));
+        groceryItemService.addItem(item(user, "Bread"));
+        assertThat(groceryItemService.findAllActiveByUser(user)).extracting(GroceryItem::getItemName)
+                .containsExactlyInAnyOrder("Milk", "Bread");
+
+        clock.advance(Duration.ofMillis(4_999));
+        assertThat(groceryItemService.findAllActiveByUser(user)).hasSize(2);
+        clock.advance(Duration.ofMillis(2));
+        assertThat(groceryItemService.findAllActiveByUser(user)).isEmpty();
+    }
+
+    @TestConfiguration
+    static class ClockConfig {
+        @Bean
+        MutableClock clock() {
+            return new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        }
+    }
+
+    static class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private GroceryItem item(User user, String name) {
+        GroceryItem item = new GroceryItem();
+        item.setItemName(name);
+        item.setQuantity(1);
+        item.setUnit("pcs");
+        item.setUser(user);
+        return item;
+    }
+}
@@ -0,0 +1,41 @@
+package com.grocery.recipes.config;
+
+import com.grocery.recipes.TestUsers;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class RequestMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void authenticatedRequestsRecordQueryCountsPerEndpointAndAuthTiming() throws Exception {
+        mockMvc.perform(get("/api/groceryitems/active").header("Authorization", "Bearer " + testUsers.token()))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.find("hibernate.request.statements")
+                .tags("method", "GET", "uri", "/api/groceryitems/active").summary();
+        assertThat(statements).isNotNull();
+        // At least the user lookup in the token filter plus the list query
+        assertThat(statements.max()).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.find("auth.token.filter").tag("outcome", "authenticated").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isPositive());
+    }
+}
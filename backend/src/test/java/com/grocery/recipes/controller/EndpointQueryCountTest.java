@@ -0,0 +1,365 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.AccountDeletionJobRepository;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import com.grocery.recipes.repository.IngredientRepository;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import com.grocery.recipes.repository.UserRepository;
+import com.grocery.recipes.security.JwtUtils;
+import com.grocery.recipes.service.AuthService;
+import com.grocery.recipes.service.MealPlanTemplateService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every user-facing endpoint against accounts seeded at several sizes and asserts the exact
+ * number of JDBC statements each request issues. The count must not depend on how much data the
+ * account holds, so an N+1 (a lazy collection touched in a loop, a lookup per id) fails the build.
+ * Statements are counted at the DataSource, so JdbcTemplate and native SQL are included; only the
+ * request's own thread is counted, so background work a request starts (account deletion) is not.
+ * When a change legitimately adds or removes a query, update the expected count here.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryCountTest {
+
+    private static final int[] SIZES = {2, 6, 18};
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final List<String> SHARED_INGREDIENTS = List.of("Harness Onion", "Harness Rice", "Harness Oil");
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+    private static volatile Thread countedThread;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private IngredientRepository ingredientRepository;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+    @Autowired
+    private MealPlanTemplateService mealPlanTemplateService;
+    @Autowired
+    private AccountDeletionJobRepository accountDeletionJobRepository;
+    @Autowired
+    private AuthService authService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final Map<Integer, Account> accounts = new LinkedHashMap<>();
+
+    @BeforeAll
+    void seedAccounts() {
+        List<Ingredient> ingredients = transactionTemplate.execute(status -> SHARED_INGREDIENTS.stream()
+                .map(name -> {
+                    Ingredient ingredient = new Ingredient();
+                    ingredient.setName(name);
+                    return ingredientRepository.save(ingredient);
+                })
+                .toList());
+        for (int size : SIZES) {
+            accounts.put(size, seed(size, ingredients));
+        }
+    }
+
+    @TestFactory
+    Stream<DynamicTest> statementCountDoesNotGrowWithData() {
+        String today = LocalDate.now().format(DATE);
+        return Stream.of(
+                endpoint("GET /api/home/summary", 6, a -> get("/api/home/summary")),
+                endpoint("GET /api/recipes", 4, a -> get("/api/recipes")),
+                endpoint("GET /api/recipes/{id}", 3, a -> get("/api/recipes/" + a.recipeIds.get(0))),
+                endpoint("GET /api/mealplans", 5, a -> get("/api/mealplans")),
+                endpoint("GET /api/mealplans/{id}", 4, a -> get("/api/mealplans/" + a.planIds.get(0))),
+                endpoint("GET /api/recipes?fields&expand", 4, a -> get("/api/recipes")
+                        .param("fields", "name,description").param("expand", "ingredients")),
+                endpoint("GET /api/recipes/{id}?expand", 3, a -> get("/api/recipes/" + a.recipeIds.get(0))
+                        .param("expand", "ingredients")),
+                endpoint("GET /api/mealplans?expand", 5, a -> get("/api/mealplans")
+                        .param("expand", "items.recipe.ingredients")),
+                endpoint("GET /api/mealplans/{id}?fields", 2, a -> get("/api/mealplans/" + a.planIds.get(0))
+                        .param("fields", "name")),
+                endpoint("GET /api/mealplans/calendar", 4, a -> get("/api/mealplans/calendar")
+                        .param("from", today).param("to", LocalDate.now().plusDays(30).format(DATE))),
+                endpoint("GET /api/mealplans/templates", 4, a -> get("/api/mealplans/templates")),
+                endpoint("GET /api/groceryitems/active", 4, a -> get("/api/groceryitems/active")),
+                endpoint("GET /api/groceryitems/purchased", 3, a -> get("/api/groceryitems/purchased")),
+                endpoint("GET /api/groceryitems/purchased?includeArchived", 5, a -> get("/api/groceryitems/purchased")
+                        .param("page", "0").param("size", "50").param("includeArchived", "true")),
+                endpoint("GET /api/groceryitems/stats/top-items", 2, a -> get("/api/groceryitems/stats/top-items")),
+                endpoint("GET /api/groceryitems/stats/weekly", 2, a -> get("/api/groceryitems/stats/weekly")),
+                endpoint("POST /api/groceryitems", 6, a -> post("/api/groceryitems")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Harness Salt\",\"quantity\":1,\"unit\":\"g\"}")),
+                endpoint("PUT /api/groceryitems/{id}", 6, a -> put("/api/groceryitems/" + a.activeIds.get(0))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Pantry renamed\",\"quantity\":2,\"unit\":\"pcs\"}")),
+                endpoint("POST /api/groceryitems/mark-purchased", 9, a -> post("/api/groceryitems/mark-purchased")
+                        .contentType(MediaType.APPLICATION_JSON).content("[" + a.activeIds.get(1) + "]")),
+                endpoint("POST /api/groceryitems/undo-purchased", 9, a -> post("/api/groceryitems/undo-purchased")
+                        .contentType(MediaType.APPLICATION_JSON).content("[" + a.activeIds.get(1) + "]")),
+                endpoint("POST /api/groceryitems/generate-from-recipes", 9, a -> post("/api/groceryitems/generate-from-recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + a.recipeIds + ",\"date\":\"" + today + "\"}")),
+                endpoint("POST /api/groceryitems/generate-from-mealplans", 11, a -> post("/api/groceryitems/generate-from-mealplans")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":" + a.planIds + ",\"date\":\"" + today + "\"}")),
+                endpoint("POST /api/recipes", 10, a -> post("/api/recipes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recipeJson("Harness new recipe"))),
+                endpoint("PUT /api/recipes/{id}", 15, a -> put("/api/recipes/" + a.recipeIds.get(0))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recipeJson("Harness renamed recipe"))),
+                endpoint("POST /api/mealplans/{id}/items", 7, a -> post("/api/mealplans/" + a.planIds.get(0) + "/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"recipe\":{\"id\":" + a.recipeIds.get(0) + "},\"date\":\"" + today + "\"}")),
+                endpoint("DELETE /api/groceryitems/{id}", 7, a -> delete("/api/groceryitems/" + a.activeIds.get(0))),
+                endpoint("DELETE /api/mealplans/{id}", 10, a -> delete("/api/mealplans/" + a.planIds.get(a.planIds.size() - 1))),
+                endpoint("DELETE /api/recipes/{id}", 8, a -> delete("/api/recipes/" + a.recipeIds.get(a.recipeIds.size() - 1))),
+                endpoint("GET /api/auth/me", 2, a -> get("/api/auth/me")),
+                endpoint("POST /api/auth/refresh", 6, a -> post("/api/auth/refresh")
+                        .cookie(new Cookie("refreshToken", authService.createRefreshToken(a.user, "").getToken()))),
+                endpoint("GET /api/ingredients", 2, a -> get("/api/ingredients")),
+                endpoint("GET /api/ingredients/suggest", 1, a -> get("/api/ingredients/suggest").param("prefix", "harness")),
+                endpoint("GET /api/ingredients/{id}", 2, a -> get("/api/ingredients/" + a.ingredientIds.get(0))),
+                endpoint("POST /api/ingredients", 4, a -> post("/api/ingredients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Harness Spice " + UUID.randomUUID() + "\"}")),
+                endpoint("PUT /api/ingredients/{id}", 5, a -> put("/api/ingredients/" + a.ingredientIds.get(0))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Harness Renamed " + UUID.randomUUID() + "\"}")),
+                endpoint("DELETE /api/ingredients/{id}", 5, a -> delete("/api/ingredients/" + a.ingredientIds.get(1))),
+                endpoint("GET /api/groceryitems/changes?since", 5, a -> get("/api/groceryitems/changes").param("since", "0")),
+                endpoint("POST /api/groceryitems/ops", 15, a -> post("/api/groceryitems/ops")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(opsJson(a.activeIds.get(1)))),
+                endpoint("GET /api/account/deletions/{jobId}", 2, a -> get("/api/account/deletions/" + a.deletionJobId)),
+                // Last: deactivates the accounts
+                endpoint("DELETE /api/account", 8, a -> delete("/api/account"))
+        );
+    }
+
+    private DynamicTest endpoint(String name, long expected, Function<Account, MockHttpServletRequestBuilder> request) {
+        return DynamicTest.dynamicTest(name, () -> {
+            Map<Integer, Long> counts = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Account> account : accounts.entrySet()) {
+                counts.put(account.getKey(), count(account.getValue(), request.apply(account.getValue())));
+            }
+            assertThat(new HashSet<>(counts.values()))
+                    .as("%s statements by account size %s", name, counts)
+                    .containsExactly(expected);
+        });
+    }
+
+    private long count(Account account, MockHttpServletRequestBuilder request) throws Exception {
+        // Start every request cold so second-level cache hits don't vary the count
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        countedThread = Thread.currentThread();
+        STATEMENTS.set(0);
+        mockMvc.perform(request.header("Authorization", "Bearer " + account.token))
+                .andExpect(status().is2xxSuccessful());
+        return STATEMENTS.get();
+    }
+
+    // An offline batch: add an item, update it through its add op, mark it and a seeded item purchased
+    private String opsJson(Long seededItemId) {
+        String add = UUID.randomUUID().toString();
+        return "[{\"opId\":\"" + add + "\",\"type\":\"add\",\"item\":{\"itemName\":\"Harness Offline\",\"quantity\":1,\"unit\":\"g\"}},"
+                + "{\"opId\":\"" + UUID.randomUUID() + "\",\"type\":\"update\",\"ref\":\"" + add
+                + "\",\"item\":{\"itemName\":\"Harness Offline\",\"quantity\":2,\"unit\":\"g\"}},"
+                + "{\"opId\":\"" + UUID.randomUUID() + "\",\"type\":\"mark\",\"ref\":\"" + add + "\"},"
+                + "{\"opId\":\"" + UUID.randomUUID() + "\",\"type\":\"mark\",\"itemId\":" + seededItemId + "}]";
+    }
+
+    private String recipeJson(String name) {
+        StringBuilder lines = new StringBuilder();
+        for (String ingredient : SHARED_INGREDIENTS) {
+            if (!lines.isEmpty()) lines.append(',');
+            lines.append("{\"ingredient\":{\"name\":\"").append(ingredient).append("\"},\"quantity\":1,\"unit\":\"g\"}");
+        }
+        return "{\"name\":\"" + name + "\",\"servings\":2,\"ingredients\":[" + lines + "]}";
+    }
+
+    // size recipes, plans, active and purchased items, plus one recurring template
+    private Account seed(int size, List<Ingredient> ingredients) {
+        Account account = transactionTemplate.execute(status -> {
+            User user = TestUsers.newUser();
+            user.setName("Harness " + size);
+            userRepository.save(user);
+            Account seeded = new Account(user, jwtUtils.generateJwtToken(user.getEmail(), user.getId()));
+
+            List<Recipe> recipes = new ArrayList<>();
+            for (int r = 0; r < size; r++) {
+                Recipe recipe = new Recipe();
+                recipe.setName("Recipe " + r);
+                recipe.setServings(2);
+                recipe.setUser(user);
+                for (Ingredient ingredient : ingredients) {
+                    RecipeIngredient line = new RecipeIngredient();
+                    line.setRecipe(recipe);
+                    line.setIngredient(ingredient);
+                    line.setQuantity(1);
+                    line.setUnit("g");
+                    recipe.getIngredients().add(line);
+                }
+                recipes.add(recipeRepository.save(recipe));
+                seeded.recipeIds.add(recipe.getId());
+            }
+            for (int p = 0; p < size; p++) {
+                MealPlan plan = new MealPlan();
+                plan.setName("Plan " + p);
+                plan.setUser(user);
+                for (int d = 0; d < 3; d++) {
+                    MealPlanItem item = new MealPlanItem();
+                    item.setMealPlan(plan);
+                    item.setRecipe(recipes.get((p + d) % recipes.size()));
+                    item.setDate(LocalDate.now().plusDays(d));
+                    plan.getItems().add(item);
+                }
+                seeded.planIds.add(mealPlanRepository.save(plan).getId());
+            }
+            for (int i = 0; i < 2; i++) {
+                Ingredient spare = new Ingredient();
+                spare.setName("Harness Spare " + size + " " + i);
+                seeded.ingredientIds.add(ingredientRepository.save(spare).getId());
+            }
+            // A finished deletion from an earlier request, read back from the database
+            AccountDeletionJob job = new AccountDeletionJob(user.getId());
+            job.setStatus(AccountDeletionJob.Status.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            seeded.deletionJobId = accountDeletionJobRepository.save(job).getId();
+            for (int i = 0; i < size; i++) {
+                seeded.activeIds.add(groceryItemRepository.save(groceryItem(user, "Pantry " + i, null)).getId());
+                groceryItemRepository.save(groceryItem(user, "Bought " + i, LocalDate.now().minusDays(i)));
+            }
+            return seeded;
+        });
+
+        MealPlanTemplate template = new MealPlanTemplate();
+        template.setName("Weekly");
+        template.setIntervalWeeks(1);
+        template.setStartDate(LocalDate.now());
+        MealPlanTemplateSlot slot = new MealPlanTemplateSlot();
+        slot.setDayOfWeek(DayOfWeek.MONDAY);
+        slot.setRecipe(recipeRepository.getReferenceById(account.recipeIds.get(0)));
+        template.getSlots().add(slot);
+        mealPlanTemplateService.create(template, account.user);
+        return account;
+    }
+
+    private GroceryItem groceryItem(User user, String name, LocalDate purchasedOn) {
+        GroceryItem item = new GroceryItem();
+        item.setItemName(name);
+        item.setQuantity(1);
+        item.setUnit("pcs");
+        item.setDateAdded(LocalDate.now().format(DATE));
+        item.setUser(user);
+        if (purchasedOn != null) {
+            item.setPurchased(true);
+            item.setPurchasedOn(purchasedOn);
+            item.setDatePurchased(purchasedOn.format(DATE));
+        }
+        return item;
+    }
+
+    private static final class Account {
+        private final User user;
+        private final String token;
+        private final List<Long> recipeIds = new ArrayList<>();
+        private final List<Long> planIds = new ArrayList<>();
+        private final List<Long> activeIds = new ArrayList<>();
+        private final List<Long> ingredientIds = new ArrayList<>();
+        private String deletionJobId;
+
+        private Account(User user, String token) {
+            this.user = user;
+            this.token = token;
+        }
+    }
+
+    // Counts every statement prepared or created on a connection handed out by the DataSource
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                            (proxy, method, args) -> {
+                                Object result = invoke(dataSource, method, args);
+                                return result instanceof Connection connection ? countingConnection(connection) : result;
+                            });
+                }
+            };
+        }
+
+        private static Connection countingConnection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(EndpointQueryCountTest.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if ((name.equals("prepareStatement") || name.equals("prepareCall") || name.equals("createStatement"))
+                                && Thread.currentThread() == countedThread) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        return invoke(connection, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.service.GroceryItemSyncService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GroceryItemChangesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private GroceryItemSyncService groceryItemSyncService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void deltaCarriesOnlyTheRowsChangedAndDeletedSinceTheToken() throws Exception {
+        String token = testUsers.token();
+        long milk = add(token, "Sync Milk");
+        long bread = add(token, "Sync Bread");
+        long eggs = add(token, "Sync Eggs");
+
+        JsonNode snapshot = changes(token, null);
+        assertThat(snapshot.get("reset").asBoolean()).isTrue();
+        assertThat(ids(snapshot.get("items"))).containsExactlyInAnyOrder(milk, bread, eggs);
+        String since = snapshot.get("token").asText();
+
+        mockMvc.perform(post("/api/groceryitems/mark-purchased").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + milk + "]"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/groceryitems/" + bread).header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+
+        JsonNode delta = changes(token, since);
+        assertThat(delta.get("reset").asBoolean()).isFalse();
+        // Purchased rows come back so the client can move them off its active list
+        assertThat(ids(delta.get("items"))).containsExactly(milk);
+        assertThat(delta.get("items").get(0).get("purchased").asBoolean()).isTrue();
+        assertThat(ids(delta.get("deleted"))).containsExactly(bread);
+
+        JsonNode unchanged = changes(token, delta.get("token").asText());
+        assertThat(unchanged.get("items")).isEmpty();
+        assertThat(unchanged.get("deleted")).isEmpty();
+    }
+
+    @Test
+    void tokensOlderThanThePrunedTombstonesAreGone() throws Exception {
+        User user = testUsers.seed();
+        String token = testUsers.token(user);
+        long milk = add(token, "Pruned Milk");
+        String before = changes(token, null).get("token").asText();
+        mockMvc.perform(delete("/api/groceryitems/" + milk).header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+        String after = changes(token, before).get("token").asText();
+
+        jdbcTemplate.update("UPDATE grocery_item_tombstone SET deleted_at = deleted_at - INTERVAL '60' DAY WHERE user_id = ?",
+                user.getId());
+        groceryItemSyncService.pruneTombstones();
+
+        mockMvc.perform(get("/api/groceryitems/changes").param("since", before)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isGone());
+        assertThat(changes(token, after).get("deleted")).isEmpty();
+        mockMvc.perform(get("/api/groceryitems/changes").param("since", "latest")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void anotherUsersItemCannotBeEdited() throws Exception {
+        String owner = testUsers.token();
+        long milk = add(owner, "Owned Milk");
+        String since = changes(owner, null).get("token").asText();
+
+        mockMvc.perform(put("/api/groceryitems/" + milk).header("Authorization", "Bearer " + testUsers.token())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Taken Milk\",\"quantity\":9,\"unit\":\"l\"}"))
+                .andExpect(status().isNotFound());
+
+        // Untouched, so the owner's delta stays empty
+        assertThat(changes(owner, since).get("items")).isEmpty();
+        mockMvc.perform(put("/api/groceryitems/" + milk).header("Authorization", "Bearer " + owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Oat Milk\",\"quantity\":2,\"unit\":\"l\"}"))
+                .andExpect(status().isOk());
+        assertThat(changes(owner, since).get("items").get(0).get("itemName").asText()).isEqualTo("Oat Milk");
+    }
+
+    private long add(String token, String name) throws Exception {
+        String body = mockMvc.perform(post("/api/groceryitems").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"" + name + "\",\"quantity\":1,\"unit\":\"pcs\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private JsonNode changes(String token, String since) throws Exception {
+        var request = get("/api/groceryitems/changes").header("Authorization", "Bearer " + token);
+        if (since != null) {
+            request.param("since", since);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private List<Long> ids(JsonNode array) {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode node : array) {
+            ids.add(node.isObject() ? node.get("id").asLong() : node.asLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,121 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GroceryItemOpsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void batchIsAppliedInOrderWithOneResultPerOp() throws Exception {
+        String token = testUsers.token();
+        long bread = objectMapper.readTree(mockMvc.perform(post("/api/groceryitems")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Ops Bread\",\"quantity\":1,\"unit\":\"pcs\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        String batch = "["
+                + "{\"opId\":\"a1\",\"type\":\"add\",\"item\":{\"itemName\":\"Ops Milk\",\"quantity\":1,\"unit\":\"l\"}},"
+                + "{\"opId\":\"a2\",\"type\":\"add\",\"item\":{\"itemName\":\"Ops Eggs\",\"quantity\":6,\"unit\":\"pcs\"}},"
+                + "{\"opId\":\"a3\",\"type\":\"add\",\"item\":{\"itemName\":\"ops bread\",\"quantity\":2,\"unit\":\"pcs\"}},"
+                + "{\"opId\":\"m1\",\"type\":\"mark\",\"ref\":\"a1\"},"
+                + "{\"opId\":\"u1\",\"type\":\"update\",\"itemId\":" + bread
+                + ",\"item\":{\"itemName\":\"Ops Rye Bread\",\"quantity\":4,\"unit\":\"pcs\"}},"
+                + "{\"opId\":\"d1\",\"type\":\"delete\",\"ref\":\"a2\"},"
+                + "{\"opId\":\"x1\",\"type\":\"rename\",\"itemId\":" + bread + "},"
+                + "{\"opId\":\"n1\",\"type\":\"mark\",\"itemId\":" + Long.MAX_VALUE + "}]";
+        JsonNode results = ops(token, batch);
+
+        assertThat(statuses(results)).containsExactly("APPLIED", "APPLIED", "APPLIED", "APPLIED", "APPLIED",
+                "APPLIED", "INVALID", "NOT_FOUND");
+        // The third add merged into the existing bread, which the update then renamed
+        assertThat(results.get(2).get("itemId").asLong()).isEqualTo(bread);
+        assertThat(results.get(4).get("item").get("itemName").asText()).isEqualTo("Ops Rye Bread");
+        assertThat(results.get(3).get("item").get("purchased").asBoolean()).isTrue();
+
+        JsonNode active = objectMapper.readTree(mockMvc.perform(get("/api/groceryitems/active")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(active).hasSize(1);
+        assertThat(active.get(0).get("itemName").asText()).isEqualTo("Ops Rye Bread");
+        assertThat(active.get(0).get("quantity").asDouble()).isEqualTo(4);
+    }
+
+    @Test
+    void replayedOpsReturnTheirRecordedResultsWithoutApplyingAgain() throws Exception {
+        String token = testUsers.token();
+        String batch = "[{\"opId\":\"r1\",\"type\":\"add\",\"item\":{\"itemName\":\"Ops Rice\",\"quantity\":1,\"unit\":\"kg\"}},"
+                + "{\"opId\":\"r2\",\"type\":\"delete\",\"itemId\":" + Long.MAX_VALUE + "}]";
+        JsonNode first = ops(token, batch);
+        JsonNode replay = ops(token, batch);
+
+        assertThat(replay.get(0).get("duplicate").asBoolean()).isTrue();
+        assertThat(replay.get(0).get("itemId").asLong()).isEqualTo(first.get(0).get("itemId").asLong());
+        assertThat(statuses(replay)).containsExactly("APPLIED", "NOT_FOUND");
+
+        // A later batch can still point at the item through the add's op id
+        JsonNode marked = ops(token, "[{\"opId\":\"r3\",\"type\":\"mark\",\"ref\":\"r1\"}]");
+        assertThat(marked.get(0).get("itemId").asLong()).isEqualTo(first.get(0).get("itemId").asLong());
+        assertThat(marked.get(0).get("item").get("quantity").asDouble()).isEqualTo(1);
+
+        String purchased = mockMvc.perform(get("/api/groceryitems/purchased").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(purchased)).hasSize(1);
+    }
+
+    @Test
+    void malformedBatchesAreRejected() throws Exception {
+        String token = testUsers.token();
+        mockMvc.perform(post("/api/groceryitems/ops").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"opId\":\"same\",\"type\":\"delete\",\"itemId\":1},"
+                                + "{\"opId\":\"same\",\"type\":\"delete\",\"itemId\":2}]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/groceryitems/ops").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"type\":\"delete\",\"itemId\":1}]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode ops(String token, String batch) throws Exception {
+        String body = mockMvc.perform(post("/api/groceryitems/ops").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private List<String> statuses(JsonNode results) {
+        List<String> statuses = new ArrayList<>();
+        results.forEach(result -> statuses.add(result.get("status").asText()));
+        return statuses;
+    }
+}
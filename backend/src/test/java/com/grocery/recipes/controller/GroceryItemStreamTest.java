@@ -0,0 +1,147 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.GroceryList;
+import com.grocery.recipes.model.GroceryListEntry;
+import com.grocery.recipes.model.MealPlan;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.GroceryListRepository;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.service.GroceryListMigrationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class GroceryItemStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+    @Autowired
+    private GroceryListRepository groceryListRepository;
+    @Autowired
+    private GroceryListMigrationService migrationService;
+
+    @Test
+    void committedWritesReachOnlyTheOwnersStreams() throws Exception {
+        String owner = testUsers.token();
+        String other = testUsers.token();
+        MockHttpServletResponse ownerStream = open(owner);
+        MockHttpServletResponse otherStream = open(other);
+
+        String item = mockMvc.perform(post("/api/groceryitems").header("Authorization", "Bearer " + owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Streamed Milk\",\"quantity\":1,\"unit\":\"l\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = item.replaceAll(".*\"id\":(\\d+).*", "$1");
+
+        String events = await(ownerStream, "\"ids\":[" + id + "]");
+        assertThat(events).containsPattern("id:\\d+\nevent:changed\ndata:\\{\"type\":\"changed\",\"token\":\"\\d+\"");
+        assertThat(otherStream.getContentAsString()).doesNotContain("event:");
+    }
+
+    @Test
+    void deletesArePublishedWithTheDeletedIds() throws Exception {
+        String token = testUsers.token();
+        String item = mockMvc.perform(post("/api/groceryitems").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Streamed Bread\",\"quantity\":1,\"unit\":\"pcs\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = item.replaceAll(".*\"id\":(\\d+).*", "$1");
+        MockHttpServletResponse stream = open(token);
+
+        mockMvc.perform(delete("/api/groceryitems/" + id)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(await(stream, "\"ids\":[" + id + "]")).contains("event:deleted");
+    }
+
+    @Test
+    void streamsPastThePerUserCapAreRefusedInsteadOfClosingOlderOnes() throws Exception {
+        String token = testUsers.token();
+        List<MockHttpServletResponse> streams = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            streams.add(open(token));
+        }
+
+        mockMvc.perform(get("/api/groceryitems/stream")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isTooManyRequests());
+
+        // The first stream was not completed to make room, so it still receives writes
+        String item = mockMvc.perform(post("/api/groceryitems").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"Capped Milk\",\"quantity\":1,\"unit\":\"l\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        await(streams.get(0), "\"ids\":[" + item.replaceAll(".*\"id\":(\\d+).*", "$1") + "]");
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void migratedLegacyItemsArePublished() throws Exception {
+        User user = testUsers.seed();
+        MealPlan plan = new MealPlan();
+        plan.setName("Legacy week");
+        plan.setUser(user);
+        mealPlanRepository.save(plan);
+        GroceryListEntry entry = new GroceryListEntry();
+        entry.setIngredientName("Streamed Oats");
+        entry.setUnit("g");
+        entry.setQuantity(500);
+        GroceryList list = new GroceryList();
+        list.setName("Legacy");
+        list.setDate("01-03-2024");
+        list.setMealPlan(plan);
+        list.setEntries(new ArrayList<>(List.of(entry)));
+        groceryListRepository.save(list);
+        MockHttpServletResponse stream = open(testUsers.token(user));
+
+        migrationService.run();
+
+        assertThat(await(stream, "\"ids\":[")).contains("event:changed");
+    }
+
+    private MockHttpServletResponse open(String token) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/groceryitems/stream")
+                        .header("Authorization", "Bearer " + token)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        assertThat(response.getContentAsString()).contains(":connected");
+        return response;
+    }
+
+    // Sends happen on the task executor after commit, so the event can trail the write's response;
+    // an event is written in parts, so wait for the end of its data
+    private String await(MockHttpServletResponse stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!stream.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String content = stream.getContentAsString();
+        assertThat(content).contains(expected);
+        return content;
+    }
+}
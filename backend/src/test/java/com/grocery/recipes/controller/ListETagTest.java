@@ -0,0 +1,105 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void unchangedListsAreAnsweredWithNotModifiedWithoutLoadingThem() throws Exception {
+        String token = testUsers.token();
+        String etag = etag(token, "/api/recipes");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/recipes").header("Authorization", "Bearer " + token).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(content().string(""));
+        // Only the user the JWT filter loads
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writesChangeOnlyTheTagsOfTheListsTheyAffect() throws Exception {
+        String token = testUsers.token();
+        String recipes = etag(token, "/api/recipes");
+        String mealPlans = etag(token, "/api/mealplans");
+        String active = etag(token, "/api/groceryitems/active");
+
+        mockMvc.perform(post("/api/groceryitems").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itemName\":\"ETag Milk\",\"quantity\":1,\"unit\":\"l\"}"))
+                .andExpect(status().is2xxSuccessful());
+        assertThat(etag(token, "/api/groceryitems/active")).isNotEqualTo(active);
+        assertThat(etag(token, "/api/recipes")).isEqualTo(recipes);
+
+        MvcResult created = mockMvc.perform(post("/api/recipes").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"ETag soup\",\"servings\":2,\"ingredients\":[{\"ingredient\":{\"name\":\"ETag "
+                                + UUID.randomUUID() + "\"},\"quantity\":1,\"unit\":\"g\"}]}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn();
+        String afterRecipe = etag(token, "/api/recipes");
+        assertThat(afterRecipe).isNotEqualTo(recipes);
+        // Meal plans embed recipes, so their tag follows recipe changes too
+        String mealPlansAfterRecipe = etag(token, "/api/mealplans");
+        assertThat(mealPlansAfterRecipe).isNotEqualTo(mealPlans);
+
+        // Renaming a catalogue ingredient changes every recipe that shows it
+        String ingredientId = created.getResponse().getContentAsString().replaceAll(".*\"ingredient\":\\{\"id\":(\\d+).*", "$1");
+        mockMvc.perform(put("/api/ingredients/" + ingredientId).header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"ETag renamed " + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isOk());
+        assertThat(etag(token, "/api/recipes")).isNotEqualTo(afterRecipe);
+        assertThat(etag(token, "/api/mealplans")).isNotEqualTo(mealPlansAfterRecipe);
+    }
+
+    @Test
+    void anotherUsersTagIsNeverAccepted() throws Exception {
+        String first = testUsers.token();
+        String second = testUsers.token();
+        String etag = etag(first, "/api/groceryitems/active");
+
+        // Both accounts are untouched, so only the user id in the tag tells them apart
+        mockMvc.perform(get("/api/groceryitems/active").header("Authorization", "Bearer " + second)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    private String etag(String token, String path) throws Exception {
+        String etag = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+}
@@ -0,0 +1,44 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MaintenanceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+
+    @Test
+    void maintenanceJobsAreRefusedToNormalUsers() throws Exception {
+        String token = testUsers.token();
+        for (String path : new String[]{"/api/admin/ingredients/canonicalize", "/api/admin/groceryitems/rollups/rebuild",
+                "/api/admin/groceryitems/archive", "/api/admin/groceryitems/tombstones/prune",
+                "/api/admin/grocerylists/migrate"}) {
+            mockMvc.perform(post(path).header("Authorization", "Bearer " + token))
+                    .andExpect(status().isForbidden());
+        }
+        mockMvc.perform(get("/api/admin/ingredients/duplicates").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/admin/ingredients/duplicates"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void administratorsCanRunThem() throws Exception {
+        String token = testUsers.token(testUsers.seedAdmin());
+        mockMvc.perform(get("/api/admin/ingredients/duplicates").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,112 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MealPlanCalendarTest {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final LocalDate start = LocalDate.now().plusDays(1);
+
+    @Test
+    void calendarListsTheUsersItemsInsideTheWindowInDateOrder() throws Exception {
+        String token = testUsers.token();
+        long soup = createRecipe(token, "Soup");
+        long stew = createRecipe(token, "Stew");
+        long week = createPlan(token, "Week", soup, start.plusDays(2), stew, start);
+        long party = createPlan(token, "Party", stew, start.plusDays(1), soup, start.plusDays(30));
+        String other = testUsers.token();
+        createPlan(other, "Other", createRecipe(other, "Curry"), start, createRecipe(other, "Rice"), start.plusDays(1));
+
+        JsonNode body = calendar(token, start, start.plusDays(7));
+        assertThat(body.get("truncated").asBoolean()).isFalse();
+        assertThat(body.get("completeThrough").asText()).isEqualTo(start.plusDays(7).format(DATE));
+        JsonNode calendar = body.get("entries");
+        assertThat(calendar).hasSize(3);
+        List<String> rows = new ArrayList<>();
+        calendar.forEach(entry -> rows.add(entry.get("date").asText() + " " + entry.get("mealPlanId").asLong()
+                + " " + entry.get("recipeId").asLong() + " " + entry.get("recipeName").asText()));
+        assertThat(rows).containsExactly(
+                start.format(DATE) + " " + week + " " + stew + " Stew",
+                start.plusDays(1).format(DATE) + " " + party + " " + stew + " Stew",
+                start.plusDays(2).format(DATE) + " " + week + " " + soup + " Soup");
+        assertThat(calendar.get(0).get("itemId").isNumber()).isTrue();
+
+        assertThat(calendar(token, start.plusDays(30), start.plusDays(30)).get("entries")).hasSize(1);
+    }
+
+    @Test
+    void invalidWindowsAreRejected() throws Exception {
+        String token = testUsers.token();
+        mockMvc.perform(get("/api/mealplans/calendar").header("Authorization", "Bearer " + token)
+                        .param("from", start.format(DATE))
+                        .param("to", start.minusDays(1).format(DATE)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/mealplans/calendar").header("Authorization", "Bearer " + token)
+                        .param("from", start.format(DATE))
+                        .param("to", start.plusDays(367).format(DATE)))
+                .andExpect(status().isBadRequest());
+        // A short window beyond the horizon, which would otherwise expand templates years ahead
+        mockMvc.perform(get("/api/mealplans/calendar").header("Authorization", "Bearer " + token)
+                        .param("from", "01-01-2999")
+                        .param("to", "31-12-2999"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode calendar(String token, LocalDate from, LocalDate to) throws Exception {
+        String body = mockMvc.perform(get("/api/mealplans/calendar").header("Authorization", "Bearer " + token)
+                        .param("from", from.format(DATE))
+                        .param("to", to.format(DATE)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private long createPlan(String token, String name, long firstRecipe, LocalDate firstDate,
+                            long secondRecipe, LocalDate secondDate) throws Exception {
+        String body = mockMvc.perform(post("/api/mealplans").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"items\":["
+                                + "{\"recipe\":{\"id\":" + firstRecipe + "},\"date\":\"" + firstDate.format(DATE) + "\"},"
+                                + "{\"recipe\":{\"id\":" + secondRecipe + "},\"date\":\"" + secondDate.format(DATE) + "\"}]}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private long createRecipe(String token, String name) throws Exception {
+        String body = mockMvc.perform(post("/api/recipes").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"servings\":2,\"ingredients\":[]}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+}
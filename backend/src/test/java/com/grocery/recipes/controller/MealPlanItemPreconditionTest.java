@@ -0,0 +1,120 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MealPlanItemPreconditionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final String date = LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+
+    @Test
+    void staleIfMatchFailsThePreconditionAndTheCurrentVersionApplies() throws Exception {
+        String token = testUsers.token();
+        long recipe = createRecipe(token);
+        JsonNode plan = createPlan(token);
+        long planId = plan.get("id").asLong();
+        long version = plan.get("version").asLong();
+
+        JsonNode added = json(mockMvc.perform(post("/api/mealplans/" + planId + "/items")
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-Match", "\"" + version + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(item(recipe)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        long current = added.get("mealPlanVersion").asLong();
+        assertThat(current).isEqualTo(version + 1);
+
+        // Another device still holds the old version
+        mockMvc.perform(patch("/api/mealplans/" + planId + "/items/" + added.get("id").asLong())
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-Match", "\"" + version + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":\"" + date + "\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete("/api/mealplans/" + planId + "/items/" + added.get("id").asLong())
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-Match", "W/\"" + version + "\""))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(delete("/api/mealplans/" + planId + "/items/" + added.get("id").asLong())
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-Match", String.valueOf(current)))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void unparseableIfMatchIsRejectedInsteadOfIgnored() throws Exception {
+        String token = testUsers.token();
+        long recipe = createRecipe(token);
+        long planId = createPlan(token).get("id").asLong();
+        // The list endpoint's ETag is not a plan version
+        String listEtag = mockMvc.perform(get("/api/mealplans").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(listEtag).isNotNull();
+
+        mockMvc.perform(post("/api/mealplans/" + planId + "/items")
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-Match", listEtag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(item(recipe)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/mealplans/" + planId + "/items/1")
+                        .header("Authorization", "Bearer " + token)
+                        .header("If-Match", "\"abc\""))
+                .andExpect(status().isBadRequest());
+
+        JsonNode plan = json(mockMvc.perform(get("/api/mealplans/" + planId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(plan.get("items")).isEmpty();
+    }
+
+    private String item(long recipe) {
+        return "{\"recipe\":{\"id\":" + recipe + "},\"date\":\"" + date + "\"}";
+    }
+
+    private JsonNode createPlan(String token) throws Exception {
+        return json(mockMvc.perform(post("/api/mealplans").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Precondition week\",\"items\":[]}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private long createRecipe(String token) throws Exception {
+        return json(mockMvc.perform(post("/api/recipes").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Soup\",\"servings\":2,\"ingredients\":[]}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,115 @@
+package com.grocery.recipes.controller;
+
+import com.grocery.recipes.TestUsers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SparseFieldsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void recipesCarryOnlyTheRequestedFieldsAndExpansions() throws Exception {
+        String token = testUsers.token();
+        long recipeId = createRecipe(token);
+
+        JsonNode names = read(token, get("/api/recipes").param("fields", "name"));
+        assertThat(fieldNames(names.get(0))).containsExactlyInAnyOrder("id", "name");
+
+        JsonNode expanded = read(token, get("/api/recipes/" + recipeId)
+                .param("fields", "name,description").param("expand", "ingredients"));
+        assertThat(fieldNames(expanded)).containsExactlyInAnyOrder("id", "name", "description", "ingredients");
+        JsonNode line = expanded.get("ingredients").get(0);
+        assertThat(fieldNames(line.get("ingredient"))).containsExactlyInAnyOrder("id", "name");
+        assertThat(line.get("quantity").asDouble()).isEqualTo(250);
+
+        // Without either parameter the full entity is returned as before
+        JsonNode full = read(token, get("/api/recipes/" + recipeId));
+        assertThat(full.get("description").asText()).isEqualTo("Simmer slowly");
+        assertThat(full.get("ingredients")).hasSize(1);
+    }
+
+    @Test
+    void mealPlansExpandItemsAndRecipeIngredientsOnDemand() throws Exception {
+        String token = testUsers.token();
+        long recipeId = createRecipe(token);
+        String date = LocalDate.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy"));
+        long planId = objectMapper.readTree(mockMvc.perform(post("/api/mealplans")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sparse week\",\"items\":[{\"recipe\":{\"id\":" + recipeId
+                                + "},\"date\":\"" + date + "\"}]}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        JsonNode plans = read(token, get("/api/mealplans"));
+        assertThat(plans.get(0).has("items")).isTrue();
+        JsonNode compact = read(token, get("/api/mealplans").param("fields", "name"));
+        assertThat(fieldNames(compact.get(0))).containsExactlyInAnyOrder("id", "name");
+
+        JsonNode items = read(token, get("/api/mealplans/" + planId).param("expand", "items")).get("items");
+        assertThat(items.get(0).get("date").asText()).isEqualTo(date);
+        assertThat(fieldNames(items.get(0).get("recipe"))).containsExactlyInAnyOrder("id", "name", "servings");
+
+        JsonNode deep = read(token, get("/api/mealplans").param("expand", "items.recipe.ingredients"));
+        assertThat(deep.get(0).get("items").get(0).get("recipe").get("ingredients")).hasSize(1);
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        String token = testUsers.token();
+        mockMvc.perform(get("/api/recipes").param("fields", "name,user").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/mealplans").param("expand", "recipes").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long createRecipe(String token) throws Exception {
+        String body = mockMvc.perform(post("/api/recipes").header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sparse soup\",\"description\":\"Simmer slowly\",\"servings\":2,"
+                                + "\"ingredients\":[{\"ingredient\":{\"name\":\"Sparse " + UUID.randomUUID()
+                                + "\"},\"quantity\":250,\"unit\":\"g\"}]}"))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private JsonNode read(String token, MockHttpServletRequestBuilder request) throws Exception {
+        String body = mockMvc.perform(request.header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
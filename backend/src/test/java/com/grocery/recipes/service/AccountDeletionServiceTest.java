@@ -0,0 +1,118 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.AccountDeletionJob;
+import com.grocery.recipes.model.Recipe;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.AccountDeletionJobRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import com.grocery.recipes.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class AccountDeletionServiceTest {
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+    @Autowired
+    private CascadeDeletionService cascadeDeletionService;
+    @Autowired
+    private AccountDeletionJobRepository jobRepository;
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void jobInterruptedByARestartIsStillVisibleAndResumedAtStartup() throws Exception {
+        User user = seedUser();
+        // What a restart leaves behind: the account deactivated and its job stored, but nothing running it
+        AccountDeletionJob stored = cascadeDeletionService.deactivateAccount(new AccountDeletionJob(user.getId()));
+        transactionTemplate.executeWithoutResult(status ->
+                jobRepository.updateStatus(stored.getId(), AccountDeletionJob.Status.RUNNING, null, null));
+
+        assertThat(accountDeletionService.findJob(stored.getId()))
+                .hasValueSatisfying(job -> assertThat(job.getStatus()).isEqualTo(AccountDeletionJob.Status.RUNNING));
+
+        accountDeletionService.resumeUnfinished();
+
+        awaitCompleted(stored.getId());
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(recipeRepository.findIdsByUserId(user.getId(), Pageable.unpaged())).isEmpty();
+        assertThat(jobRepository.findById(stored.getId()))
+                .hasValueSatisfying(job -> assertThat(job.getFinishedAt()).isNotNull());
+    }
+
+    @Test
+    void jobStillRunningOnAnotherInstanceIsOnlyTakenOverOnceItsHeartbeatIsStale() throws Exception {
+        User user = seedUser();
+        AccountDeletionJob elsewhere = new AccountDeletionJob(user.getId());
+        elsewhere.setClaimedBy("other-instance");
+        elsewhere.setHeartbeatAt(LocalDateTime.now());
+        elsewhere.setStatus(AccountDeletionJob.Status.RUNNING);
+        cascadeDeletionService.deactivateAccount(elsewhere);
+
+        accountDeletionService.resumeUnfinished();
+        assertThat(userRepository.findById(user.getId())).isPresent();
+        assertThat(jobRepository.findById(elsewhere.getId())).hasValueSatisfying(job -> {
+            assertThat(job.getStatus()).isEqualTo(AccountDeletionJob.Status.RUNNING);
+            assertThat(job.getClaimedBy()).isEqualTo("other-instance");
+        });
+
+        // That instance stopped reporting
+        jdbcTemplate.update("update account_deletion_job set heartbeat_at = ? where id = ?",
+                LocalDateTime.now().minusHours(1), elsewhere.getId());
+        accountDeletionService.resumeUnfinished();
+
+        awaitCompleted(elsewhere.getId());
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+    }
+
+    @Test
+    void deactivatedAccountWithoutAJobIsLeftAlone() {
+        User user = seedUser();
+        // Suspended by hand, not being deleted
+        transactionTemplate.executeWithoutResult(status -> userRepository.deactivate(user.getId()));
+
+        accountDeletionService.resumeUnfinished();
+
+        assertThat(userRepository.findById(user.getId())).isPresent();
+        assertThat(recipeRepository.findIdsByUserId(user.getId(), Pageable.unpaged())).hasSize(1);
+        assertThat(jobRepository.findFirstByUserIdOrderByRequestedAtDesc(user.getId())).isEmpty();
+    }
+
+    private void awaitCompleted(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline && jobRepository.findById(jobId)
+                .map(job -> job.getStatus() != AccountDeletionJob.Status.COMPLETED).orElse(true)) {
+            Thread.sleep(20);
+        }
+        assertThat(jobRepository.findById(jobId))
+                .hasValueSatisfying(job -> assertThat(job.getStatus()).isEqualTo(AccountDeletionJob.Status.COMPLETED));
+    }
+
+    private User seedUser() {
+        User user = testUsers.seed();
+        Recipe recipe = new Recipe();
+        recipe.setName("Soup");
+        recipe.setServings(2);
+        recipe.setUser(user);
+        recipeRepository.save(recipe);
+        return user;
+    }
+}
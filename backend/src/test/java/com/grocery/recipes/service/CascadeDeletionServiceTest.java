@@ -0,0 +1,149 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.deletion.chunk-size=2")
+class CascadeDeletionServiceTest {
+
+    @Autowired
+    private CascadeDeletionService cascadeDeletionService;
+    @Autowired
+    private MealPlanTemplateService mealPlanTemplateService;
+    @Autowired
+    private RecipeService recipeService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private IngredientRepository ingredientRepository;
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+    @Autowired
+    private MealPlanItemRepository mealPlanItemRepository;
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void deleteAccountRemovesEverythingInChunksWithoutLoadingEntities() {
+        User user = seedAccount();
+        User other = seedAccount();
+        long ingredients = ingredientRepository.count();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        AccountDeletionJob job = new AccountDeletionJob(user.getId());
+        cascadeDeletionService.deleteAccount(job);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(job.getDeleted()).containsEntry("recipes", 5L).containsEntry("mealPlans", 4L)
+                .containsEntry("groceryItems", 3L);
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(recipeRepository.findIdsByUserId(user.getId(), Pageable.unpaged())).isEmpty();
+        assertThat(mealPlanRepository.findIdsByUserId(user.getId(), Pageable.unpaged())).isEmpty();
+        assertThat(groceryItemRepository.findIdsByUserId(user.getId(), Pageable.unpaged())).isEmpty();
+
+        // Other accounts and the shared ingredient catalogue are untouched
+        assertThat(recipeRepository.findIdsByUserId(other.getId(), Pageable.unpaged())).hasSize(5);
+        assertThat(mealPlanRepository.findIdsByUserId(other.getId(), Pageable.unpaged())).hasSize(4);
+        assertThat(refreshTokenRepository.findByUser(other)).hasSize(1);
+        assertThat(ingredientRepository.count()).isEqualTo(ingredients);
+    }
+
+    @Test
+    void deletingARecipeRemovesItsPlanItemsAndTemplateSlots() {
+        User user = seedAccount();
+        Long recipeId = recipeRepository.findIdsByUserId(user.getId(), Pageable.unpaged()).get(0);
+        long items = mealPlanItemRepository.count();
+
+        recipeService.deleteByIdAndUser(recipeId, user);
+
+        assertThat(recipeRepository.existsById(recipeId)).isFalse();
+        assertThat(mealPlanItemRepository.count()).isLessThan(items);
+        assertThat(mealPlanItemRepository.countByRecipeId(recipeId)).isZero();
+    }
+
+    private User seedAccount() {
+        User user = transactionTemplate.execute(status -> {
+            User u = userRepository.save(TestUsers.newUser());
+
+            RefreshToken token = new RefreshToken();
+            token.setToken(UUID.randomUUID().toString());
+            token.setUser(u);
+            token.setExpiryDate(LocalDateTime.now().plusDays(1));
+            refreshTokenRepository.save(token);
+
+            for (int r = 0; r < 5; r++) {
+                Recipe recipe = new Recipe();
+                recipe.setName("Recipe " + r);
+                recipe.setServings(2);
+                recipe.setUser(u);
+                Ingredient ingredient = new Ingredient();
+                ingredient.setName(UUID.randomUUID().toString());
+                ingredientRepository.save(ingredient);
+                RecipeIngredient line = new RecipeIngredient();
+                line.setRecipe(recipe);
+                line.setIngredient(ingredient);
+                line.setQuantity(1);
+                recipe.getIngredients().add(line);
+                recipeRepository.save(recipe);
+            }
+            for (int p = 0; p < 3; p++) {
+                MealPlan plan = new MealPlan();
+                plan.setName("Plan " + p);
+                plan.setUser(u);
+                for (Long recipeId : recipeRepository.findIdsByUserId(u.getId(), Pageable.unpaged())) {
+                    MealPlanItem item = new MealPlanItem();
+                    item.setMealPlan(plan);
+                    item.setRecipe(recipeRepository.getReferenceById(recipeId));
+                    item.setDate(LocalDate.now());
+                    plan.getItems().add(item);
+                }
+                mealPlanRepository.save(plan);
+            }
+            for (int g = 0; g < 3; g++) {
+                GroceryItem item = new GroceryItem();
+                item.setItemName("Item " + g);
+                item.setQuantity(1);
+                item.setUser(u);
+                groceryItemRepository.save(item);
+            }
+            return u;
+        });
+
+        // A template adds the fourth plan plus slot rows referencing the recipes
+        MealPlanTemplate template = new MealPlanTemplate();
+        template.setName("Rotation");
+        template.setStartDate(LocalDate.now());
+        MealPlanTemplateSlot slot = new MealPlanTemplateSlot();
+        slot.setDayOfWeek(DayOfWeek.MONDAY);
+        slot.setRecipe(recipeRepository.getReferenceById(
+                recipeRepository.findIdsByUserId(user.getId(), Pageable.unpaged()).get(0)));
+        template.getSlots().add(slot);
+        mealPlanTemplateService.create(template, user);
+        return user;
+    }
+}
@@ -0,0 +1,68 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.GroceryItem;
+import com.grocery.recipes.model.Recipe;
+import com.grocery.recipes.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class DashboardStatsServiceTest {
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    @Autowired
+    private GroceryItemService groceryItemService;
+    @Autowired
+    private RecipeService recipeService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void summaryIsPerUserCachedAndRefreshedAfterWrites() {
+        User user = testUsers.seed();
+        testUsers.seed(); // another account's data must not be counted
+        Recipe recipe = new Recipe();
+        recipe.setName("Soup");
+        recipe.setServings(2);
+        recipe.setUser(user);
+        recipeService.save(recipe);
+        GroceryItem milk = groceryItemService.addItem(item(user, "Milk"));
+        groceryItemService.addItem(item(user, "Eggs"));
+        groceryItemService.markItemsPurchasedByUser(List.of(milk.getId()), user);
+
+        Map<String, Object> summary = dashboardStatsService.getSummary(user.getId());
+        assertThat(summary).containsEntry("totalRecipes", 1L).containsEntry("totalMealPlans", 0L)
+                .containsEntry("activeGroceryItems", 1L).containsEntry("purchasedThisWeek", 1L)
+                .containsKey("totalIngredients");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThat(dashboardStatsService.getSummary(user.getId())).isEqualTo(summary);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        groceryItemService.addItem(item(user, "Bread"));
+        assertThat(dashboardStatsService.getSummary(user.getId())).containsEntry("activeGroceryItems", 2L);
+    }
+
+    private GroceryItem item(User user, String name) {
+        GroceryItem item = new GroceryItem();
+        item.setItemName(name);
+        item.setQuantity(1);
+        item.setUnit("pcs");
+        item.setUser(user);
+        return item;
+    }
+}
@@ -0,0 +1,106 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.GroceryItem;
+import com.grocery.recipes.model.User;
+import com.grocery.recipes.repository.GroceryItemArchiveRepository;
+import com.grocery.recipes.repository.GroceryItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class GroceryItemArchivalServiceTest {
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private GroceryItemArchivalService archivalService;
+    @Autowired
+    private GroceryItemService groceryItemService;
+    @Autowired
+    private PurchaseStatsService purchaseStatsService;
+    @Autowired
+    private GroceryItemRepository groceryItemRepository;
+    @Autowired
+    private GroceryItemArchiveRepository groceryItemArchiveRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void oldPurchasesMoveToTheArchiveAndStayReachableThroughPaging() {
+        User user = testUsers.seed();
+        GroceryItem recent = purchased(user, "Milk", LocalDate.now().minusDays(2));
+        GroceryItem old = purchased(user, "Flour", LocalDate.now().minusDays(400));
+        GroceryItem older = purchased(user, "Sugar", LocalDate.now().minusDays(500));
+        GroceryItem active = new GroceryItem();
+        active.setItemName("Eggs");
+        active.setUser(user);
+        groceryItemRepository.save(active);
+
+        GroceryItemArchivalService.Report report = archivalService.run();
+
+        assertThat(report.getArchived()).isGreaterThanOrEqualTo(2);
+        assertThat(groceryItemRepository.findAllById(List.of(old.getId(), older.getId()))).isEmpty();
+        assertThat(groceryItemArchiveRepository.findAllById(List.of(old.getId(), older.getId()))).hasSize(2);
+        assertThat(groceryItemService.findAllPurchasedByUser(user)).extracting(GroceryItem::getId)
+                .containsExactly(recent.getId());
+        assertThat(groceryItemService.findAllActiveByUser(user)).extracting(GroceryItem::getId)
+                .containsExactly(active.getId());
+
+        // Pages continue from the live rows into the archive, newest first
+        assertThat(groceryItemService.findPurchasedPageByUser(user, 0, 2, true)).extracting(GroceryItem::getId)
+                .containsExactly(recent.getId(), old.getId());
+        assertThat(groceryItemService.findPurchasedPageByUser(user, 1, 2, true)).extracting(GroceryItem::getId)
+                .containsExactly(older.getId());
+        assertThat(groceryItemService.findPurchasedPageByUser(user, 0, 2, false)).extracting(GroceryItem::getId)
+                .containsExactly(recent.getId());
+
+        purchaseStatsService.rebuild();
+        assertThat(purchaseStatsService.weekly(user.getId(), 104))
+                .extracting(week -> week.getPurchaseCount()).containsExactly(1L, 1L, 1L);
+    }
+
+    @Test
+    void itemUnmarkedAfterSelectionIsNeitherCopiedNorDeleted() {
+        User user = testUsers.seed();
+        GroceryItem item = purchased(user, "Butter", LocalDate.now().minusDays(400));
+        LocalDate cutoff = LocalDate.now().minusDays(180);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> ids = transactionTemplate.execute(status ->
+                groceryItemRepository.findArchivableIds(cutoff, PageRequest.of(0, 10_000)));
+        assertThat(ids).contains(item.getId());
+
+        // The user unmarks the item between the chunk's select and its copy and delete
+        groceryItemService.markItemsUnpurchasedByUser(List.of(item.getId()), user);
+
+        Integer moved = transactionTemplate.execute(status -> {
+            groceryItemArchiveRepository.copyFromGroceryItems(ids, cutoff);
+            return groceryItemRepository.deleteArchivable(ids, cutoff);
+        });
+        assertThat(moved).isEqualTo(ids.size() - 1);
+        assertThat(groceryItemArchiveRepository.findById(item.getId())).isEmpty();
+        assertThat(groceryItemService.findAllActiveByUser(user)).extracting(GroceryItem::getId)
+                .containsExactly(item.getId());
+    }
+
+    private GroceryItem purchased(User user, String name, LocalDate date) {
+        GroceryItem item = new GroceryItem();
+        item.setItemName(name);
+        item.setQuantity(1);
+        item.setUser(user);
+        item.setPurchased(true);
+        item.setDatePurchased(date.format(DateTimeFormatter.ofPattern("dd-MM-yyyy")));
+        item.setPurchasedOn(date);
+        return groceryItemRepository.save(item);
+    }
+}
@@ -0,0 +1,93 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.GroceryListRepository;
+import com.grocery.recipes.repository.MealPlanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class GroceryListMigrationServiceTest {
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private GroceryListMigrationService migrationService;
+    @Autowired
+    private GroceryItemService groceryItemService;
+    @Autowired
+    private GroceryListRepository groceryListRepository;
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Test
+    void legacyListsBecomeGroceryItemsOnceAndTheJobResumesFromItsCheckpoint() {
+        User user = testUsers.seed();
+        MealPlan plan = new MealPlan();
+        plan.setName("Week");
+        plan.setUser(user);
+        mealPlanRepository.save(plan);
+
+        legacyList(plan, "01-03-2024", false, entry("Milk", false), entry("Eggs", true));
+        legacyList(plan, "08-03-2024", true, entry("Flour", false));
+        legacyList(null, "08-03-2024", false, entry("Nobody's", false));
+
+        MigrationCheckpoint first = migrationService.run();
+        assertThat(first.getCompletedAt()).isNotNull();
+        assertThat(groceryItemService.findAllActiveByUser(user)).extracting(GroceryItem::getItemName)
+                .containsExactly("Milk");
+        assertThat(groceryItemService.findAllPurchasedByUser(user)).extracting(GroceryItem::getItemName)
+                .containsExactlyInAnyOrder("Eggs", "Flour");
+
+        // The home summary was cached before the run and is dropped when a chunk commits
+        assertThat(dashboardStatsService.getSummary(user.getId())).containsEntry("activeGroceryItems", 1L);
+
+        // A second run starts after the checkpoint and only picks up lists created since
+        legacyList(plan, "15-03-2024", false, entry("Bread", false));
+        MigrationCheckpoint second = migrationService.run();
+        assertThat(second.getProcessed()).isEqualTo(first.getProcessed() + 1);
+        assertThat(second.getMigrated()).isEqualTo(first.getMigrated() + 1);
+        assertThat(dashboardStatsService.getSummary(user.getId())).containsEntry("activeGroceryItems", 2L);
+        assertThat(groceryItemService.findAllActiveByUser(user)).extracting(GroceryItem::getItemName)
+                .containsExactlyInAnyOrder("Milk", "Bread");
+        assertThat(groceryItemService.findAllPurchasedByUser(user)).hasSize(2);
+
+        // Lists still written through the legacy endpoints merge into what is already on the list
+        legacyList(plan, "22-03-2024", false, entry("milk", false), entry("Bread", true));
+        MigrationCheckpoint third = migrationService.run();
+        assertThat(third.getMigrated()).isEqualTo(second.getMigrated() + 1);
+        assertThat(groceryItemService.findAllActiveByUser(user))
+                .extracting(GroceryItem::getItemName, GroceryItem::getQuantity)
+                .containsExactlyInAnyOrder(tuple("Milk", 2.0), tuple("Bread", 1.0));
+        assertThat(groceryItemService.findAllPurchasedByUser(user)).hasSize(3);
+    }
+
+    private void legacyList(MealPlan plan, String date, boolean completed, GroceryListEntry... entries) {
+        GroceryList list = new GroceryList();
+        list.setName("Legacy");
+        list.setDate(date);
+        list.setCompleted(completed);
+        list.setMealPlan(plan);
+        list.setEntries(new ArrayList<>(List.of(entries)));
+        groceryListRepository.save(list);
+    }
+
+    private GroceryListEntry entry(String name, boolean purchased) {
+        GroceryListEntry entry = new GroceryListEntry();
+        entry.setIngredientName(name);
+        entry.setUnit("pcs");
+        entry.setQuantity(1);
+        entry.setPurchased(purchased);
+        return entry;
+    }
+}
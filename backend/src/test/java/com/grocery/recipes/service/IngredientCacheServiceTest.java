@@ -0,0 +1,63 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.Ingredient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class IngredientCacheServiceTest {
+
+    @Autowired
+    private IngredientService ingredientService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void catalogueIsServedFromTheCacheUntilAnIngredientIsWritten() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ingredientService.findAll();
+
+        statistics.clear();
+        ingredientService.findAll();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        Ingredient saved = ingredientService.save(ingredient("Cached " + UUID.randomUUID()));
+        statistics.clear();
+        assertThat(ingredientService.findAll()).extracting(Ingredient::getId).contains(saved.getId());
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+
+        ingredientService.findAll();
+        ingredientService.deleteById(saved.getId());
+        statistics.clear();
+        assertThat(ingredientService.findAll()).extracting(Ingredient::getId).doesNotContain(saved.getId());
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cacheStatisticsAreNotPublic() throws Exception {
+        mockMvc.perform(get("/actuator/ingredientcache")).andExpect(status().isForbidden());
+    }
+
+    private Ingredient ingredient(String name) {
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName(name);
+        return ingredient;
+    }
+}
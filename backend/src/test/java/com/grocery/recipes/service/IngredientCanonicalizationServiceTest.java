@@ -0,0 +1,100 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IngredientCanonicalizationServiceTest {
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private IngredientCanonicalizationService canonicalizationService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void mergeMatchesTheDryRunAndRepointsRecipeLines() {
+        String base = "Canon" + UUID.randomUUID().toString().substring(0, 8);
+        String canonical = base.toLowerCase() + " tomato";
+        // Rows from before the unique index, so their normalized names are still missing
+        long tomato = legacyIngredient(base + " Tomato");
+        long tomatoes = legacyIngredient(base + " tomatoes ");
+        long upper = legacyIngredient(base.toUpperCase() + " TOMATO");
+        long recipe = recipe(testUsers.seed());
+        long first = recipeLine(recipe, tomatoes);
+        long second = recipeLine(recipe, upper);
+        long kept = recipeLine(recipe, tomato);
+
+        IngredientCanonicalizationService.DuplicateGroup planned = group(canonicalizationService.report(), canonical);
+        assertThat(planned.getSurvivorId()).isEqualTo(tomato);
+        assertThat(planned.getDuplicateIds()).containsExactly(tomatoes, upper);
+        assertThat(planned.getAffectedRecipeLines()).isEqualTo(2);
+        assertThat(ingredientIds()).contains(tomatoes, upper);
+
+        IngredientCanonicalizationService.Report report = canonicalizationService.run();
+        assertThat(report.isDryRun()).isFalse();
+        IngredientCanonicalizationService.DuplicateGroup merged = group(report, canonical);
+        assertThat(merged.getSurvivorId()).isEqualTo(planned.getSurvivorId());
+        assertThat(merged.getDuplicateIds()).isEqualTo(planned.getDuplicateIds());
+        assertThat(merged.getAffectedRecipeLines()).isEqualTo(planned.getAffectedRecipeLines());
+
+        assertThat(ingredientIds()).contains(tomato).doesNotContain(tomatoes, upper);
+        assertThat(jdbcTemplate.queryForObject("select normalized_name from ingredient where id = ?", String.class, tomato))
+                .isEqualTo(canonical);
+        for (long line : List.of(first, second, kept)) {
+            assertThat(jdbcTemplate.queryForObject("select ingredient_id from recipe_ingredient where id = ?", Long.class, line))
+                    .isEqualTo(tomato);
+        }
+        assertThat(canonicalizationService.report().getGroups())
+                .noneMatch(group -> group.getCanonicalName().equals(canonical));
+    }
+
+    private IngredientCanonicalizationService.DuplicateGroup group(IngredientCanonicalizationService.Report report,
+                                                                 String canonical) {
+        return report.getGroups().stream()
+                .filter(group -> group.getCanonicalName().equals(canonical))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private List<Long> ingredientIds() {
+        return jdbcTemplate.queryForList("select id from ingredient", Long.class);
+    }
+
+    private long legacyIngredient(String name) {
+        return insert("insert into ingredient (name) values (?)", name);
+    }
+
+    private long recipe(User user) {
+        return insert("insert into recipe (name, servings, user_id) values (?, 2, ?)", "Sauce", user.getId());
+    }
+
+    private long recipeLine(long recipeId, long ingredientId) {
+        return insert("insert into recipe_ingredient (recipe_id, ingredient_id, quantity, unit) values (?, ?, 1, 'kg')",
+                recipeId, ingredientId);
+    }
+
+    private long insert(String sql, Object... args) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[]{"id"});
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+}
@@ -0,0 +1,39 @@
+package com.grocery.recipes.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientNamesTest {
+
+    @Test
+    void caseSpacingAndTrailingPunctuationAreIgnored() {
+        assertThat(IngredientNames.canonical("  Cherry   TOMATO. ")).isEqualTo("cherry tomato");
+        assertThat(IngredientNames.canonical(" ")).isEmpty();
+        assertThat(IngredientNames.canonical(null)).isNull();
+    }
+
+    @Test
+    void regularPluralsAreSingularized() {
+        assertThat(IngredientNames.canonical("Tomatoes")).isEqualTo("tomato");
+        assertThat(IngredientNames.canonical("strawberries")).isEqualTo("strawberry");
+        assertThat(IngredientNames.canonical("French fries")).isEqualTo("french fry");
+        assertThat(IngredientNames.canonical("peaches")).isEqualTo("peach");
+        assertThat(IngredientNames.canonical("radishes")).isEqualTo("radish");
+        assertThat(IngredientNames.canonical("red onions")).isEqualTo("red onion");
+        assertThat(IngredientNames.canonical("cheeses")).isEqualTo("cheese");
+    }
+
+    @Test
+    void shortStemsAndExceptionsKeepTheirSpelling() {
+        assertThat(IngredientNames.canonical("cookies")).isEqualTo("cookie");
+        assertThat(IngredientNames.canonical("pies")).isEqualTo("pie");
+        assertThat(IngredientNames.canonical("sloes")).isEqualTo("sloe");
+        assertThat(IngredientNames.canonical("quiches")).isEqualTo("quiche");
+        assertThat(IngredientNames.canonical("Molasses")).isEqualTo("molasses");
+        assertThat(IngredientNames.canonical("hummus")).isEqualTo("hummus");
+        assertThat(IngredientNames.canonical("swiss")).isEqualTo("swiss");
+        assertThat(IngredientNames.canonical("peas")).isEqualTo("pea");
+        assertThat(IngredientNames.canonical("gas")).isEqualTo("gas");
+    }
+}
@@ -0,0 +1,91 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.Ingredient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency benchmark for {@link IngredientSuggestIndex} at catalogue sizes the API should
+ * handle. Not part of the test suite; run it with
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.grocery.recipes.service.IngredientSuggestIndexBenchmark
+ * </pre>
+ * and pass a different size as the first argument if needed (default 100000).
+ */
+public class IngredientSuggestIndexBenchmark {
+
+    private static final String[] WORDS = {
+            "tomato", "potato", "onion", "garlic", "basil", "chicken", "beef", "pork", "broccoli",
+            "carrot", "pepper", "chili", "lemon", "lime", "rice", "bean", "lentil", "spinach",
+            "mushroom", "cheddar", "parmesan", "butter", "cream", "yogurt", "flour", "sugar",
+            "cinnamon", "cumin", "ginger", "coriander", "parsley", "thyme", "oregano", "salmon"
+    };
+    private static final String[] QUALIFIERS = {
+            "fresh", "dried", "smoked", "red", "green", "baby", "organic", "ground", "roasted", "wild"
+    };
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Random random = new Random(42);
+
+        List<Ingredient> catalogue = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Ingredient ingredient = new Ingredient();
+            ingredient.setId(id);
+            ingredient.setName(QUALIFIERS[random.nextInt(QUALIFIERS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + id);
+            catalogue.add(ingredient);
+        }
+
+        IngredientSuggestIndex index = new IngredientSuggestIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild(catalogue);
+        System.out.printf("built index of %d ingredients in %d ms%n",
+                index.size(), (System.nanoTime() - buildStart) / 1_000_000);
+
+        String[] prefixQueries = {"tom", "smoked sal", "pars", "green pep", "cum", "o"};
+        String[] typoQueries = {"tomatoe", "brocoli", "parmesean", "cinamon", "corriander", "musroom"};
+
+        run("prefix", index, prefixQueries, 20_000);
+        run("typo", index, typoQueries, 2_000);
+        run("incremental put", index, 10_000, random);
+    }
+
+    private static void run(String label, IngredientSuggestIndex index, String[] queries, int iterations) {
+        // Warm-up so the JIT has compiled the lookup paths
+        for (int i = 0; i < iterations; i++) {
+            index.suggest(queries[i % queries.length], 10);
+        }
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            index.suggest(queries[i % queries.length], 10);
+            samples[i] = System.nanoTime() - start;
+        }
+        report(label, samples);
+    }
+
+    private static void run(String label, IngredientSuggestIndex index, int iterations, Random random) {
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long id = 1 + random.nextInt(index.size());
+            String name = QUALIFIERS[random.nextInt(QUALIFIERS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            long start = System.nanoTime();
+            index.put(id, name);
+            samples[i] = System.nanoTime() - start;
+        }
+        report(label, samples);
+    }
+
+    private static void report(String label, long[] samples) {
+        Arrays.sort(samples);
+        System.out.printf("%-16s p50=%6.1f us  p99=%7.1f us  max=%8.1f us%n", label,
+                samples[samples.length / 2] / 1000.0,
+                samples[(int) (samples.length * 0.99)] / 1000.0,
+                samples[samples.length - 1] / 1000.0);
+    }
+}
@@ -0,0 +1,55 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.model.Ingredient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngredientSuggestIndexTest {
+
+    private IngredientSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IngredientSuggestIndex();
+        index.put(1L, "Tomato");
+        index.put(2L, "Cherry Tomato");
+        index.put(3L, "Broccoli");
+        index.put(4L, "Potato");
+    }
+
+    @Test
+    void prefixMatchesNameAndInnerWords() {
+        assertThat(names(index.suggest("tom", 10))).containsExactlyInAnyOrder("Tomato", "Cherry Tomato");
+        assertThat(names(index.suggest("  CHER", 10))).containsExactly("Cherry Tomato");
+    }
+
+    @Test
+    void typosFallBackToTrigramMatches() {
+        assertThat(names(index.suggest("brocoli", 5))).containsExactly("Broccoli");
+        assertThat(names(index.suggest("tomatoe", 5))).contains("Tomato");
+    }
+
+    @Test
+    void updatesAndRemovalsApplyIncrementally() {
+        index.put(1L, "Roma Tomato");
+        index.remove(4L);
+
+        assertThat(names(index.suggest("roma", 10))).containsExactly("Roma Tomato");
+        assertThat(index.suggest("pota", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void respectsLimit() {
+        assertThat(index.suggest("to", 1)).hasSize(1);
+        assertThat(index.suggest("", 10)).isEmpty();
+    }
+
+    private static List<String> names(List<Ingredient> ingredients) {
+        return ingredients.stream().map(Ingredient::getName).toList();
+    }
+}
@@ -0,0 +1,102 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class MealPlanItemChangeTest {
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private MealPlanService mealPlanService;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+
+    @Test
+    void itemChangesBumpThePlanVersionAndRejectStaleEdits() {
+        User user = testUsers.seed();
+        Recipe recipe = seedRecipe(user, "Soup");
+        MealPlan plan = seedPlan(user, recipe);
+        long version = plan.getVersion();
+
+        MealPlanItem added = mealPlanService.addItem(plan.getId(), user, item(recipe, LocalDate.now()), version);
+        assertThat(added.getMealPlan().getVersion()).isEqualTo(version + 1);
+        assertThat(mealPlanRepository.findVersionById(plan.getId())).contains(version + 1);
+
+        MealPlanItem move = new MealPlanItem();
+        move.setDate(LocalDate.now().plusDays(3));
+        assertThatThrownBy(() -> mealPlanService.updateItem(plan.getId(), added.getId(), user, move, version))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        MealPlanItem moved = mealPlanService.updateItem(plan.getId(), added.getId(), user, move, version + 1);
+        assertThat(moved.getDate()).isEqualTo(LocalDate.now().plusDays(3));
+        assertThat(moved.getRecipe().getId()).isEqualTo(recipe.getId());
+
+        mealPlanService.deleteItem(plan.getId(), added.getId(), user, null);
+        assertThat(mealPlanService.findByIdAndUser(plan.getId(), user).orElseThrow().getItems()).hasSize(1);
+    }
+
+    @Test
+    void itemChangesRejectRecipesOfOtherUsers() {
+        User user = testUsers.seed();
+        MealPlan plan = seedPlan(user, seedRecipe(user, "Soup"));
+        Recipe foreign = seedRecipe(testUsers.seed(), "Stew");
+
+        assertThatThrownBy(() -> mealPlanService.addItem(plan.getId(), user, item(foreign, LocalDate.now()), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void wholePlanSaveWithoutVersionStillUpdates() {
+        User user = testUsers.seed();
+        MealPlan plan = seedPlan(user, seedRecipe(user, "Soup"));
+
+        MealPlan update = new MealPlan();
+        update.setId(plan.getId());
+        update.setName("Renamed");
+        update.setUser(user);
+        MealPlan saved = mealPlanService.save(update);
+
+        assertThat(saved.getName()).isEqualTo("Renamed");
+        assertThat(saved.getVersion()).isEqualTo(plan.getVersion() + 1);
+    }
+
+    private Recipe seedRecipe(User user, String name) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setServings(2);
+        recipe.setUser(user);
+        return recipeRepository.save(recipe);
+    }
+
+    private MealPlan seedPlan(User user, Recipe recipe) {
+        MealPlan plan = new MealPlan();
+        plan.setName("Week");
+        plan.setUser(user);
+        MealPlanItem item = item(recipe, LocalDate.now());
+        item.setMealPlan(plan);
+        plan.getItems().add(item);
+        return mealPlanRepository.save(plan);
+    }
+
+    private MealPlanItem item(Recipe recipe, LocalDate date) {
+        MealPlanItem item = new MealPlanItem();
+        item.setRecipe(recipe);
+        item.setDate(date);
+        return item;
+    }
+}
@@ -0,0 +1,108 @@
+package com.grocery.recipes.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.IngredientRepository;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import com.grocery.recipes.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class MealPlanServiceQueryCountTest {
+
+    @Autowired
+    private MealPlanService mealPlanService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private IngredientRepository ingredientRepository;
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void findAllByUserRunsTheSameNumberOfQueriesForAnyNumberOfPlans() throws Exception {
+        long small = countQueriesForPlans(1);
+        long large = countQueriesForPlans(12);
+
+        assertThat(large).isEqualTo(small);
+        assertThat(small).isEqualTo(2);
+    }
+
+    private long countQueriesForPlans(int planCount) throws Exception {
+        User user = seedUserWithPlans(planCount);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<MealPlan> plans = mealPlanService.findAllByUser(user);
+        // Serializing outside the transaction must not trigger lazy loading
+        String json = objectMapper.writeValueAsString(plans);
+        long queries = statistics.getPrepareStatementCount();
+
+        assertThat(plans).hasSize(planCount);
+        assertThat(json).contains("\"ingredients\":[{");
+        return queries;
+    }
+
+    private User seedUserWithPlans(int planCount) {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.save(TestUsers.newUser());
+
+            List<Recipe> recipes = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                Recipe recipe = new Recipe();
+                recipe.setName("Recipe " + r);
+                recipe.setServings(2);
+                recipe.setUser(user);
+                for (int i = 0; i < 3; i++) {
+                    Ingredient ingredient = new Ingredient();
+                    ingredient.setName(UUID.randomUUID().toString());
+                    ingredientRepository.save(ingredient);
+                    RecipeIngredient line = new RecipeIngredient();
+                    line.setRecipe(recipe);
+                    line.setIngredient(ingredient);
+                    line.setQuantity(1);
+                    recipe.getIngredients().add(line);
+                }
+                recipes.add(recipeRepository.save(recipe));
+            }
+
+            for (int p = 0; p < planCount; p++) {
+                MealPlan plan = new MealPlan();
+                plan.setName("Plan " + p);
+                plan.setUser(user);
+                for (int d = 0; d < 4; d++) {
+                    MealPlanItem item = new MealPlanItem();
+                    item.setMealPlan(plan);
+                    item.setRecipe(recipes.get((p + d) % recipes.size()));
+                    item.setDate(LocalDate.now().plusDays(d));
+                    plan.getItems().add(item);
+                }
+                mealPlanRepository.save(plan);
+            }
+            return user;
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.dto.MealPlanCalendar;
+import com.grocery.recipes.dto.MealPlanCalendarEntry;
+import com.grocery.recipes.model.*;
+import com.grocery.recipes.repository.MealPlanRepository;
+import com.grocery.recipes.repository.RecipeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "app.mealplans.templates.horizon-days=13",
+        "app.mealplans.max-horizon-days=60",
+        "app.mealplans.templates.max-expansion-rows=20"
+})
+class MealPlanTemplateServiceTest {
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private MealPlanTemplateService mealPlanTemplateService;
+    @Autowired
+    private MealPlanService mealPlanService;
+    @Autowired
+    private RecipeRepository recipeRepository;
+    @Autowired
+    private MealPlanRepository mealPlanRepository;
+
+    private final LocalDate monday = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+
+    @Test
+    void createWritesOutTheHorizonAndTheCalendarOnlyReadsIt() {
+        User user = testUsers.seed();
+        Recipe soup = seedRecipe(user, "Soup");
+        Recipe stew = seedRecipe(user, "Stew");
+        // Every other week, starting this week: soup on Monday, stew on Thursday
+        MealPlanTemplate saved = mealPlanTemplateService.create(
+                template(monday, 2, slot(DayOfWeek.MONDAY, soup), slot(DayOfWeek.THURSDAY, stew)), user);
+
+        LocalDate horizon = LocalDate.now().plusDays(60);
+        assertThat(saved.getExpandedThrough()).isEqualTo(horizon);
+        List<MealPlanItem> items = mealPlanService.findByIdAndUser(saved.getMealPlanId(), user).orElseThrow().getItems();
+        assertThat(items).extracting(MealPlanItem::getDate)
+                .allMatch(d -> !d.isAfter(horizon))
+                .allMatch(d -> d.isBefore(monday.plusWeeks(1)) || !d.isBefore(monday.plusWeeks(2)));
+
+        LocalDate to = monday.plusWeeks(6).minusDays(1);
+        MealPlanCalendar calendar = mealPlanService.findCalendarByUser(user, monday, to);
+        assertThat(calendar.isTruncated()).isFalse();
+        assertThat(calendar.getCompleteThrough()).isEqualTo(to);
+        assertThat(calendar.getEntries()).extracting(MealPlanCalendarEntry::getDate).containsExactly(
+                monday, monday.plusDays(3),
+                monday.plusWeeks(2), monday.plusWeeks(2).plusDays(3),
+                monday.plusWeeks(4), monday.plusWeeks(4).plusDays(3));
+        assertThat(calendar.getEntries()).extracting(MealPlanCalendarEntry::getRecipeName)
+                .containsExactly("Soup", "Stew", "Soup", "Stew", "Soup", "Stew");
+
+        // The top-up must not write the same weeks twice
+        mealPlanTemplateService.topUp();
+        assertThat(mealPlanService.findCalendarByUser(user, monday, to).getEntries()).hasSize(6);
+        assertThat(mealPlanRepository.findVersionById(saved.getMealPlanId())).hasValueSatisfying(v -> assertThat(v).isPositive());
+    }
+
+    @Test
+    void expansionStopsAtTheEndDate() {
+        User user = testUsers.seed();
+        MealPlanTemplate template = template(monday, 1, slot(DayOfWeek.TUESDAY, seedRecipe(user, "Soup")));
+        template.setEndDate(monday.plusWeeks(3));
+        mealPlanTemplateService.create(template, user);
+
+        MealPlanCalendar calendar = mealPlanService.findCalendarByUser(user, monday, monday.plusWeeks(8));
+        assertThat(calendar.getEntries()).hasSize(3);
+        assertThat(calendar.isTruncated()).isFalse();
+    }
+
+    @Test
+    void theCalendarReportsWeeksPastTheRowCapAndTheTopUpWritesThem() {
+        User user = testUsers.seed();
+        Recipe soup = seedRecipe(user, "Soup");
+        MealPlanTemplateSlot[] everyDay = new MealPlanTemplateSlot[7];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            everyDay[day.ordinal()] = slot(day, soup);
+        }
+        MealPlanTemplate saved = mealPlanTemplateService.create(template(monday, 1, everyDay), user);
+
+        // Create writes at most 20 rows; the calendar says where the written part ends
+        LocalDate limit = LocalDate.now().plusDays(60);
+        int days = (int) ChronoUnit.DAYS.between(monday, limit) + 1;
+        assertThat(saved.getExpandedThrough()).isEqualTo(monday.plusDays(19));
+        MealPlanCalendar partial = mealPlanService.findCalendarByUser(user, monday, limit);
+        assertThat(partial.isTruncated()).isTrue();
+        assertThat(partial.getCompleteThrough()).isEqualTo(monday.plusDays(19));
+        assertThat(partial.getEntries()).hasSize(20);
+
+        // The top-up writes the rest in bounded transactions and never passes the horizon
+        assertThat(mealPlanTemplateService.topUp()).isGreaterThanOrEqualTo(days - 20);
+        MealPlanCalendar complete = mealPlanService.findCalendarByUser(user, monday, limit);
+        assertThat(complete.isTruncated()).isFalse();
+        assertThat(complete.getCompleteThrough()).isEqualTo(limit);
+        List<MealPlanItem> items = mealPlanService.findByIdAndUser(saved.getMealPlanId(), user).orElseThrow().getItems();
+        assertThat(items).hasSize(days);
+        assertThat(items).extracting(MealPlanItem::getDate).allMatch(d -> !d.isAfter(limit)).contains(limit);
+    }
+
+    @Test
+    void createRejectsRecipesOfOtherUsers() {
+        User user = testUsers.seed();
+        Recipe foreign = seedRecipe(testUsers.seed(), "Stew");
+
+        assertThatThrownBy(() -> mealPlanTemplateService.create(template(monday, 1, slot(DayOfWeek.MONDAY, foreign)), user))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MealPlanTemplate template(LocalDate start, int intervalWeeks, MealPlanTemplateSlot... slots) {
+        MealPlanTemplate template = new MealPlanTemplate();
+        template.setName("Rotation");
+        template.setStartDate(start);
+        template.setIntervalWeeks(intervalWeeks);
+        template.getSlots().addAll(List.of(slots));
+        return template;
+    }
+
+    private MealPlanTemplateSlot slot(DayOfWeek day, Recipe recipe) {
+        MealPlanTemplateSlot slot = new MealPlanTemplateSlot();
+        slot.setDayOfWeek(day);
+        slot.setRecipe(recipe);
+        return slot;
+    }
+
+    private Recipe seedRecipe(User user, String name) {
+        Recipe recipe = new Recipe();
+        recipe.setName(name);
+        recipe.setServings(2);
+        recipe.setUser(user);
+        return recipeRepository.save(recipe);
+    }
+}
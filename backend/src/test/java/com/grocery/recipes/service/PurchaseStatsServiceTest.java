@@ -0,0 +1,68 @@
+package com.grocery.recipes.service;
+
+import com.grocery.recipes.TestUsers;
+import com.grocery.recipes.dto.PurchaseItemStat;
+import com.grocery.recipes.model.GroceryItem;
+import com.grocery.recipes.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class PurchaseStatsServiceTest {
+
+    @Autowired
+    private TestUsers testUsers;
+    @Autowired
+    private PurchaseStatsService purchaseStatsService;
+    @Autowired
+    private GroceryItemService groceryItemService;
+
+    @Test
+    void rollupsFollowPurchasesUndoAndDeletesAndMatchARebuild() {
+        User user = testUsers.seed();
+        GroceryItem milk = groceryItemService.addItem(item(user, "Milk", 2));
+        GroceryItem eggs = groceryItemService.addItem(item(user, "Eggs", 12));
+
+        groceryItemService.markItemsPurchasedByUser(List.of(milk.getId(), eggs.getId()), user);
+        // Marking an already purchased item again must not count it twice
+        groceryItemService.markItemsPurchasedByUser(List.of(milk.getId()), user);
+
+        List<PurchaseItemStat> top = purchaseStatsService.topItems(user.getId(), 4, 10);
+        assertThat(top).extracting(PurchaseItemStat::getItemName).containsExactly("Eggs", "Milk");
+        assertThat(purchaseStatsService.weekly(user.getId(), 4)).singleElement()
+                .satisfies(week -> {
+                    assertThat(week.getPurchaseCount()).isEqualTo(2);
+                    assertThat(week.getDistinctItems()).isEqualTo(2);
+                });
+
+        groceryItemService.markItemsUnpurchasedByUser(List.of(eggs.getId()), user);
+        groceryItemService.deleteItemByIdAndUser(milk.getId(), user);
+        assertThat(purchaseStatsService.topItems(user.getId(), 4, 10)).isEmpty();
+
+        groceryItemService.markItemsPurchasedByUser(List.of(eggs.getId()), user);
+        List<PurchaseItemStat> incremental = purchaseStatsService.topItems(user.getId(), 4, 10);
+        purchaseStatsService.rebuild();
+        assertThat(purchaseStatsService.topItems(user.getId(), 4, 10))
+                .usingRecursiveFieldByFieldElementComparator()
+                .isEqualTo(incremental)
+                .singleElement()
+                .satisfies(stat -> {
+                    assertThat(stat.getPurchaseCount()).isEqualTo(1);
+                    assertThat(stat.getTotalQuantity()).isEqualTo(12.0);
+                });
+    }
+
+    private GroceryItem item(User user, String name, double quantity) {
+        GroceryItem item = new GroceryItem();
+        item.setItemName(name);
+        item.setQuantity(quantity);
+        item.setUnit("pcs");
+        item.setUser(user);
+        return item;
+    }
+}